@@ -0,0 +1,103 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+/**
+ * display operations: sprite rows drawn at every column (clipped at the right edge), clear and hash. The sprite rows
+ * are also drawn with the former boolean-per-pixel display as a baseline.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DisplayBenchmark {
+    private Display display;
+    /**
+     * former display, one boolean per pixel
+     */
+    private boolean[] pixels;
+
+    @Setup
+    public void setup() {
+        display = new Display();
+        pixels = new boolean[Display.DISPLAY_WIDTH * Display.DISPLAY_HEIGHT];
+        Random random = new Random(0);
+        for (int row = 0; row < Display.DISPLAY_HEIGHT; row++) {
+            long bits = random.nextLong();
+            display.setRow(row, bits);
+            for (int col = 0; col < Display.DISPLAY_WIDTH; col++) {
+                pixels[(row * Display.DISPLAY_WIDTH) + col] = (bits & (Long.MIN_VALUE >>> col)) != 0;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Display.DISPLAY_WIDTH)
+    public void drawSpriteRow(Blackhole blackhole) {
+        for (int col = 0; col < Display.DISPLAY_WIDTH; col++) {
+            blackhole.consume(display.drawSpriteRow(col & (Display.DISPLAY_HEIGHT - 1), col, 0xA5));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Display.DISPLAY_WIDTH)
+    public void drawSpriteRowBooleanPixels(Blackhole blackhole) {
+        for (int col = 0; col < Display.DISPLAY_WIDTH; col++) {
+            blackhole.consume(drawBooleanSpriteRow(col & (Display.DISPLAY_HEIGHT - 1), col, 0xA5));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Display.DISPLAY_WIDTH * 8)
+    public void togglePixel() {
+        for (int col = 0; col < Display.DISPLAY_WIDTH * 8; col++) {
+            display.togglePixel(col & (Display.DISPLAY_HEIGHT - 1), col & (Display.DISPLAY_WIDTH - 1));
+        }
+    }
+
+    @Benchmark
+    public Display clear() {
+        display.clear();
+        return display;
+    }
+
+    @Benchmark
+    public long hash() {
+        return display.hash();
+    }
+
+    @Benchmark
+    public int takeDirtyRows() {
+        display.drawSpriteRow(0, 0, 0xFF);
+        return display.takeDirtyRows();
+    }
+
+    /**
+     * draw a sprite row as the DXYN loop did on the boolean-per-pixel display: one check and one toggle per set bit
+     */
+    private boolean drawBooleanSpriteRow(int row, int col, int sprite) {
+        boolean collision = false;
+        for (int currentBit = 0; currentBit < 8; currentBit++) {
+            int spriteBit = sprite & (0b10000000 >>> currentBit);
+            int colCoord = col + currentBit;
+            if (spriteBit != 0 && colCoord < Display.DISPLAY_WIDTH) {
+                int coords = (row * Display.DISPLAY_WIDTH) + colCoord;
+                if (pixels[coords]) {
+                    collision = true;
+                }
+                pixels[coords] = !pixels[coords];
+            }
+        }
+        return collision;
+    }
+}
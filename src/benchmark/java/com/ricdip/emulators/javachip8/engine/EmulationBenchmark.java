@@ -0,0 +1,53 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.model.Rom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * emulation throughput of each engine over the synthetic programs: scores are instructions per second
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmulationBenchmark {
+    /**
+     * instructions emulated by each {@link #emulateCycles()} invocation
+     */
+    private static final int CYCLES = 10_000;
+    @Param
+    private SyntheticProgram program;
+    @Param
+    private EngineType engine;
+    private Chip8 chip8;
+
+    @Setup
+    public void setup() {
+        Rom rom = program.createRom();
+        chip8 = engine.create();
+        chip8.setRandomSeed(0);
+        chip8.loadRom(rom);
+    }
+
+    @Benchmark
+    public Chip8 emulateCycle() {
+        // engines without their own single step fall back to the interpreter
+        chip8.emulateCycle();
+        return chip8;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CYCLES)
+    public Chip8 emulateCycles() {
+        chip8.emulateCycles(CYCLES);
+        return chip8;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.model.Instruction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+/**
+ * opcode fetch and decode throughput, over the whole memory and over all the known opcodes
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OpcodeBenchmark {
+    private static final int OPCODES = 0x4000;
+    private MachineState state;
+    private int[] opcodes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        state = MachineState.allocate();
+        for (int i = 0; i < BaseChip8.MEMORY_LENGTH; i++) {
+            state.setMemory(i, random.nextInt(0x100));
+        }
+        // random known opcodes, so that the decode table is not read sequentially
+        opcodes = new int[OPCODES];
+        for (int i = 0; i < OPCODES; i++) {
+            int opcode;
+            do {
+                opcode = random.nextInt(0x10000);
+            } while (!Chip8OpcodeDecoder.isKnown(opcode));
+            opcodes[i] = opcode;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BaseChip8.MEMORY_LENGTH / 2)
+    public void fetch(Blackhole blackhole) {
+        for (int PC = 0; PC < BaseChip8.MEMORY_LENGTH; PC += 2) {
+            blackhole.consume(Chip8OpcodeFetcher.fetch(state, PC));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPCODES)
+    public void decode(Blackhole blackhole) {
+        for (int opcode : opcodes) {
+            Instruction instruction = Chip8OpcodeDecoder.decode(opcode);
+            blackhole.consume(instruction);
+        }
+    }
+}
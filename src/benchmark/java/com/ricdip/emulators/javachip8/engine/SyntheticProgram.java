@@ -0,0 +1,74 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.model.Rom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * endless synthetic programs stressing one kind of instructions. None of them is recognized as an idle loop, so every
+ * cycle is really executed.
+ */
+public enum SyntheticProgram {
+    /**
+     * arithmetic, logic and shift instructions
+     */
+    ALU(
+            0x6001, 0x6102, 0x8014, 0x8015, 0x8126, 0x812E, 0x7001, 0x8213,
+            0x8312, 0x8411, 0x8517, 0x9450, 0x7101, 0xC0FF, 0x1204
+    ),
+
+    /**
+     * font sprites drawn over the whole display, row after row
+     */
+    DRAW(
+            0x6000, 0x6100, 0xA000, 0xD015, 0x7005, 0x303C, 0x1206, 0x6000,
+            0x7106, 0x311E, 0x1206, 0x6100, 0x1206
+    ),
+
+    /**
+     * nested subroutine calls and returns
+     */
+    CALL(
+            0x2206, 0x220A, 0x1200, 0x7001, 0x00EE, 0x2206, 0x00EE
+    );
+
+    private final int[] opcodes;
+
+    SyntheticProgram(int... opcodes) {
+        this.opcodes = opcodes;
+    }
+
+    /**
+     * get the program opcodes, loaded from address 0x200
+     *
+     * @return program opcodes
+     */
+    public int[] getOpcodes() {
+        return opcodes.clone();
+    }
+
+    /**
+     * write the program to a temporary ROM file and read it back
+     *
+     * @return program ROM
+     */
+    public Rom createRom() {
+        byte[] content = new byte[opcodes.length * 2];
+        for (int i = 0; i < opcodes.length; i++) {
+            content[i * 2] = (byte) (opcodes[i] >>> 8);
+            content[(i * 2) + 1] = (byte) opcodes[i];
+        }
+        try {
+            Path romPath = Files.createTempFile(name().toLowerCase(), ".ch8");
+            Files.write(romPath, content);
+            Rom rom = new Rom(romPath.toString());
+            Files.delete(romPath);
+            return rom;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
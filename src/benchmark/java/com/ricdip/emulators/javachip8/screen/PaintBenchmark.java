@@ -0,0 +1,77 @@
+package com.ricdip.emulators.javachip8.screen;
+
+import com.ricdip.emulators.javachip8.engine.Display;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * display component redraw path: <code>rows</code> display rows change, the frame is published and the changed rows
+ * rendered, then the component paints them onto an offscreen image, as Swing does for the repainted region.
+ * {@link #paintComponent()} measures the final copy alone.
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PaintBenchmark {
+    @Param({"1", "8", "32"})
+    private int rows;
+    @Param({"10"})
+    private int scale;
+    private Display display;
+    private SwingDisplayComponent component;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        display = new Display();
+        Random random = new Random(0);
+        for (int row = 0; row < Display.DISPLAY_HEIGHT; row++) {
+            display.setRow(row, random.nextLong());
+        }
+        component = new SwingDisplayComponent(display, scale, Palette.CLASSIC);
+        image = new BufferedImage(
+                Display.DISPLAY_WIDTH * scale,
+                Display.DISPLAY_HEIGHT * scale,
+                BufferedImage.TYPE_INT_RGB
+        );
+        graphics = image.createGraphics();
+        // the region repainted for the changed rows
+        graphics.setClip(0, 0, Display.DISPLAY_WIDTH * scale, rows * scale);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage redrawAndPaint() {
+        for (int row = 0; row < rows; row++) {
+            display.setRow(row, ~display.getRow(row));
+        }
+        component.publish(display);
+        component.render();
+        component.paintComponent(graphics);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage paintComponent() {
+        component.paintComponent(graphics);
+        return image;
+    }
+}
@@ -1,12 +1,17 @@
 package com.ricdip.emulators.javachip8;
 
 import com.ricdip.emulators.javachip8.cli.CLIApplication;
+import com.ricdip.emulators.javachip8.cli.TraceCommand;
+import com.ricdip.emulators.javachip8.engine.BatchExecutor;
 import com.ricdip.emulators.javachip8.engine.Chip8Executor;
+import com.ricdip.emulators.javachip8.engine.TraceQuery;
 import picocli.CommandLine;
 
 public class Main {
     public static void main(String[] args) {
-        int exitCode = new CommandLine(new CLIApplication(Chip8Executor::startEmulation)).execute(args);
+        int exitCode = new CommandLine(new CLIApplication(Chip8Executor::startEmulation, BatchExecutor::runBatch))
+                .addSubcommand(new TraceCommand(TraceQuery::run))
+                .execute(args);
         System.exit(exitCode);
     }
 }
@@ -1,9 +1,21 @@
 package com.ricdip.emulators.javachip8.cli;
 
+import com.ricdip.emulators.javachip8.engine.Chip8;
+import com.ricdip.emulators.javachip8.engine.EngineType;
+import com.ricdip.emulators.javachip8.engine.ExecutionTracer;
+import com.ricdip.emulators.javachip8.model.BatchConfig;
+import com.ricdip.emulators.javachip8.model.EmulationConfig;
+import com.ricdip.emulators.javachip8.screen.Palette;
+import com.ricdip.emulators.javachip8.screen.SwingDisplayComponent;
+import com.ricdip.emulators.javachip8.sound.SoundType;
+import com.ricdip.emulators.javachip8.sound.StreamingSound;
 import org.slf4j.simple.SimpleLogger;
 import picocli.CommandLine.ArgGroup;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
 
 import java.util.Optional;
 
@@ -14,22 +26,265 @@ import java.util.Optional;
         description = "A simple CHIP-8 implementation written in Java."
 )
 public class CLIApplication implements Runnable {
+    /**
+     * maximum size in screen pixels of a CHIP-8 pixel
+     */
+    public static final int MAX_SCALE = 40;
+    /**
+     * bounds in milliseconds of the audio buffer length
+     */
+    public static final int MIN_AUDIO_BUFFER_MILLIS = 5;
+    public static final int MAX_AUDIO_BUFFER_MILLIS = 1000;
     @ArgGroup
     private final LoggingArgGroup loggingArgGroup = new LoggingArgGroup();
+    @ArgGroup(exclusive = false)
+    private final RunLimitArgGroup runLimitArgGroup = new RunLimitArgGroup();
     private final ICLIRunner runner;
-    @Option(names = {"-r", "--rom"}, description = "Path to CHIP-8 ROM file.", required = true)
+    private final IBatchRunner batchRunner;
+    @Spec
+    private CommandSpec spec;
+    @Option(names = {"-r", "--rom"}, description = "Path to CHIP-8 ROM file, required unless --batch is set.")
     private String romPath;
     @Option(names = {"-s", "--seed"}, description = "Set random seed.")
     private Long randomSeed;
+    @Option(
+            names = {"-i", "--input"},
+            description = "Path to an input script: one '<frame> <key> press|release' event per line."
+    )
+    private String inputScriptPath;
+    @Option(
+            names = {"--record"},
+            description = "Record the key presses to a file, with the seed and the final framebuffer hash."
+    )
+    private String recordPath;
+    @Option(
+            names = {"--replay"},
+            description = "Replay a recording headless as fast as possible and check the final framebuffer hash."
+    )
+    private String replayPath;
+    @Option(
+            names = {"--profile"},
+            description = "Count executions by address and subroutine calls, and write a hotspot and coverage " +
+                    "report to a file at exit."
+    )
+    private String profilePath;
+    @Option(
+            names = {"--wav"},
+            description = "Render the sound of a headless run or replay to a WAV file, timed by emulated frames."
+    )
+    private String wavPath;
+    @Option(
+            names = {"--capture"},
+            description = "Capture the displayed frames to an animated GIF file (*.gif) or to a directory of PNG " +
+                    "files, without slowing the emulation: frames are dropped if encoding falls behind."
+    )
+    private String capturePath;
+    @Option(
+            names = {"--trace"},
+            description = "Record every executed instruction to a binary trace file, see the trace command."
+    )
+    private String tracePath;
+    @Option(
+            names = {"--trace-ring"},
+            description = "Log the given number of last executed instructions if the emulation fails " +
+                    "[default: " + ExecutionTracer.DEFAULT_RING_RECORDS + " with --trace, 0 otherwise]."
+    )
+    private Integer traceRingRecords;
+    @Option(
+            names = {"--batch"},
+            description = "Run the headless jobs of a jobs file in parallel and write a CSV report, " +
+                    "one 'rom=<path> [seed=<n>] [input=<path>] [frames=<n>] [cycles=<n>] [engine=<e>] [ips=<n>]' " +
+                    "job per line."
+    )
+    private String batchJobsPath;
+    @Option(
+            names = {"--threads"},
+            description = "Batch jobs run in parallel [default: number of available processors]."
+    )
+    private Integer threads;
+    @Option(names = {"--report"}, description = "Batch report file [default: standard output].")
+    private String reportPath;
+    @Option(
+            names = {"-e", "--engine"},
+            description = "Emulation engine: ${COMPLETION-CANDIDATES} [default: ${DEFAULT-VALUE}]."
+    )
+    private EngineType engineType = EngineType.INTERPRETER;
+    @Option(
+            names = {"--ips"},
+            description = "Instructions per second, timers always run at 60 Hz [default: ${DEFAULT-VALUE}]."
+    )
+    private int instructionsPerSecond = EmulationConfig.DEFAULT_INSTRUCTIONS_PER_SECOND;
+    @Option(
+            names = {"--pacer-spin"},
+            description = "Busy-wait the last fraction of a millisecond of each frame for a steadier frame rate."
+    )
+    private boolean pacerSpin;
+    @Option(
+            names = {"--scale"},
+            description = "Size in screen pixels of a CHIP-8 pixel [default: ${DEFAULT-VALUE}]."
+    )
+    private int scale = SwingDisplayComponent.DEFAULT_SCALE;
+    @Option(
+            names = {"--palette"},
+            description = "Display colors: ${COMPLETION-CANDIDATES} [default: ${DEFAULT-VALUE}]."
+    )
+    private Palette palette = Palette.CLASSIC;
+    @Option(
+            names = {"--sound"},
+            description = "Sound: ${COMPLETION-CANDIDATES} [default: ${DEFAULT-VALUE}]."
+    )
+    private SoundType soundType = SoundType.CLIP;
+    @Option(
+            names = {"--audio-buffer"},
+            description = "Audio buffer length in milliseconds of the stream sound, lower values reduce latency " +
+                    "but may cause underruns [default: ${DEFAULT-VALUE}]."
+    )
+    private int audioBufferMillis = StreamingSound.DEFAULT_BUFFER_MILLIS;
+    @Option(
+            names = {"--state-dir"},
+            description = "Directory of the save state files, F1-F4 load slots 1-4 and Shift+F1-F4 save them " +
+                    "[default: ROM directory]."
+    )
+    private String stateDirectory;
+    @Option(
+            names = {"--rewind"},
+            description = "Seconds of history kept to rewind while Backspace is held, e.g. 300, 0 to disable " +
+                    "[default: ${DEFAULT-VALUE}]."
+    )
+    private int rewindSeconds = EmulationConfig.DEFAULT_REWIND_SECONDS;
+    @Option(
+            names = {"--headless"},
+            description = "Run without screen and sound as fast as possible until a run limit is reached, " +
+                    "then print throughput stats and framebuffer hash."
+    )
+    private boolean headless;
 
-    public CLIApplication(ICLIRunner runner) {
+    public CLIApplication(ICLIRunner runner, IBatchRunner batchRunner) {
         this.runner = runner;
+        this.batchRunner = batchRunner;
     }
 
     @Override
     public void run() {
         Optional<LoggingLevel> loggingLevel = loggingArgGroup.getLoggingLevel();
         loggingLevel.ifPresent(level -> System.setProperty(SimpleLogger.DEFAULT_LOG_LEVEL_KEY, level.toString()));
-        runner.run(romPath, randomSeed);
+        if (instructionsPerSecond < Chip8.FRAME_RATE) {
+            throw new ParameterException(
+                    spec.commandLine(),
+                    String.format("Invalid --ips: must be at least %d (one instruction per frame)", Chip8.FRAME_RATE)
+            );
+        }
+        if (batchJobsPath != null) {
+            runBatch();
+            return;
+        }
+        if (romPath == null) {
+            throw new ParameterException(spec.commandLine(), "Missing required option: '--rom=<romPath>'");
+        }
+        EmulationConfig config = EmulationConfig
+                .builder()
+                .romPath(romPath)
+                .randomSeed(randomSeed)
+                .inputScriptPath(inputScriptPath)
+                .recordPath(recordPath)
+                .replayPath(replayPath)
+                .profilePath(profilePath)
+                .wavPath(wavPath)
+                .capturePath(capturePath)
+                .tracePath(tracePath)
+                .traceRingRecords(
+                        traceRingRecords != null
+                                ? traceRingRecords
+                                : (tracePath != null ? ExecutionTracer.DEFAULT_RING_RECORDS : 0)
+                )
+                .engineType(engineType)
+                .instructionsPerSecond(instructionsPerSecond)
+                .pacerSpin(pacerSpin)
+                .scale(scale)
+                .stateDirectory(stateDirectory)
+                .rewindSeconds(rewindSeconds)
+                .palette(palette)
+                .soundType(soundType)
+                .audioBufferMillis(audioBufferMillis)
+                .headless(headless)
+                .maxCycles(runLimitArgGroup.getMaxCycles())
+                .maxFrames(runLimitArgGroup.getMaxFrames())
+                .maxTime(runLimitArgGroup.getMaxTime())
+                .build();
+        if (scale < 1 || scale > MAX_SCALE) {
+            throw new ParameterException(
+                    spec.commandLine(),
+                    String.format("Invalid --scale: must be between 1 and %d", MAX_SCALE)
+            );
+        }
+        if (traceRingRecords != null && traceRingRecords < 1) {
+            throw new ParameterException(spec.commandLine(), "Invalid --trace-ring: must be at least 1");
+        }
+        if (audioBufferMillis < MIN_AUDIO_BUFFER_MILLIS || audioBufferMillis > MAX_AUDIO_BUFFER_MILLIS) {
+            throw new ParameterException(
+                    spec.commandLine(),
+                    String.format(
+                            "Invalid --audio-buffer: must be between %d and %d",
+                            MIN_AUDIO_BUFFER_MILLIS,
+                            MAX_AUDIO_BUFFER_MILLIS
+                    )
+            );
+        }
+        if (rewindSeconds < 0) {
+            throw new ParameterException(spec.commandLine(), "Invalid --rewind: must be at least 0");
+        }
+        if (recordPath != null && (headless || replayPath != null)) {
+            throw new ParameterException(spec.commandLine(), "--record cannot be used with --headless or --replay");
+        }
+        if (recordPath != null && inputScriptPath != null) {
+            // script events do not go through the recorder: the recording could not be replayed
+            throw new ParameterException(spec.commandLine(), "--record cannot be used with --input");
+        }
+        if (recordPath != null && runLimitArgGroup.getMaxCycles() != null) {
+            // the cycle limit can stop the last frame halfway, while replays emulate whole frames
+            throw new ParameterException(spec.commandLine(), "--record cannot be used with --max-cycles");
+        }
+        if (wavPath != null && !headless && replayPath == null) {
+            throw new ParameterException(spec.commandLine(), "--wav requires --headless or --replay");
+        }
+        if (replayPath != null) {
+            if (inputScriptPath != null || config.hasRunLimit()) {
+                throw new ParameterException(
+                        spec.commandLine(),
+                        "--replay cannot be used with --input or run limits (the recording sets them)"
+                );
+            }
+            runner.run(config);
+            return;
+        }
+        if (config.isHeadless() && !config.hasRunLimit()) {
+            throw new ParameterException(
+                    spec.commandLine(),
+                    "Missing run limit: --headless requires --max-cycles, --max-frames or --max-time"
+            );
+        }
+        runner.run(config);
     }
-}
\ No newline at end of file
+
+    private void runBatch() {
+        if (romPath != null) {
+            throw new ParameterException(spec.commandLine(), "--rom and --batch are mutually exclusive (specify only one)");
+        }
+        int batchThreads = threads != null ? threads : Runtime.getRuntime().availableProcessors();
+        if (batchThreads < 1) {
+            throw new ParameterException(spec.commandLine(), "Invalid --threads: must be at least 1");
+        }
+        BatchConfig config = BatchConfig
+                .builder()
+                .jobsPath(batchJobsPath)
+                .reportPath(reportPath)
+                .threads(batchThreads)
+                .engineType(engineType)
+                .instructionsPerSecond(instructionsPerSecond)
+                .maxCycles(runLimitArgGroup.getMaxCycles())
+                .maxFrames(runLimitArgGroup.getMaxFrames())
+                .maxTime(runLimitArgGroup.getMaxTime())
+                .build();
+        batchRunner.run(config);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ricdip.emulators.javachip8.cli;
+
+import com.ricdip.emulators.javachip8.model.BatchConfig;
+
+public interface IBatchRunner {
+    void run(BatchConfig config);
+}
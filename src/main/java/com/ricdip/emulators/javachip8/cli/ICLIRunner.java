@@ -1,5 +1,7 @@
 package com.ricdip.emulators.javachip8.cli;
 
+import com.ricdip.emulators.javachip8.model.EmulationConfig;
+
 public interface ICLIRunner {
-    void run(String romPath, Long randomSeed);
+    void run(EmulationConfig config);
 }
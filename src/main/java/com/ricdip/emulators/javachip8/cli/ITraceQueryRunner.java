@@ -0,0 +1,7 @@
+package com.ricdip.emulators.javachip8.cli;
+
+import com.ricdip.emulators.javachip8.model.TraceQueryConfig;
+
+public interface ITraceQueryRunner {
+    void run(TraceQueryConfig config);
+}
@@ -0,0 +1,22 @@
+package com.ricdip.emulators.javachip8.cli;
+
+import lombok.Getter;
+import picocli.CommandLine.Option;
+
+import java.time.Duration;
+
+@Getter
+public class RunLimitArgGroup {
+    @Option(names = {"--max-cycles"}, description = "Stop after the given number of cycles.")
+    private Long maxCycles;
+
+    @Option(names = {"--max-frames"}, description = "Stop after the given number of frames.")
+    private Long maxFrames;
+
+    @Option(names = {"--max-time"}, description = "Stop after the given number of seconds.")
+    private Long maxTimeSeconds;
+
+    public Duration getMaxTime() {
+        return maxTimeSeconds != null ? Duration.ofSeconds(maxTimeSeconds) : null;
+    }
+}
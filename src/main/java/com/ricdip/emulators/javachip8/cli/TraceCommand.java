@@ -0,0 +1,71 @@
+package com.ricdip.emulators.javachip8.cli;
+
+import com.ricdip.emulators.javachip8.model.TraceQueryConfig;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+@Command(
+        name = "trace",
+        mixinStandardHelpOptions = true,
+        description = "Filter and disassemble an execution trace file written with --trace."
+)
+public class TraceCommand implements Runnable {
+    private final ITraceQueryRunner runner;
+    @Spec
+    private CommandSpec spec;
+    @Parameters(index = "0", description = "Path to the trace file.")
+    private String tracePath;
+    @Option(names = {"--pc"}, description = "PC range, hexadecimal and inclusive: <from>-<to> (e.g. 200-2FF).")
+    private String pcRange;
+    @Option(names = {"--cycles"}, description = "Cycle window, inclusive: <from>-<to> (e.g. 1000-2000).")
+    private String cycleRange;
+    @Option(names = {"--limit"}, description = "Print at most the given number of records.")
+    private Long limit;
+
+    public TraceCommand(ITraceQueryRunner runner) {
+        this.runner = runner;
+    }
+
+    @Override
+    public void run() {
+        TraceQueryConfig.TraceQueryConfigBuilder config = TraceQueryConfig.builder().tracePath(tracePath);
+        if (pcRange != null) {
+            long[] range = parseRange("--pc", pcRange, 16);
+            config.fromPC((int) range[0]).toPC((int) range[1]);
+        }
+        if (cycleRange != null) {
+            long[] range = parseRange("--cycles", cycleRange, 10);
+            config.fromCycle(range[0]).toCycle(range[1]);
+        }
+        if (limit != null) {
+            if (limit < 1) {
+                throw new ParameterException(spec.commandLine(), "Invalid --limit: must be at least 1");
+            }
+            config.limit(limit);
+        }
+        runner.run(config.build());
+    }
+
+    private long[] parseRange(String option, String range, int radix) {
+        String[] bounds = range.split("-", -1);
+        try {
+            if (bounds.length == 2) {
+                long from = Long.parseLong(bounds[0].trim(), radix);
+                long to = Long.parseLong(bounds[1].trim(), radix);
+                if (from >= 0 && from <= to) {
+                    return new long[]{from, to};
+                }
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new ParameterException(
+                spec.commandLine(),
+                String.format("Invalid %s: expected <from>-<to>, found '%s'", option, range)
+        );
+    }
+}
@@ -2,14 +2,18 @@ package com.ricdip.emulators.javachip8.engine;
 
 import com.ricdip.emulators.javachip8.exception.Chip8Exception;
 import com.ricdip.emulators.javachip8.model.FontSet;
+import com.ricdip.emulators.javachip8.model.OpcodeType;
 import com.ricdip.emulators.javachip8.model.Rom;
 import com.ricdip.emulators.javachip8.sound.NoneSound;
 import com.ricdip.emulators.javachip8.sound.Sound;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Arrays;
+
 @Getter
 @Slf4j
 public abstract class BaseChip8 {
@@ -27,49 +31,31 @@ public abstract class BaseChip8 {
     public static final int SP_INIT_VALUE = 0x00;
     public static final int OPCODE_INIT_VALUE = 0x0000;
     /**
-     * 4,096 bytes of RAM: 0x000 (0) - 0xFFF (4095).
-     * The first 512 bytes (0x000 - 0x1FF) are where the original interpreter was located, and should not be used by
-     * programs. Most Chip-8 programs start at location 0x200 (512).
-     */
-    protected int[] memory;
-    /**
-     * 16 general purpose 8-bit registers: V0 - VF.
-     * VF register should not be used by any program, as it is used as a flag.
-     */
-    protected int[] V;
-    /**
-     * 16-bit register: index register, used to store memory addresses, so only the lowest (rightmost) 12 bits are
-     * usually used (2^12 = 4096).
-     */
-    protected int I;
-    /**
-     * special purpose 8-bit register. The delay timer is active whenever the delay timer register (DT) is non-zero.
-     * This timer does nothing more than subtract 1 from the value of DT at a rate of 60Hz.
-     * When DT reaches 0, it deactivates.
-     */
-    protected int delayTimer;
-    /**
-     * special purpose 8-bit register. The sound timer is active whenever the sound timer register (ST) is non-zero.
-     * This timer also decrements at a rate of 60Hz, however, as long as ST's value is greater than zero,
-     * the Chip-8 buzzer will sound.
-     * When ST reaches zero, the sound timer deactivates.
+     * machine state: memory, registers, stack, timers and display in one contiguous byte array, see {@link MachineState}.
+     * <ul>
+     *     <li>4,096 bytes of RAM: 0x000 (0) - 0xFFF (4095). The first 512 bytes (0x000 - 0x1FF) are where the
+     *     original interpreter was located, and should not be used by programs. Most Chip-8 programs start at location
+     *     0x200 (512).</li>
+     *     <li>V: 16 general purpose 8-bit registers, V0 - VF. VF register should not be used by any program, as it is
+     *     used as a flag.</li>
+     *     <li>I: 16-bit index register, used to store memory addresses, so only the lowest (rightmost) 12 bits are
+     *     usually used (2^12 = 4096).</li>
+     *     <li>delay timer: special purpose 8-bit register, active whenever it is non-zero. This timer does nothing more
+     *     than subtract 1 from its value at a rate of 60Hz. When it reaches 0, it deactivates.</li>
+     *     <li>sound timer: special purpose 8-bit register, it also decrements at a rate of 60Hz. As long as its value
+     *     is greater than zero, the Chip-8 buzzer will sound. When it reaches zero, it deactivates.</li>
+     *     <li>PC: 16-bit pseudo-register, the program counter, used to store the currently executing address. Starts
+     *     at 0x200.</li>
+     *     <li>stack: array of 16 16-bit values, used to store the address that the interpreter should return to when
+     *     finished with a subroutine. Chip-8 allows for up to 16 levels of nested subroutines.</li>
+     *     <li>SP: 8-bit pseudo-register, the stack pointer, used to point to the topmost level of the stack.</li>
+     *     <li>opcode: the last 16-bit opcode. CHIP-8 has 35 opcodes which are all two bytes long.</li>
+     *     <li>draw flag: if this flag is set, update the screen.</li>
+     * </ul>
      */
-    protected int soundTimer;
+    @Getter(AccessLevel.PACKAGE)
+    protected final MachineState state;
     protected Sound sound;
-    /**
-     * 16-bit pseudo-register: program counter, used to store the currently executing address.
-     * Starts at 0x200.
-     */
-    protected int PC;
-    /**
-     * array of 16 16-bit values: used to store the address that the interpreter shoud return to when finished with a
-     * subroutine. Chip-8 allows for up to 16 levels of nested subroutines.
-     */
-    protected int[] stack;
-    /**
-     * 8-bit pseudo-register: stack pointer, used to point to the topmost level of the stack.
-     */
-    protected int SP;
     /**
      * object that contains a 16-key hexadecimal keypad with the following layout:
      * <pre>
@@ -96,18 +82,55 @@ public abstract class BaseChip8 {
      */
     protected Display display;
     /**
-     * 16-bit opcode. CHIP-8 has 35 opcodes which are all two bytes long.
+     * number of cycles skipped because spent in idle loops
+     */
+    protected long idleCycles;
+    /**
+     * executed instructions counted by opcode type, indexed by {@link OpcodeType} ordinal
+     */
+    @Getter(AccessLevel.NONE)
+    protected final long[] opcodeCounts;
+    /**
+     * number of times the sound timer started from 0
+     */
+    protected long soundActivations;
+    /**
+     * number of executed DXYN instructions
+     */
+    protected long drawnSprites;
+    /**
+     * number of executed DXYN instructions that erased at least one pixel
+     */
+    protected long spriteCollisions;
+    /**
+     * true if the sound timer was not 0 at the end of the last timers update
+     */
+    @Getter(AccessLevel.NONE)
+    private boolean soundTimerActive;
+    /**
+     * nullable instructions executed at each address, cycles skipped in idle loops included.
+     * Only allocated when profiling, see {@link #enableProfiler()}. Counters are <code>long</code>, not
+     * <code>int</code>: a headless run emulates tens of millions of cycles per second, mostly at a few addresses, and
+     * skipped idle loops add billions at once, so an <code>int</code> counter would overflow within a minute.
+     */
+    @Getter(AccessLevel.NONE)
+    protected long[] pcExecutions;
+    /**
+     * nullable subroutine calls (2NNN) to each address. Only allocated when profiling, see {@link #enableProfiler()}.
      */
-    protected int opcode;
+    @Getter(AccessLevel.NONE)
+    protected long[] subroutineCalls;
     /**
-     * if this flag is set, update the screen.
+     * nullable tracer of the executed instructions
      */
     @Setter
-    protected boolean drawFlag;
+    protected ExecutionTracer tracer;
 
     public BaseChip8() {
+        state = MachineState.allocate();
+        opcodeCounts = new long[OpcodeType.values().length];
         keyboard = new Keyboard();
-        display = new Display();
+        display = new Display(state);
         sound = new NoneSound();
         init();
     }
@@ -131,46 +154,315 @@ public abstract class BaseChip8 {
             throw new Chip8Exception("ROM file size exceeds available memory");
         }
 
-        byte[] romContent = rom.getRomContent();
-        for (int i = 0; i < rom.getRomSize(); i++) {
-            memory[i + PC_INIT_VALUE] = Byte.toUnsignedInt(romContent[i]);
-        }
+        state.setMemory(PC_INIT_VALUE, rom.getRomContent(), 0, rom.getRomSize());
+        onMemoryWrite(PC_INIT_VALUE, rom.getRomSize());
         log.info("ROM file '{}' loaded", rom.getRomName());
     }
 
     private void init() {
         log.info("initialization");
-        memory = new int[MEMORY_LENGTH]; // clear memory
-        V = new int[V_LENGTH]; // clear registers V0-VF
-        I = I_INIT_VALUE; // clear index register
-        delayTimer = DELAY_TIMER_INIT_VALUE; // reset delay timer
-        soundTimer = SOUND_TIMER_INIT_VALUE; // reset sound timer
-        PC = PC_INIT_VALUE; // program counter starts at 0x200
-        SP = SP_INIT_VALUE; // reset stack pointer
-        stack = new int[STACK_LENGTH]; // clear stack
+        display.clear(); // clear display, before the state so that the changed rows are tracked
+        long randomState = state.getRandomState();
+        state.clear(); // clear memory, registers V0-VF, stack and flags
+        state.setRandomState(randomState); // a reset does not reseed the random number generator
+        state.setI(I_INIT_VALUE); // clear index register
+        state.setDelayTimer(DELAY_TIMER_INIT_VALUE); // reset delay timer
+        state.setSoundTimer(SOUND_TIMER_INIT_VALUE); // reset sound timer
+        state.setPC(PC_INIT_VALUE); // program counter starts at 0x200
+        state.setSP(SP_INIT_VALUE); // reset stack pointer
         keyboard.reset(); // reset keyboard
-        display.clear(); // clear display
-        opcode = OPCODE_INIT_VALUE; // reset opcode
-        drawFlag = false; // reset draw flag
+        state.setOpcode(OPCODE_INIT_VALUE); // reset opcode
+        state.setDrawFlag(false); // reset draw flag
+        idleCycles = 0; // reset idle cycles counter
+        Arrays.fill(opcodeCounts, 0); // reset opcode counters
+        soundActivations = 0; // reset sound activations counter
+        drawnSprites = 0; // reset sprite counters
+        spriteCollisions = 0;
+        soundTimerActive = false;
+        if (pcExecutions != null) {
+            Arrays.fill(pcExecutions, 0); // reset profiler counters
+            Arrays.fill(subroutineCalls, 0);
+        }
         loadFontSet();
     }
 
     private void loadFontSet() {
         // load fontset in memory
         for (int i = 0; i < FontSet.SPRITES.length; i++) {
-            memory[i] = FontSet.SPRITES[i];
+            state.setMemory(i, FontSet.SPRITES[i]);
         }
         log.info("fontset loaded");
     }
 
+    /**
+     * save the machine state: the working state is copied as a whole, then the pressed keys are added.
+     *
+     * @param snapshot the machine state to write
+     */
+    public void saveState(MachineState snapshot) {
+        snapshot.copyFrom(state);
+        snapshot.setPressedKeys(keyboard.getPressedKeys());
+    }
+
+    /**
+     * restore a machine state saved by {@link #saveState(MachineState)}. The pressed keys are not restored: the keyboard
+     * keeps the keys currently held.
+     *
+     * @param snapshot the machine state to read
+     */
+    public void loadState(MachineState snapshot) {
+        // only the changed memory range is notified, so that engines keep the code that did not change
+        int firstChanged = MEMORY_LENGTH;
+        int lastChanged = -1;
+        for (int address = 0; address < MEMORY_LENGTH; address++) {
+            if (state.getMemory(address) != snapshot.getMemory(address)) {
+                firstChanged = Math.min(firstChanged, address);
+                lastChanged = address;
+            }
+        }
+        // rows are set through the display first, so that it tracks the changed ones
+        for (int row = 0; row < Display.DISPLAY_HEIGHT; row++) {
+            display.setRow(row, snapshot.getDisplayRow(row));
+        }
+        state.copyFrom(snapshot);
+        // the keyboard follows the physical keys: restoring the keys held at save time would leave them stuck
+        keyboard.clearLatchedKeys();
+        if (lastChanged >= firstChanged) {
+            onMemoryWrite(firstChanged, lastChanged - firstChanged + 1);
+        }
+    }
+
+    /**
+     * get the program counter
+     *
+     * @return the address of the next instruction to execute
+     */
+    public int getPC() {
+        return state.getPC();
+    }
+
+    /**
+     * get the last fetched opcode
+     *
+     * @return 16-bit opcode
+     */
+    public int getOpcode() {
+        return state.getOpcode();
+    }
+
+    /**
+     * check if the display changed since the draw flag was cleared
+     *
+     * @return true if the screen must be updated, false otherwise
+     */
+    public boolean isDrawFlag() {
+        return state.isDrawFlag();
+    }
+
+    public void setDrawFlag(boolean drawFlag) {
+        state.setDrawFlag(drawFlag);
+    }
+
+    /**
+     * notify that a memory range has been written by the program or by the ROM loader.
+     * Engines that cache translated code override this to invalidate it.
+     *
+     * @param address first written memory address
+     * @param length  number of written memory locations
+     */
+    protected void onMemoryWrite(int address, int length) {
+        // NOOP
+    }
+
     /**
      * emulate 1 CHIP-8 cycle: fetch opcode, decode opcode, execute opcode.
-     * At the end, update sound timer and delay timer.
+     * Timers are not updated: see {@link #updateTimers()}.
      *
      * @throws Chip8Exception if an error occurred during cycle emulation
      */
     public abstract void emulateCycle();
 
+    /**
+     * emulate multiple CHIP-8 cycles. Engines may execute several cycles at once, but the resulting state is the same
+     * as calling {@link #emulateCycle()} <code>cycles</code> times.
+     * Cycles spent in an idle loop are skipped, see {@link #skipIdleLoop(int)}.
+     *
+     * @param cycles number of cycles to emulate
+     * @throws Chip8Exception if an error occurred during cycle emulation
+     */
+    public void emulateCycles(int cycles) {
+        int remaining = cycles;
+        while (remaining > 0) {
+            int previousPC = state.getPC();
+            emulateCycle();
+            remaining -= 1;
+            // idle loops always jump backward or stay on the same instruction
+            if (state.getPC() <= previousPC) {
+                remaining -= skipIdleLoop(remaining);
+            }
+        }
+    }
+
+    /**
+     * skip the remaining cycles of an idle loop starting at PC. An idle loop does not change the machine state until a
+     * timer tick or a key press, so whole loop iterations can be skipped without changing the state visible to the
+     * ROM. Recognized idle loops:
+     * <ul>
+     *     <li>FX0A waiting for a key press while no key is pressed</li>
+     *     <li>1NNN jumping to itself</li>
+     *     <li>FX07, 3XKK (or 4XKK), 1NNN delay loop waiting for the delay timer</li>
+     * </ul>
+     *
+     * @param remaining number of cycles left to emulate
+     * @return number of skipped cycles, a multiple of the idle loop length not greater than <code>remaining</code>
+     */
+    protected int skipIdleLoop(int remaining) {
+        int idleLoopLength = getIdleLoopLength();
+        if (idleLoopLength == 0) {
+            return 0;
+        }
+        int skippedCycles = (remaining / idleLoopLength) * idleLoopLength;
+        idleCycles += skippedCycles;
+        if (tracer != null) {
+            tracer.skip(skippedCycles);
+        }
+        if (pcExecutions != null) {
+            int PC = state.getPC();
+            for (int i = 0; i < idleLoopLength; i++) {
+                pcExecutions[PC + (i * 2)] += skippedCycles / idleLoopLength;
+            }
+        }
+        return skippedCycles;
+    }
+
+    private int getIdleLoopLength() {
+        int PC = state.getPC();
+        if (PC + 5 >= MEMORY_LENGTH) {
+            return 0;
+        }
+        int currentOpcode = Chip8OpcodeFetcher.fetch(state, PC);
+        // FX0A: wait for key press
+        if ((currentOpcode & 0xF0FF) == 0xF00A) {
+            return keyboard.hasKeyPress() ? 0 : 1;
+        }
+        // 1NNN: jump to itself
+        if (currentOpcode == (0x1000 | PC)) {
+            return 1;
+        }
+        // FX07, 3XKK/4XKK, 1NNN: delay loop
+        if ((currentOpcode & 0xF0FF) == 0xF007) {
+            int X = (currentOpcode & 0x0F00) >>> 8;
+            int skipOpcode = Chip8OpcodeFetcher.fetch(state, PC + 2);
+            int jumpOpcode = Chip8OpcodeFetcher.fetch(state, PC + 4);
+            int delayTimer = state.getDelayTimer();
+            if (jumpOpcode != (0x1000 | PC) || ((skipOpcode & 0x0F00) >>> 8) != X || state.getV(X) != delayTimer) {
+                return 0;
+            }
+            int KK = skipOpcode & 0x00FF;
+            boolean waiting = switch (skipOpcode & 0xF000) {
+                case 0x3000 -> delayTimer != KK;
+                case 0x4000 -> delayTimer == KK;
+                default -> false;
+            };
+            return waiting ? 3 : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * get the number of executed instructions of each opcode type. Cycles skipped in idle loops are not counted.
+     *
+     * @return instruction counts indexed by {@link OpcodeType} ordinal
+     */
+    public long[] getOpcodeCounts() {
+        updateCounters();
+        return opcodeCounts.clone();
+    }
+
+    /**
+     * start counting executions by address and subroutine calls by target address, see {@link #getPcExecutions()}
+     * and {@link #getSubroutineCalls()}
+     */
+    public void enableProfiler() {
+        if (pcExecutions == null) {
+            pcExecutions = new long[MEMORY_LENGTH];
+            subroutineCalls = new long[MEMORY_LENGTH];
+            log.info("profiler enabled");
+        }
+    }
+
+    /**
+     * get the number of instructions executed at each address, cycles skipped in idle loops included
+     *
+     * @return executions indexed by address, null if the profiler is not enabled
+     */
+    public long[] getPcExecutions() {
+        if (pcExecutions == null) {
+            return null;
+        }
+        updateCounters();
+        return pcExecutions.clone();
+    }
+
+    /**
+     * get the number of subroutine calls (2NNN) to each address
+     *
+     * @return calls indexed by target address, null if the profiler is not enabled
+     */
+    public long[] getSubroutineCalls() {
+        return subroutineCalls != null ? subroutineCalls.clone() : null;
+    }
+
+    /**
+     * bring the execution counters up to date, for engines that count lazily
+     */
+    protected void updateCounters() {
+        // NOOP
+    }
+
+    /**
+     * check if the machine waits for a key press (FX0A) with both timers stopped: until a key is pressed, emulating
+     * more frames does not change the machine state, so the emulation thread can park.
+     *
+     * @return true if nothing changes until a key press, false otherwise
+     */
+    public boolean isIdleUntilKeyPress() {
+        int PC = state.getPC();
+        if (state.getDelayTimer() != 0 || state.getSoundTimer() != 0 || PC + 1 >= MEMORY_LENGTH) {
+            return false;
+        }
+        int currentOpcode = Chip8OpcodeFetcher.fetch(state, PC);
+        return (currentOpcode & 0xF0FF) == 0xF00A && !keyboard.hasKeyPress();
+    }
+
+    /**
+     * update delay timer and sound timer. Must be called at {@link #FRAME_RATE} Hz, independently of the number of
+     * emulated cycles.
+     */
+    public void updateTimers() {
+        int delayTimer = state.getDelayTimer();
+        int soundTimer = state.getSoundTimer();
+        if (log.isTraceEnabled()) {
+            log.trace("delay timer: {}", delayTimer);
+        }
+        if (delayTimer > 0) {
+            state.setDelayTimer(delayTimer - 1);
+        }
+        if (log.isTraceEnabled()) {
+            log.trace("sound timer: {}", soundTimer);
+        }
+        // the sound plays during the frames that start with a non-zero sound timer
+        sound.update(soundTimer > 0);
+        if (soundTimer > 0) {
+            if (!soundTimerActive) {
+                soundActivations += 1;
+            }
+            soundTimer -= 1;
+            state.setSoundTimer(soundTimer);
+        }
+        soundTimerActive = soundTimer > 0;
+    }
+
     /**
      * set CHIP-8 sound implementation
      *
@@ -0,0 +1,227 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.BatchException;
+import com.ricdip.emulators.javachip8.exception.ExecutionException;
+import com.ricdip.emulators.javachip8.model.BatchConfig;
+import com.ricdip.emulators.javachip8.model.EmulationConfig;
+import com.ricdip.emulators.javachip8.model.EmulationResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * run many headless emulation jobs in parallel, and write the results to a single report.
+ * The jobs file has one job per line, as whitespace separated <code>key=value</code> fields:
+ * <pre>
+ * # rom is required, the other fields are optional
+ * rom=roms/IBM_logo.ch8 seed=1 frames=600
+ * rom=roms/octojam9title.ch8 seed=2 input=inputs/title.txt cycles=1000000 engine=JIT ips=1200
+ * </pre>
+ * Relative paths are resolved against the jobs file directory. Jobs without <code>frames</code> and
+ * <code>cycles</code> use the batch run limits. Empty lines and lines starting with <code>#</code> are ignored.
+ * The report is a CSV table with one row per job, in jobs file order.
+ */
+@Slf4j
+public final class BatchExecutor {
+    public static final String REPORT_HEADER =
+            "job,rom,seed,engine,frames,cycles,idle_cycles,elapsed_ms,framebuffer_hash,error";
+    private static final String COMMENT_PREFIX = "#";
+
+    private BatchExecutor() {
+        // NOOP
+    }
+
+    /**
+     * run the jobs of a batch and write the report
+     *
+     * @param config the batch configuration
+     * @throws BatchException     if the jobs file or the report cannot be read or written
+     * @throws ExecutionException if interrupted while waiting for the jobs
+     */
+    public static void runBatch(BatchConfig config) {
+        List<EmulationConfig> jobs = readJobs(config);
+        log.info("batch start: {} jobs on {} threads", jobs.size(), config.getThreads());
+        long startNanos = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(config.getThreads());
+        try {
+            List<Future<EmulationResult>> results = new ArrayList<>(jobs.size());
+            for (EmulationConfig job : jobs) {
+                results.add(pool.submit(() -> Chip8Executor.runHeadless(job)));
+            }
+            PrintWriter report = openReport(config);
+            int failedJobs = 0;
+            long cycles = 0;
+            report.println(REPORT_HEADER);
+            for (int i = 0; i < jobs.size(); i++) {
+                EmulationConfig job = jobs.get(i);
+                try {
+                    EmulationResult result = results.get(i).get();
+                    cycles += result.getCycles();
+                    report.println(reportRow(i + 1, job, result, null));
+                } catch (java.util.concurrent.ExecutionException e) {
+                    failedJobs += 1;
+                    log.warn("job {} failed: {}", i + 1, e.getCause().toString());
+                    report.println(reportRow(i + 1, job, null, e.getCause()));
+                }
+                report.flush();
+            }
+            closeReport(config, report);
+            long elapsedNanos = System.nanoTime() - startNanos;
+            log.info(
+                    "batch end: {} jobs, {} failed, {} ms, {} cycles/s",
+                    jobs.size(),
+                    failedJobs,
+                    elapsedNanos / 1_000_000,
+                    elapsedNanos > 0 ? Math.round(cycles * 1e9 / elapsedNanos) : 0
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException("Interrupted while waiting for batch jobs", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static List<EmulationConfig> readJobs(BatchConfig config) {
+        Path jobsPath = Path.of(config.getJobsPath());
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(jobsPath);
+        } catch (IOException e) {
+            throw new BatchException(String.format("Cannot read jobs file '%s'", jobsPath), e);
+        }
+        Path baseDirectory = jobsPath.toAbsolutePath().getParent();
+        List<EmulationConfig> jobs = new ArrayList<>();
+        for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber++) {
+            String line = lines.get(lineNumber - 1).strip();
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+            try {
+                jobs.add(parseJob(line, baseDirectory, config, jobs.size() + 1));
+            } catch (IllegalArgumentException e) {
+                throw new BatchException(
+                        String.format("Invalid job at %s:%d: %s", jobsPath.getFileName(), lineNumber, e.getMessage())
+                );
+            }
+        }
+        if (jobs.isEmpty()) {
+            throw new BatchException(String.format("No jobs in file '%s'", jobsPath));
+        }
+        return jobs;
+    }
+
+    private static EmulationConfig parseJob(String line, Path baseDirectory, BatchConfig config, int jobNumber) {
+        EmulationConfig.EmulationConfigBuilder job = EmulationConfig
+                .builder()
+                .jobName(String.valueOf(jobNumber))
+                .headless(true)
+                .engineType(config.getEngineType())
+                .instructionsPerSecond(config.getInstructionsPerSecond())
+                .maxTime(config.getMaxTime());
+        String romPath = null;
+        Long maxFrames = null;
+        Long maxCycles = null;
+        for (String field : line.split("\\s+")) {
+            int separator = field.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException(String.format("expected key=value, found '%s'", field));
+            }
+            String value = field.substring(separator + 1);
+            switch (field.substring(0, separator)) {
+                case "rom" -> romPath = baseDirectory.resolve(value).toString();
+                case "seed" -> job.randomSeed(Long.parseLong(value));
+                case "input" -> job.inputScriptPath(baseDirectory.resolve(value).toString());
+                case "frames" -> maxFrames = Long.parseLong(value);
+                case "cycles" -> maxCycles = Long.parseLong(value);
+                case "engine" -> job.engineType(EngineType.valueOf(value.toUpperCase(Locale.ROOT)));
+                case "ips" -> job.instructionsPerSecond(parseInstructionsPerSecond(value));
+                default -> throw new IllegalArgumentException(
+                        String.format("unknown key '%s'", field.substring(0, separator))
+                );
+            }
+        }
+        if (romPath == null) {
+            throw new IllegalArgumentException("missing rom");
+        }
+        if (maxFrames == null && maxCycles == null) {
+            maxFrames = config.getMaxFrames();
+            maxCycles = config.getMaxCycles();
+        }
+        EmulationConfig emulationConfig = job.romPath(romPath).maxFrames(maxFrames).maxCycles(maxCycles).build();
+        if (!emulationConfig.hasRunLimit()) {
+            throw new IllegalArgumentException("missing run limit: set frames or cycles, or a batch run limit");
+        }
+        return emulationConfig;
+    }
+
+    private static int parseInstructionsPerSecond(String value) {
+        int instructionsPerSecond = Integer.parseInt(value);
+        if (instructionsPerSecond < Chip8.FRAME_RATE) {
+            throw new IllegalArgumentException(String.format("ips must be at least %d", Chip8.FRAME_RATE));
+        }
+        return instructionsPerSecond;
+    }
+
+    private static PrintWriter openReport(BatchConfig config) {
+        if (config.getReportPath() == null) {
+            return new PrintWriter(System.out, false, StandardCharsets.UTF_8);
+        }
+        try {
+            return new PrintWriter(Files.newBufferedWriter(Path.of(config.getReportPath())));
+        } catch (IOException e) {
+            throw new BatchException(String.format("Cannot write report file '%s'", config.getReportPath()), e);
+        }
+    }
+
+    private static void closeReport(BatchConfig config, PrintWriter report) {
+        // standard output is only flushed
+        if (config.getReportPath() != null) {
+            report.close();
+        }
+        if (report.checkError()) {
+            throw new BatchException("Cannot write batch report");
+        }
+    }
+
+    private static String reportRow(int jobNumber, EmulationConfig job, EmulationResult result, Throwable error) {
+        String jobColumns = String.format(
+                "%d,%s,%s,%s",
+                jobNumber,
+                csvValue(job.getRomPath()),
+                job.getRandomSeed() != null ? job.getRandomSeed() : "",
+                job.getEngineType()
+        );
+        if (result == null) {
+            String message = error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+            return String.format("%s,,,,,,%s", jobColumns, csvValue(message));
+        }
+        return String.format(
+                Locale.ROOT,
+                "%s,%d,%d,%d,%.3f,0x%016X,",
+                jobColumns,
+                result.getFrames(),
+                result.getCycles(),
+                result.getIdleCycles(),
+                result.getElapsedNanos() / 1e6,
+                result.getFramebufferHash()
+        );
+    }
+
+    private static String csvValue(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
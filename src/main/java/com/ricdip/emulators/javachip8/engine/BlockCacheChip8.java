@@ -0,0 +1,180 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.model.Instruction;
+import com.ricdip.emulators.javachip8.model.OpcodeType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+/**
+ * CHIP-8 engine that caches pre-decoded basic blocks.
+ * A basic block is a straight-line sequence of instructions starting at a given address and ending with the first
+ * instruction that can change the control flow (jumps, calls, returns, skips, key wait) or write memory (FX33, FX55).
+ * Blocks are keyed by their start address and are invalidated when the memory they were decoded from is written.
+ */
+@Slf4j
+public class BlockCacheChip8 extends Chip8 {
+    /**
+     * maximum number of instructions in a block
+     */
+    public static final int MAX_BLOCK_LENGTH = 32;
+    /**
+     * cached blocks indexed by start address
+     */
+    private final Block[] blocks;
+    /**
+     * block that contains the instruction at PC, null if it must be looked up
+     */
+    private Block currentBlock;
+    /**
+     * index of the next instruction to execute in current block
+     */
+    private int currentIndex;
+
+    public BlockCacheChip8() {
+        blocks = new Block[MEMORY_LENGTH];
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        invalidateAll();
+    }
+
+    @Override
+    public void emulateCycle() {
+        // fetch and decode opcode from cached block
+        int PC = state.getPC();
+        if (currentBlock == null || PC != currentBlock.getAddress(currentIndex)) {
+            currentBlock = lookupBlock(PC);
+            currentIndex = 0;
+        }
+        state.setOpcode(currentBlock.opcodes[currentIndex]);
+        Instruction decodedInstruction = currentBlock.instructions[currentIndex];
+        currentIndex += 1;
+        if (currentIndex == currentBlock.length()) {
+            currentBlock = null;
+        }
+        log.trace("cached instruction: {}", decodedInstruction);
+
+        // execute opcode
+        executeInstruction(decodedInstruction);
+        log.trace("executed instruction");
+    }
+
+    @Override
+    protected void onMemoryWrite(int address, int length) {
+        int end = address + length;
+        int firstStart = Math.max(0, address - (MAX_BLOCK_LENGTH * 2) + 1);
+        for (int start = firstStart; start < end && start < MEMORY_LENGTH; start++) {
+            Block block = blocks[start];
+            if (block != null && block.overlaps(address, end)) {
+                blocks[start] = null;
+                log.debug("block at 0x{} invalidated", Integer.toHexString(start));
+            }
+        }
+        if (currentBlock != null && currentBlock.overlaps(address, end)) {
+            currentBlock = null;
+        }
+    }
+
+    /**
+     * check if the next instruction to execute is the first one of a block
+     *
+     * @return true if no block is partially executed, false otherwise
+     */
+    protected boolean isAtBlockStart() {
+        return currentBlock == null;
+    }
+
+    /**
+     * get the opcodes of the block starting at address, translating it if it is not cached
+     *
+     * @param address block start address
+     * @return block opcodes
+     */
+    protected int[] getBlockOpcodes(int address) {
+        return lookupBlock(address).opcodes;
+    }
+
+    private void invalidateAll() {
+        Arrays.fill(blocks, null);
+        currentBlock = null;
+    }
+
+    private Block lookupBlock(int address) {
+        Block block = blocks[address];
+        if (block == null) {
+            block = translateBlock(address);
+            blocks[address] = block;
+        }
+        return block;
+    }
+
+    private Block translateBlock(int startAddress) {
+        int[] opcodes = new int[MAX_BLOCK_LENGTH];
+        Instruction[] instructions = new Instruction[MAX_BLOCK_LENGTH];
+        int length = 0;
+        int address = startAddress;
+        while (length < MAX_BLOCK_LENGTH) {
+            // the first instruction is always fetched and decoded, so that errors are reported as by Chip8;
+            // the following ones end the block before memory end and unknown opcodes
+            if (length > 0 && address + 1 >= MEMORY_LENGTH) {
+                break;
+            }
+            int blockOpcode = Chip8OpcodeFetcher.fetch(state, address);
+            if (length > 0 && !Chip8OpcodeDecoder.isKnown(blockOpcode)) {
+                break;
+            }
+            Instruction instruction = Chip8OpcodeDecoder.decode(blockOpcode);
+            opcodes[length] = blockOpcode;
+            instructions[length] = instruction;
+            length += 1;
+            address += 2;
+            if (isBlockTerminator(instruction.getOpcodeType())) {
+                break;
+            }
+        }
+        log.debug("block at 0x{} translated: {} instructions", Integer.toHexString(startAddress), length);
+        return new Block(startAddress, Arrays.copyOf(opcodes, length), Arrays.copyOf(instructions, length));
+    }
+
+    /**
+     * check if instruction ends a basic block
+     *
+     * @param opcodeType the instruction opcode type
+     * @return true if instruction can change control flow or write memory, false otherwise
+     */
+    static boolean isBlockTerminator(OpcodeType opcodeType) {
+        return switch (opcodeType) {
+            case OP_00EE, OP_1NNN, OP_2NNN, OP_BNNN,
+                    OP_3XKK, OP_4XKK, OP_5XY0, OP_9XY0, OP_EX9E, OP_EXA1,
+                    OP_FX0A, OP_FX33, OP_FX55 -> true;
+            default -> false;
+        };
+    }
+
+    private static final class Block {
+        private final int address;
+        private final int[] opcodes;
+        private final Instruction[] instructions;
+
+        private Block(int address, int[] opcodes, Instruction[] instructions) {
+            this.address = address;
+            this.opcodes = opcodes;
+            this.instructions = instructions;
+        }
+
+        private int length() {
+            return instructions.length;
+        }
+
+        private int getAddress(int index) {
+            return address + (index * 2);
+        }
+
+        private boolean overlaps(int start, int end) {
+            return address < end && start < address + (length() * 2);
+        }
+    }
+}
@@ -5,16 +5,13 @@ import com.ricdip.emulators.javachip8.model.FontSet;
 import com.ricdip.emulators.javachip8.model.Instruction;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Optional;
-import java.util.Random;
-
 @Slf4j
 public class Chip8 extends BaseChip8 {
 
-    private final Random random;
+    private final Chip8Random random;
 
     public Chip8() {
-        random = new Random();
+        random = new Chip8Random(state);
     }
 
     /**
@@ -30,8 +27,11 @@ public class Chip8 extends BaseChip8 {
     @Override
     public void emulateCycle() {
         // fetch opcode from memory
-        opcode = Chip8OpcodeFetcher.fetch(memory, PC);
-        log.trace(String.format("fetched opcode: 0x%04X", opcode));
+        int opcode = Chip8OpcodeFetcher.fetch(state, state.getPC());
+        state.setOpcode(opcode);
+        if (log.isTraceEnabled()) {
+            log.trace(String.format("fetched opcode: 0x%04X", opcode));
+        }
 
         // decode opcode
         Instruction decodedInstruction = Chip8OpcodeDecoder.decode(opcode);
@@ -40,18 +40,26 @@ public class Chip8 extends BaseChip8 {
         // execute opcode
         executeInstruction(decodedInstruction);
         log.trace("executed instruction");
-
-        // update timers
-        updateTimers();
-        log.trace("timers updated");
     }
 
-    private void executeInstruction(Instruction instruction) {
+    /**
+     * execute decoded CHIP-8 instruction
+     *
+     * @param instruction the instruction to execute
+     * @throws Chip8Exception if an error occurred during instruction execution
+     */
+    protected void executeInstruction(Instruction instruction) {
         int X = instruction.getX();
         int Y = instruction.getY();
         int N = instruction.getN();
         int NNN = instruction.getNNN();
         int KK = instruction.getKK();
+        int PC = state.getPC();
+        int instructionPC = PC;
+        opcodeCounts[instruction.getOpcodeType().ordinal()] += 1;
+        if (pcExecutions != null) {
+            pcExecutions[PC] += 1;
+        }
 
         switch (instruction.getOpcodeType()) {
             case OP_0NNN: {
@@ -63,16 +71,18 @@ public class Chip8 extends BaseChip8 {
             case OP_00E0: {
                 log.debug("{} - clear display", instruction);
                 display.clear();
-                drawFlag = true;
+                state.setDrawFlag(true);
                 PC += 2;
                 break;
             }
 
             case OP_00EE: {
                 log.debug("{} - return from subroutine", instruction);
-                checkStackUnderflowError();
+                int SP = state.getSP();
+                checkStackUnderflowError(SP);
                 SP -= 1;
-                PC = stack[SP];
+                state.setSP(SP);
+                PC = state.getStack(SP);
                 PC += 2;
                 break;
             }
@@ -85,16 +95,20 @@ public class Chip8 extends BaseChip8 {
 
             case OP_2NNN: {
                 log.debug("{} - call subroutine at NNN", instruction);
-                checkStackOverflowError();
-                stack[SP] = PC;
-                SP += 1;
+                int SP = state.getSP();
+                checkStackOverflowError(SP);
+                state.setStack(SP, PC);
+                state.setSP(SP + 1);
                 PC = NNN;
+                if (subroutineCalls != null) {
+                    subroutineCalls[NNN] += 1;
+                }
                 break;
             }
 
             case OP_3XKK: {
                 log.debug("{} - skip next instruction if VX == KK", instruction);
-                if (V[X] == KK) {
+                if (state.getV(X) == KK) {
                     PC += 2;
                 }
                 PC += 2;
@@ -103,7 +117,7 @@ public class Chip8 extends BaseChip8 {
 
             case OP_4XKK: {
                 log.debug("{} - skip next instruction if VX != KK", instruction);
-                if (V[X] != KK) {
+                if (state.getV(X) != KK) {
                     PC += 2;
                 }
                 PC += 2;
@@ -112,7 +126,7 @@ public class Chip8 extends BaseChip8 {
 
             case OP_5XY0: {
                 log.debug("{} - skip next instruction if VX == VY", instruction);
-                if (V[X] == V[Y]) {
+                if (state.getV(X) == state.getV(Y)) {
                     PC += 2;
                 }
                 PC += 2;
@@ -121,19 +135,19 @@ public class Chip8 extends BaseChip8 {
 
             case OP_6XKK: {
                 log.debug("{} - set VX = KK", instruction);
-                V[X] = KK;
+                state.setV(X, KK);
                 PC += 2;
                 break;
             }
 
             case OP_7XKK: {
                 log.debug("{} - add KK to VX", instruction);
-                int sum = V[X] + KK;
+                int sum = state.getV(X) + KK;
                 int overflow = 0xFF + 1;
                 if (sum >= overflow) {
-                    V[X] = sum - overflow;
+                    state.setV(X, sum - overflow);
                 } else {
-                    V[X] = sum;
+                    state.setV(X, sum);
                 }
                 PC += 2;
                 break;
@@ -141,42 +155,42 @@ public class Chip8 extends BaseChip8 {
 
             case OP_8XY0: {
                 log.debug("{} - set VX = VY", instruction);
-                V[X] = V[Y];
+                state.setV(X, state.getV(Y));
                 PC += 2;
                 break;
             }
 
             case OP_8XY1: {
                 log.debug("{} - set VX = VX OR VY", instruction);
-                V[X] |= V[Y];
+                state.setV(X, state.getV(X) | state.getV(Y));
                 PC += 2;
                 break;
             }
 
             case OP_8XY2: {
                 log.debug("{} - set VX = VX AND VY", instruction);
-                V[X] &= V[Y];
+                state.setV(X, state.getV(X) & state.getV(Y));
                 PC += 2;
                 break;
             }
 
             case OP_8XY3: {
                 log.debug("{} - set VX = VX XOR VY", instruction);
-                V[X] ^= V[Y];
+                state.setV(X, state.getV(X) ^ state.getV(Y));
                 PC += 2;
                 break;
             }
 
             case OP_8XY4: {
                 log.debug("{} - set VX = VX + VY, set VF = carry", instruction);
-                int sum = V[X] + V[Y];
+                int sum = state.getV(X) + state.getV(Y);
                 int overflow = 0xFF + 1;
                 if (sum >= overflow) {
-                    V[0xF] = 1;
-                    V[X] = sum - overflow;
+                    state.setV(0xF, 1);
+                    state.setV(X, sum - overflow);
                 } else {
-                    V[0xF] = 0;
-                    V[X] = sum;
+                    state.setV(0xF, 0);
+                    state.setV(X, sum);
                 }
                 PC += 2;
                 break;
@@ -184,13 +198,13 @@ public class Chip8 extends BaseChip8 {
 
             case OP_8XY5: {
                 log.debug("{} - set VX = VX - VY, set VF = NOT borrow", instruction);
-                if (V[X] > V[Y]) {
-                    V[0xF] = 1; // not borrow is true (borrow = false)
-                    V[X] -= V[Y];
+                if (state.getV(X) > state.getV(Y)) {
+                    state.setV(0xF, 1); // not borrow is true (borrow = false)
+                    state.setV(X, state.getV(X) - state.getV(Y));
                 } else {
-                    V[0xF] = 0; // not borrow is false (borrow = true)
-                    int diff = V[Y] - V[X];
-                    V[X] = diff;
+                    state.setV(0xF, 0); // not borrow is false (borrow = true)
+                    int diff = state.getV(Y) - state.getV(X);
+                    state.setV(X, diff);
                 }
                 PC += 2;
                 break;
@@ -198,21 +212,21 @@ public class Chip8 extends BaseChip8 {
 
             case OP_8XY6: {
                 log.debug("{} - set VX = VX SHR 1, set VF to least significant bit of VX before shift", instruction);
-                V[0xF] = V[X] & 0x01;
-                V[X] >>>= 1;
+                state.setV(0xF, state.getV(X) & 0x01);
+                state.setV(X, state.getV(X) >>> 1);
                 PC += 2;
                 break;
             }
 
             case OP_8XY7: {
                 log.debug("{} - set VX = VY - VX, set VF = NOT borrow", instruction);
-                if (V[Y] > V[X]) {
-                    V[0xF] = 1; // not borrow is true (borrow = false)
-                    int diff = V[Y] - V[X];
-                    V[X] = diff;
+                if (state.getV(Y) > state.getV(X)) {
+                    state.setV(0xF, 1); // not borrow is true (borrow = false)
+                    int diff = state.getV(Y) - state.getV(X);
+                    state.setV(X, diff);
                 } else {
-                    V[0xF] = 0; // not borrow is false (borrow = true)
-                    V[X] -= V[Y];
+                    state.setV(0xF, 0); // not borrow is false (borrow = true)
+                    state.setV(X, state.getV(X) - state.getV(Y));
                 }
                 PC += 2;
                 break;
@@ -220,15 +234,15 @@ public class Chip8 extends BaseChip8 {
 
             case OP_8XYE: {
                 log.debug("{} - set VX = VX SHL 1, set VF to most significant bit of VX before shift", instruction);
-                V[0xF] = (V[X] >>> 7) & 0x01;
-                V[X] = V[X] << 1; // multiply VX by 2
+                state.setV(0xF, (state.getV(X) >>> 7) & 0x01);
+                state.setV(X, state.getV(X) << 1); // multiply VX by 2, the register keeps the low 8 bits
                 PC += 2;
                 break;
             }
 
             case OP_9XY0: {
                 log.debug("{} - skip next instruction if VX != VY", instruction);
-                if (V[X] != V[Y]) {
+                if (state.getV(X) != state.getV(Y)) {
                     PC += 2;
                 }
                 PC += 2;
@@ -237,14 +251,14 @@ public class Chip8 extends BaseChip8 {
 
             case OP_ANNN: {
                 log.debug("{} - set I = NNN", instruction);
-                I = NNN;
+                state.setI(NNN);
                 PC += 2;
                 break;
             }
 
             case OP_BNNN: {
                 log.debug("{} - jump to location NNN + V0", instruction);
-                PC = NNN + V[0x0];
+                PC = NNN + state.getV(0x0);
                 break;
             }
 
@@ -253,7 +267,7 @@ public class Chip8 extends BaseChip8 {
                 // generate random number: [0, 256)
                 int maxRndInt = 0xFF + 1;
                 int rnd = random.nextInt(maxRndInt);
-                V[X] = rnd & KK;
+                state.setV(X, rnd & KK);
                 PC += 2;
                 break;
             }
@@ -263,31 +277,25 @@ public class Chip8 extends BaseChip8 {
                         "{} - display n-byte sprite starting at memory location I at (VX, VY), set VF = collision",
                         instruction
                 );
-                V[0xF] = 0;
+                state.setV(0xF, 0);
+                int I = state.getI();
                 for (int height = 0; height < N; height++) {
-                    int sprite = memory[I + height];
-                    for (int currentBit = 0; currentBit < 8; currentBit++) {
-                        int spriteBit = sprite & (0b10000000 >>> currentBit);
-                        int row_coord = V[Y] + height;
-                        int col_coord = V[X] + currentBit;
-                        if (spriteBit != 0) {
-                            if (row_coord < Display.DISPLAY_HEIGHT && col_coord < Display.DISPLAY_WIDTH) {
-                                if (display.isPixelSet(row_coord, col_coord)) {
-                                    V[0xF] = 1;
-                                }
-                                display.togglePixel(row_coord, col_coord);
-                            }
-                        }
+                    int sprite = state.getMemory(I + height);
+                    int row_coord = state.getV(Y) + height;
+                    if (row_coord < Display.DISPLAY_HEIGHT && display.drawSpriteRow(row_coord, state.getV(X), sprite)) {
+                        state.setV(0xF, 1);
                     }
                 }
-                drawFlag = true;
+                drawnSprites += 1;
+                spriteCollisions += state.getV(0xF);
+                state.setDrawFlag(true);
                 PC += 2;
                 break;
             }
 
             case OP_EX9E: {
                 log.debug("{} - skip next instruction if key with value of VX is pressed", instruction);
-                if (keyboard.isPressed(V[X])) {
+                if (keyboard.isPressed(state.getV(X))) {
                     PC += 2;
                 }
                 PC += 2;
@@ -296,7 +304,7 @@ public class Chip8 extends BaseChip8 {
 
             case OP_EXA1: {
                 log.debug("{} - skip next instruction if key with value of VX is not pressed", instruction);
-                if (!keyboard.isPressed(V[X])) {
+                if (!keyboard.isPressed(state.getV(X))) {
                     PC += 2;
                 }
                 PC += 2;
@@ -305,57 +313,59 @@ public class Chip8 extends BaseChip8 {
 
             case OP_FX07: {
                 log.debug("{} - set VX = delay timer value", instruction);
-                V[X] = delayTimer;
+                state.setV(X, state.getDelayTimer());
                 PC += 2;
                 break;
             }
 
             case OP_FX0A: {
                 log.debug("{} - wait for a key press, store the value of the key in VX", instruction);
-                Optional<Integer> pressedKey = keyboard.getPressedKey();
-                if (pressedKey.isEmpty()) {
+                int key = keyboard.takeKeyPress();
+                if (key == Keyboard.NO_KEY) {
                     break;
                 }
-                int key = pressedKey.get();
-                log.debug(String.format("pressed key: 0x%01X", key));
-                V[X] = key;
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("pressed key: 0x%01X", key));
+                }
+                state.setV(X, key);
                 PC += 2;
                 break;
             }
 
             case OP_FX15: {
                 log.debug("{} - set delay timer = VX", instruction);
-                delayTimer = V[X];
+                state.setDelayTimer(state.getV(X));
                 PC += 2;
                 break;
             }
 
             case OP_FX18: {
                 log.debug("{} - set sound timer = VX", instruction);
-                soundTimer = V[X];
+                state.setSoundTimer(state.getV(X));
                 PC += 2;
                 break;
             }
 
             case OP_FX1E: {
                 log.debug("{} - set I = I + VX", instruction);
-                int sum = I + V[X];
+                int sum = state.getI() + state.getV(X);
                 int overflow = 0xFFF + 1;
                 if (sum >= overflow) {
-                    V[0xF] = 1;
+                    state.setV(0xF, 1);
                 } else {
-                    V[0xF] = 0;
+                    state.setV(0xF, 0);
                 }
-                I = sum;
+                state.setI(sum);
                 PC += 2;
                 break;
             }
 
             case OP_FX29: {
                 log.debug("{} - set I = location of sprite for digit VX", instruction);
+                int VX = state.getV(X);
                 for (int i = 0; i < FontSet.SPRITES.length; i++) {
-                    if (V[X] == memory[i]) {
-                        I = i;
+                    if (VX == state.getMemory(i)) {
+                        state.setI(i);
                         break;
                     }
                 }
@@ -368,26 +378,32 @@ public class Chip8 extends BaseChip8 {
                         "{} - store binary coded decimal representation of VX in memory locations I, I+1, I+2",
                         instruction
                 );
-                memory[I] = V[X] / 100;
-                memory[I + 1] = (V[X] / 10) % 10;
-                memory[I + 2] = (V[X] % 100);
+                int I = state.getI();
+                int VX = state.getV(X);
+                state.setMemory(I, VX / 100);
+                state.setMemory(I + 1, (VX / 10) % 10);
+                state.setMemory(I + 2, (VX % 100));
+                onMemoryWrite(I, 3);
                 PC += 2;
                 break;
             }
 
             case OP_FX55: {
                 log.debug("{} - store registers V0-VX in memory starting at location I", instruction);
+                int I = state.getI();
                 for (int i = 0; i <= X; i++) {
-                    memory[I + i] = V[i];
+                    state.setMemory(I + i, state.getV(i));
                 }
+                onMemoryWrite(I, X + 1);
                 PC += 2;
                 break;
             }
 
             case OP_FX65: {
                 log.debug("{} - read registers V0-VX in memory starting at location I", instruction);
+                int I = state.getI();
                 for (int i = 0; i <= X; i++) {
-                    V[i] = memory[I + i];
+                    state.setV(i, state.getMemory(I + i));
                 }
                 PC += 2;
                 break;
@@ -401,30 +417,21 @@ public class Chip8 extends BaseChip8 {
                         )
                 );
         }
+        state.setPC(PC);
+        if (tracer != null) {
+            tracer.record(this, instructionPC, state.getOpcode(), instruction);
+        }
     }
 
-    private void checkStackUnderflowError() {
+    private void checkStackUnderflowError(int SP) {
         if (SP <= 0) {
             throw new Chip8Exception("Stack underflow error: attempted to get value from empty stack");
         }
     }
 
-    private void checkStackOverflowError() {
-        if (SP >= stack.length) {
+    private void checkStackOverflowError(int SP) {
+        if (SP >= STACK_LENGTH) {
             throw new Chip8Exception("Stack overflow error: attempted to add value to full stack");
         }
     }
-
-    private void updateTimers() {
-        log.trace("delay timer: {}", delayTimer);
-        if (delayTimer > 0) {
-            delayTimer -= 1;
-        }
-        log.trace("sound timer: {}", soundTimer);
-        if (soundTimer > 0) {
-            log.trace("performing sound");
-            sound.performSound();
-            soundTimer -= 1;
-        }
-    }
 }
@@ -0,0 +1,67 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.model.Instruction;
+
+/**
+ * translate CHIP-8 opcodes to assembly mnemonics, as documented in {@link com.ricdip.emulators.javachip8.model.OpcodeType}
+ */
+public final class Chip8Disassembler {
+    private Chip8Disassembler() {
+        // NOOP
+    }
+
+    /**
+     * disassemble opcode
+     *
+     * @param opcode the opcode to disassemble
+     * @return assembly instruction, or a data directive if the opcode is not known
+     */
+    public static String disassemble(int opcode) {
+        if (!Chip8OpcodeDecoder.isKnown(opcode)) {
+            return String.format("DW 0x%04X", opcode);
+        }
+        Instruction instruction = Chip8OpcodeDecoder.decode(opcode);
+        int X = instruction.getX();
+        int Y = instruction.getY();
+        int N = instruction.getN();
+        int NNN = instruction.getNNN();
+        int KK = instruction.getKK();
+        return switch (instruction.getOpcodeType()) {
+            case OP_0NNN -> String.format("SYS 0x%03X", NNN);
+            case OP_00E0 -> "CLS";
+            case OP_00EE -> "RET";
+            case OP_1NNN -> String.format("JP 0x%03X", NNN);
+            case OP_2NNN -> String.format("CALL 0x%03X", NNN);
+            case OP_3XKK -> String.format("SE V%X, 0x%02X", X, KK);
+            case OP_4XKK -> String.format("SNE V%X, 0x%02X", X, KK);
+            case OP_5XY0 -> String.format("SE V%X, V%X", X, Y);
+            case OP_6XKK -> String.format("LD V%X, 0x%02X", X, KK);
+            case OP_7XKK -> String.format("ADD V%X, 0x%02X", X, KK);
+            case OP_8XY0 -> String.format("LD V%X, V%X", X, Y);
+            case OP_8XY1 -> String.format("OR V%X, V%X", X, Y);
+            case OP_8XY2 -> String.format("AND V%X, V%X", X, Y);
+            case OP_8XY3 -> String.format("XOR V%X, V%X", X, Y);
+            case OP_8XY4 -> String.format("ADD V%X, V%X", X, Y);
+            case OP_8XY5 -> String.format("SUB V%X, V%X", X, Y);
+            case OP_8XY6 -> String.format("SHR V%X", X);
+            case OP_8XY7 -> String.format("SUBN V%X, V%X", X, Y);
+            case OP_8XYE -> String.format("SHL V%X", X);
+            case OP_9XY0 -> String.format("SNE V%X, V%X", X, Y);
+            case OP_ANNN -> String.format("LD I, 0x%03X", NNN);
+            case OP_BNNN -> String.format("JP V0, 0x%03X", NNN);
+            case OP_CXKK -> String.format("RND V%X, 0x%02X", X, KK);
+            case OP_DXYN -> String.format("DRW V%X, V%X, %d", X, Y, N);
+            case OP_EX9E -> String.format("SKP V%X", X);
+            case OP_EXA1 -> String.format("SKNP V%X", X);
+            case OP_FX07 -> String.format("LD V%X, DT", X);
+            case OP_FX0A -> String.format("LD V%X, K", X);
+            case OP_FX15 -> String.format("LD DT, V%X", X);
+            case OP_FX18 -> String.format("LD ST, V%X", X);
+            case OP_FX1E -> String.format("ADD I, V%X", X);
+            case OP_FX29 -> String.format("LD F, V%X", X);
+            case OP_FX33 -> String.format("LD B, V%X", X);
+            case OP_FX55 -> String.format("LD [I], V%X", X);
+            case OP_FX65 -> String.format("LD V%X, [I]", X);
+        };
+    }
+}
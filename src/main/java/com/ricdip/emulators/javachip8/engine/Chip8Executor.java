@@ -1,17 +1,45 @@
 package com.ricdip.emulators.javachip8.engine;
 
+import com.ricdip.emulators.javachip8.events.DrawBatchEvent;
+import com.ricdip.emulators.javachip8.events.FrameEvent;
 import com.ricdip.emulators.javachip8.exception.Chip8Exception;
+import com.ricdip.emulators.javachip8.exception.ExecutionException;
+import com.ricdip.emulators.javachip8.exception.InputException;
 import com.ricdip.emulators.javachip8.exception.RomException;
+import com.ricdip.emulators.javachip8.exception.SoundException;
+import com.ricdip.emulators.javachip8.model.EmulationConfig;
+import com.ricdip.emulators.javachip8.model.EmulationResult;
+import com.ricdip.emulators.javachip8.model.InputRecording;
+import com.ricdip.emulators.javachip8.model.InputScript;
 import com.ricdip.emulators.javachip8.model.Rom;
+import com.ricdip.emulators.javachip8.screen.FrameCapture;
+import com.ricdip.emulators.javachip8.screen.HotkeyListener;
 import com.ricdip.emulators.javachip8.screen.Screen;
 import com.ricdip.emulators.javachip8.screen.SwingScreen;
 import com.ricdip.emulators.javachip8.sound.ClipSound;
+import com.ricdip.emulators.javachip8.sound.NoneSound;
 import com.ricdip.emulators.javachip8.sound.Sound;
-import com.ricdip.emulators.javachip8.utils.Sleep;
+import com.ricdip.emulators.javachip8.sound.StreamingSound;
+import com.ricdip.emulators.javachip8.sound.WavSound;
+import com.ricdip.emulators.javachip8.utils.FramePacer;
+import com.ricdip.emulators.javachip8.utils.FrameTimeStats;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 @Slf4j
 public final class Chip8Executor {
+    /**
+     * frame pacing stats are logged at debug level every <code>STATS_LOG_FRAMES</code> frames
+     */
+    public static final int STATS_LOG_FRAMES = Chip8.FRAME_RATE * 10;
+    /**
+     * while parked waiting for a key press, the window, the time limit and the hotkeys are checked every
+     * <code>KEY_WAIT_CHECK_NANOS</code> nanoseconds
+     */
+    public static final long KEY_WAIT_CHECK_NANOS = 100_000_000;
+
     private Chip8Executor() {
         // NOOP
     }
@@ -19,47 +47,463 @@ public final class Chip8Executor {
     /**
      * start CHIP-8 emulation
      *
-     * @param romPath    the path to the ROM file
-     * @param randomSeed nullable random seed to set
+     * @param config the emulation configuration
+     * @throws RomException   if an error occurs during ROM reading
+     * @throws InputException if an error occurs during input script reading
+     * @throws Chip8Exception if an error occurs during emulation
+     */
+    public static void startEmulation(EmulationConfig config) {
+        if (config.getReplayPath() != null) {
+            runReplay(config);
+        } else if (config.isHeadless()) {
+            EmulationResult result = runHeadless(config);
+            System.out.println(result);
+        } else {
+            Rom romFile = new Rom(config.getRomPath());
+            runWindowed(createEngine(config, romFile), romFile, config);
+        }
+        log.info("exit emulation");
+    }
+
+    /**
+     * run CHIP-8 emulation without screen and audio output, as fast as possible, until a run limit is reached. The
+     * sound can be rendered to a WAV file.
+     *
+     * @param config the emulation configuration, with at least one run limit
+     * @return emulation result
      * @throws RomException   if an error occurs during ROM reading
+     * @throws InputException if an error occurs during input script reading
+     * @throws SoundException if an error occurs during WAV file writing
      * @throws Chip8Exception if an error occurs during emulation
      */
-    public static void startEmulation(String romPath, Long randomSeed) {
+    public static EmulationResult runHeadless(EmulationConfig config) {
+        return runHeadless(config, new Rom(config.getRomPath()), loadInputScript(config));
+    }
+
+    /**
+     * replay an input recording headless, as fast as possible, and check the final framebuffer hash against the
+     * recorded one
+     *
+     * @param config the emulation configuration, with the recording path
+     * @throws RomException       if an error occurs during ROM reading
+     * @throws InputException     if the recording cannot be read or was made with another ROM
+     * @throws Chip8Exception     if an error occurs during emulation
+     * @throws ExecutionException if the replay does not end with the recorded framebuffer
+     */
+    private static void runReplay(EmulationConfig config) {
+        InputRecording recording = new InputRecording(config.getReplayPath());
+        Rom romFile = new Rom(config.getRomPath());
+        if (romFile.computeChecksum() != recording.getRomChecksum()) {
+            throw new InputException(
+                    String.format(
+                            "Input recording '%s' was not made with ROM '%s' (CRC-32 0x%08X, expected 0x%08X)",
+                            recording.getRecordingName(),
+                            romFile.getRomName(),
+                            romFile.computeChecksum(),
+                            recording.getRomChecksum()
+                    )
+            );
+        }
+        log.info(
+                "input recording '{}' loaded: {} events, {} frames",
+                recording.getRecordingName(),
+                recording.getInputScript().size(),
+                recording.getFrames()
+        );
+        EmulationConfig replayConfig = EmulationConfig
+                .builder()
+                .romPath(config.getRomPath())
+                .randomSeed(recording.getRandomSeed())
+                .engineType(config.getEngineType())
+                .instructionsPerSecond(recording.getInstructionsPerSecond())
+                .headless(true)
+                .maxFrames(recording.getFrames())
+                .profilePath(config.getProfilePath())
+                .tracePath(config.getTracePath())
+                .traceRingRecords(config.getTraceRingRecords())
+                .wavPath(config.getWavPath())
+                .capturePath(config.getCapturePath())
+                .scale(config.getScale())
+                .palette(config.getPalette())
+                .build();
+        EmulationResult result = runHeadless(replayConfig, romFile, recording.getInputScript());
+        System.out.println(result);
+        if (result.getFramebufferHash() != recording.getFramebufferHash()) {
+            throw new ExecutionException(
+                    String.format(
+                            "Replay mismatch: framebuffer hash 0x%016X, recorded 0x%016X",
+                            result.getFramebufferHash(),
+                            recording.getFramebufferHash()
+                    )
+            );
+        }
+        System.out.println("replay: framebuffer hash matches the recording");
+    }
+
+    private static EmulationResult runHeadless(EmulationConfig config, Rom romFile, InputScript inputScript) {
+        Chip8 chip8 = createEngine(config, romFile);
+        if (config.getWavPath() != null) {
+            chip8.setSound(new WavSound(Path.of(config.getWavPath())));
+        }
+        // init metrics: headless frames are not paced, the frame time metrics stay empty
+        EmulatorMetrics metrics = new EmulatorMetrics(config.getJobName());
+        metrics.register();
+        FrameTimeStats frameTimeStats = new FrameTimeStats(1_000_000_000L / Chip8.FRAME_RATE);
+        // the trace, the WAV file and the capture are completed even if the emulation fails, in reverse order: the
+        // capture encoding backlog is not part of the emulation time
+        Sound sound = chip8.getSound();
+        try (sound;
+             ExecutionTracer tracer = chip8.getTracer();
+             FrameCapture frameCapture = createFrameCapture(config)) {
+            // emulation loop: no screen, no audio output, no frame rate limit
+            log.info("headless emulation loop start: {} instructions per second", config.getInstructionsPerSecond());
+            FrameBudget frameBudget = new FrameBudget(config);
+            int nextInputEvent = 0;
+            while (!frameBudget.isReached()) {
+                if (inputScript != null) {
+                    nextInputEvent = inputScript.apply(nextInputEvent, frameBudget.frames, chip8.getKeyboard());
+                }
+                int frameCycles = frameBudget.nextFrameCycles();
+                emulateCycles(chip8, tracer, frameCycles);
+                chip8.updateTimers();
+                chip8.setDrawFlag(false);
+                frameBudget.frameEmulated(frameCycles);
+                if (frameCapture != null) {
+                    frameCapture.capture(chip8.getDisplay());
+                }
+                if (frameBudget.frames % EmulatorMetrics.PUBLISH_FRAMES == 0 && metrics.isPublishDue()) {
+                    metrics.publish(chip8, frameBudget.cycles, frameBudget.frames, 0, frameTimeStats);
+                }
+            }
+            log.info("headless emulation loop end");
+            writeProfileReport(chip8, romFile, config);
+            return EmulationResult
+                    .builder()
+                    .romName(romFile.getRomName())
+                    .cycles(frameBudget.cycles)
+                    .idleCycles(chip8.getIdleCycles())
+                    .frames(frameBudget.frames)
+                    .elapsedNanos(frameBudget.getElapsedNanos())
+                    .framebufferHash(chip8.getDisplay().hash())
+                    .build();
+        } finally {
+            metrics.unregister();
+        }
+    }
+
+    private static Chip8 createEngine(EmulationConfig config, Rom romFile) {
         // init engine
-        Chip8 chip8 = new Chip8();
-        // init graphics
-        Screen screen = new SwingScreen(chip8.getDisplay());
-        // init keyboard input
-        screen.attachKeyboard(chip8.getKeyboard());
-        // init sound effect
-        Sound sound = new ClipSound();
-        chip8.setSound(sound);
+        Chip8 chip8 = config.getEngineType().create();
+        log.info("engine '{}' selected", config.getEngineType());
         // init random seed
-        if (randomSeed != null) {
-            chip8.setRandomSeed(randomSeed);
+        if (config.getRandomSeed() != null) {
+            chip8.setRandomSeed(config.getRandomSeed());
         }
         // load ROM file
-        Rom romFile = new Rom(romPath);
         chip8.loadRom(romFile);
-        // emulation loop
-        log.info("emulation loop start");
-        boolean running = true;
-        while (running) {
-            if (screen.isClosed()) {
-                running = false;
+        if (config.getProfilePath() != null) {
+            chip8.enableProfiler();
+        }
+        if (config.isTracing()) {
+            chip8.setTracer(new ExecutionTracer(
+                    config.getTracePath() != null ? Path.of(config.getTracePath()) : null,
+                    Math.max(1, config.getTraceRingRecords())
+            ));
+        }
+        return chip8;
+    }
+
+    /**
+     * emulate cycles, logging the last traced instructions if the emulation fails
+     *
+     * @param chip8  the machine
+     * @param tracer nullable tracer of the machine
+     * @param cycles number of cycles to emulate
+     * @throws Chip8Exception if an error occurs during emulation
+     */
+    private static void emulateCycles(Chip8 chip8, ExecutionTracer tracer, int cycles) {
+        try {
+            chip8.emulateCycles(cycles);
+        } catch (Chip8Exception e) {
+            if (tracer != null) {
+                tracer.dumpRing(chip8);
             }
-            // emulate 1 cycle
-            chip8.emulateCycle();
-            // if draw flag is set, redraw screen
-            if (chip8.isDrawFlag()) {
-                chip8.setDrawFlag(false);
-                screen.redraw(chip8.getDisplay());
+            throw e;
+        }
+    }
+
+    private static void writeProfileReport(Chip8 chip8, Rom romFile, EmulationConfig config) {
+        if (config.getProfilePath() != null) {
+            ProfileReport.write(chip8, romFile.getRomName(), romFile.getRomSize(), Path.of(config.getProfilePath()));
+        }
+    }
+
+    private static FrameCapture createFrameCapture(EmulationConfig config) {
+        if (config.getCapturePath() == null) {
+            return null;
+        }
+        return new FrameCapture(
+                Path.of(config.getCapturePath()),
+                config.getScale(),
+                config.getPalette(),
+                FrameCapture.DEFAULT_QUEUE_FRAMES
+        );
+    }
+
+    private static Sound createSound(EmulationConfig config) {
+        switch (config.getSoundType()) {
+            case STREAM:
+                return new StreamingSound(config.getAudioBufferMillis());
+            case CLIP:
+                return new ClipSound();
+            default:
+                return new NoneSound();
+        }
+    }
+
+    private static InputScript loadInputScript(EmulationConfig config) {
+        if (config.getInputScriptPath() == null) {
+            return null;
+        }
+        InputScript inputScript = new InputScript(config.getInputScriptPath());
+        log.info("input script '{}' loaded: {} events", inputScript.getScriptName(), inputScript.size());
+        return inputScript;
+    }
+
+    private static void runWindowed(Chip8 chip8, Rom romFile, EmulationConfig config) {
+        InputScript inputScript = loadInputScript(config);
+        // init graphics
+        Screen screen = new SwingScreen(chip8.getDisplay(), config.getScale(), config.getPalette());
+        // init save states
+        Path stateDirectory = config.getStateDirectory() != null
+                ? Path.of(config.getStateDirectory())
+                : Path.of(config.getRomPath()).toAbsolutePath().getParent();
+        // init rewind
+        RewindBuffer rewindBuffer = config.getRewindSeconds() > 0
+                ? new RewindBuffer(config.getRewindSeconds() * Chip8.FRAME_RATE)
+                : null;
+        AtomicBoolean rewinding = new AtomicBoolean();
+        // init metrics
+        EmulatorMetrics metrics = new EmulatorMetrics();
+        metrics.register();
+        // the recording, the state files, the audio line, the trace and the capture are completed and released
+        // however the emulation ends
+        try (InputRecorder recorder = createRecorder(chip8, romFile, config);
+             SaveStateManager saveStates = new SaveStateManager(stateDirectory, romFile.getRomName());
+             Sound sound = createSound(config);
+             ExecutionTracer tracer = chip8.getTracer();
+             FrameCapture frameCapture = createFrameCapture(config)) {
+            // init keyboard input: when recording, key events reach the machine only at frame boundaries
+            RecordingKeyboard recordingKeyboard = null;
+            if (recorder != null) {
+                recordingKeyboard = new RecordingKeyboard();
+                screen.attachKeyboard(recordingKeyboard);
+                // loading states and rewinding would make the recording impossible to replay
+                log.info("save state and rewind hotkeys disabled while recording");
+            } else {
+                screen.attachKeyboard(chip8.getKeyboard());
+                screen.attachHotkeys(new HotkeyListener() {
+                    @Override
+                    public void saveState(int slot) {
+                        saveStates.requestSave(slot);
+                    }
+
+                    @Override
+                    public void loadState(int slot) {
+                        saveStates.requestLoad(slot);
+                    }
+
+                    @Override
+                    public void rewind(boolean active) {
+                        rewinding.set(active);
+                    }
+                });
+            }
+            // init sound effect
+            chip8.setSound(sound);
+            long redraws = 0;
+            // emulation loop
+            log.info("emulation loop start: {} instructions per second", config.getInstructionsPerSecond());
+            FrameBudget frameBudget = new FrameBudget(config);
+            FramePacer framePacer = new FramePacer(
+                    Chip8.FRAME_RATE,
+                    config.isPacerSpin() ? FramePacer.DEFAULT_SPIN_NANOS : 0
+            );
+            int nextInputEvent = 0;
+            while (!screen.isClosed() && !frameBudget.isReached()) {
+                FrameEvent frameEvent = new FrameEvent();
+                frameEvent.begin();
+                long frame = frameBudget.frames;
+                long cycles = frameBudget.cycles;
+                long idleCycles = chip8.getIdleCycles();
+                long drawnSprites = chip8.getDrawnSprites();
+                long spriteCollisions = chip8.getSpriteCollisions();
+                saveStates.performRequests(chip8);
+                boolean rewind = rewinding.get() && rewindBuffer != null && rewindBuffer.rewind(chip8);
+                if (rewind) {
+                    // go back 1 frame instead of emulating it: timers are not updated, keep silent
+                    sound.update(false);
+                    log.trace("rewind: {} frames left", rewindBuffer.size());
+                } else {
+                    if (inputScript != null) {
+                        nextInputEvent = inputScript.apply(nextInputEvent, frameBudget.frames, chip8.getKeyboard());
+                    }
+                    if (recordingKeyboard != null) {
+                        recordingKeyboard.applyEvents(chip8.getKeyboard(), frameBudget.frames, recorder);
+                    }
+                    if (rewindBuffer != null) {
+                        rewindBuffer.capture(chip8);
+                    }
+                    // emulate 1 frame: instructions, then 60 Hz timers
+                    int frameCycles = frameBudget.nextFrameCycles();
+                    emulateCycles(chip8, tracer, frameCycles);
+                    chip8.updateTimers();
+                    frameBudget.frameEmulated(frameCycles);
+                    if (chip8.getDrawnSprites() != drawnSprites) {
+                        DrawBatchEvent drawBatchEvent = new DrawBatchEvent();
+                        if (drawBatchEvent.isEnabled()) {
+                            drawBatchEvent.setFrame(frame);
+                            drawBatchEvent.setSprites(chip8.getDrawnSprites() - drawnSprites);
+                            drawBatchEvent.setCollisions(chip8.getSpriteCollisions() - spriteCollisions);
+                            drawBatchEvent.commit();
+                        }
+                    }
+                }
+                // if draw flag is set, redraw screen
+                boolean redraw = chip8.isDrawFlag();
+                if (redraw) {
+                    chip8.setDrawFlag(false);
+                    screen.redraw(chip8.getDisplay());
+                    redraws += 1;
+                }
+                if (frameCapture != null) {
+                    frameCapture.capture(chip8.getDisplay());
+                }
+                frameEvent.end();
+                if (frameEvent.shouldCommit()) {
+                    frameEvent.setFrame(frame);
+                    frameEvent.setCycles((int) (frameBudget.cycles - cycles));
+                    frameEvent.setIdleCycles(chip8.getIdleCycles() - idleCycles);
+                    frameEvent.setRewind(rewind);
+                    frameEvent.setRedraw(redraw);
+                    frameEvent.commit();
+                }
+                // limit frame rate at 60 Hz
+                framePacer.awaitNextFrame();
+                if (chip8.isIdleUntilKeyPress()
+                        && recorder == null
+                        && !rewinding.get()
+                        && (inputScript == null || nextInputEvent == inputScript.size())) {
+                    // nothing changes until a key press: park instead of emulating idle frames
+                    log.debug("waiting for key press");
+                    sound.update(false);
+                    while (!screen.isClosed()
+                            && !frameBudget.isReached()
+                            && !saveStates.hasRequests()
+                            && !rewinding.get()
+                            && !chip8.getKeyboard().awaitKeyPress(KEY_WAIT_CHECK_NANOS)) {
+                        log.trace("still waiting for key press");
+                    }
+                    framePacer.start();
+                }
+                if (frameBudget.frames % STATS_LOG_FRAMES == 0) {
+                    log.debug("frame pacing: {}", framePacer.getFrameTimeStats());
+                }
+                if (framePacer.getFrameTimeStats().getFrames() % EmulatorMetrics.PUBLISH_FRAMES == 0) {
+                    metrics.publish(
+                            chip8,
+                            frameBudget.cycles,
+                            frameBudget.frames,
+                            redraws,
+                            framePacer.getFrameTimeStats()
+                    );
+                }
+            }
+            log.info("emulation loop end: {} cycles, {} idle", frameBudget.cycles, chip8.getIdleCycles());
+            log.info("frame pacing: {}, {} resyncs", framePacer.getFrameTimeStats(), framePacer.getResyncCount());
+            if (rewindBuffer != null) {
+                log.info(
+                        "rewind history: {} frames, {} KB",
+                        rewindBuffer.size(),
+                        rewindBuffer.getEncodedBytes() / 1024
+                );
             }
-            // limit frame rate at 60 Hz
-            Sleep.fromFrameRate(Chip8.FRAME_RATE);
+            if (recorder != null) {
+                recorder.finish(frameBudget.frames, chip8.getDisplay().hash());
+            }
+            writeProfileReport(chip8, romFile, config);
+        } finally {
+            metrics.unregister();
+        }
+    }
+
+    private static InputRecorder createRecorder(Chip8 chip8, Rom romFile, EmulationConfig config) {
+        if (config.getRecordPath() == null) {
+            return null;
+        }
+        long randomSeed = config.getRandomSeed() != null ? config.getRandomSeed() : System.nanoTime();
+        chip8.setRandomSeed(randomSeed);
+        return new InputRecorder(
+                Path.of(config.getRecordPath()),
+                randomSeed,
+                romFile.computeChecksum(),
+                config.getInstructionsPerSecond()
+        );
+    }
+
+    /**
+     * track emulated cycles, frames and wall time: compute the cycles of each frame and check the run limits
+     */
+    private static final class FrameBudget {
+        /**
+         * headless wall time is only checked every <code>HEADLESS_TIME_CHECK_FRAMES</code> frames, to keep the loop
+         * tight
+         */
+        private static final int HEADLESS_TIME_CHECK_FRAMES = 1024;
+        private final int instructionsPerSecond;
+        private final long maxCycles;
+        private final long maxFrames;
+        private final long maxNanos;
+        private final long timeCheckFrames;
+        private final long startNanos;
+        private long cycles;
+        private long frames;
+
+        private FrameBudget(EmulationConfig config) {
+            instructionsPerSecond = config.getInstructionsPerSecond();
+            maxCycles = config.getMaxCycles() != null ? config.getMaxCycles() : Long.MAX_VALUE;
+            maxFrames = config.getMaxFrames() != null ? config.getMaxFrames() : Long.MAX_VALUE;
+            maxNanos = config.getMaxTime() != null ? config.getMaxTime().toNanos() : Long.MAX_VALUE;
+            timeCheckFrames = config.isHeadless() ? HEADLESS_TIME_CHECK_FRAMES : 1;
+            startNanos = System.nanoTime();
+        }
+
+        /**
+         * get the number of cycles of the next frame: instructions per second are spread evenly over the frames of
+         * each second, and the last frame is cut at the cycles limit
+         *
+         * @return next frame cycles
+         */
+        private int nextFrameCycles() {
+            long frameOfSecond = frames % Chip8.FRAME_RATE;
+            long frameCycles = ((frameOfSecond + 1) * instructionsPerSecond / Chip8.FRAME_RATE)
+                    - (frameOfSecond * instructionsPerSecond / Chip8.FRAME_RATE);
+            return (int) Math.min(frameCycles, maxCycles - cycles);
+        }
+
+        private void frameEmulated(int frameCycles) {
+            cycles += frameCycles;
+            frames += 1;
+        }
+
+        private long getElapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+
+        private boolean isReached() {
+            return cycles >= maxCycles
+                    || frames >= maxFrames
+                    || (frames % timeCheckFrames == 0 && getElapsedNanos() >= maxNanos);
         }
-        log.info("emulation loop end");
-        sound.close();
-        log.info("exit emulation");
     }
 }
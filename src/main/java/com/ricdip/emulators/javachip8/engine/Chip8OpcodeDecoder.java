@@ -5,6 +5,13 @@ import com.ricdip.emulators.javachip8.model.Instruction;
 import com.ricdip.emulators.javachip8.model.OpcodeType;
 
 public final class Chip8OpcodeDecoder {
+    public static final int DECODE_TABLE_LENGTH = 0xFFFF + 1;
+    /**
+     * pre-decoded instructions indexed by opcode (0x0000 - 0xFFFF), built once at class initialization.
+     * Entries of unknown opcodes are <code>null</code>.
+     */
+    private static final Instruction[] DECODE_TABLE = buildDecodeTable();
+
     private Chip8OpcodeDecoder() {
         // NOOP
     }
@@ -14,8 +21,37 @@ public final class Chip8OpcodeDecoder {
      *
      * @param opcode the opcode to decode
      * @return decoded instruction
+     * @throws Chip8Exception if opcode is unknown
      */
     public static Instruction decode(int opcode) {
+        Instruction decodedInstruction = DECODE_TABLE[opcode & 0xFFFF];
+
+        if (decodedInstruction == null) {
+            throw new Chip8Exception(String.format("Unknown opcode: 0x%04X", opcode));
+        }
+
+        return decodedInstruction;
+    }
+
+    /**
+     * check if opcode can be decoded
+     *
+     * @param opcode the opcode to check
+     * @return true if opcode is a known CHIP-8 instruction, false otherwise
+     */
+    public static boolean isKnown(int opcode) {
+        return DECODE_TABLE[opcode & 0xFFFF] != null;
+    }
+
+    private static Instruction[] buildDecodeTable() {
+        Instruction[] decodeTable = new Instruction[DECODE_TABLE_LENGTH];
+        for (int opcode = 0; opcode < DECODE_TABLE_LENGTH; opcode++) {
+            decodeTable[opcode] = decodeInstruction(opcode);
+        }
+        return decodeTable;
+    }
+
+    private static Instruction decodeInstruction(int opcode) {
         int op = (opcode & 0xF000) >>> 12;
         int x = (opcode & 0x0F00) >>> 8;
         int y = (opcode & 0x00F0) >>> 4;
@@ -23,7 +59,31 @@ public final class Chip8OpcodeDecoder {
         int kk = (opcode & 0x00FF);
         int nnn = (opcode & 0x0FFF);
 
-        Instruction decodedInstruction = Instruction
+        OpcodeType opcodeType = switch (op) {
+            case 0x0 -> decodeOp0x0(x, y, n);
+            case 0x1 -> decodeOp0x1();
+            case 0x2 -> decodeOp0x2();
+            case 0x3 -> decodeOp0x3();
+            case 0x4 -> decodeOp0x4();
+            case 0x5 -> decodeOp0x5(n);
+            case 0x6 -> decodeOp0x6();
+            case 0x7 -> decodeOp0x7();
+            case 0x8 -> decodeOp0x8(n);
+            case 0x9 -> decodeOp0x9(n);
+            case 0xA -> decodeOp0xA();
+            case 0xB -> decodeOp0xB();
+            case 0xC -> decodeOp0xC();
+            case 0xD -> decodeOp0xD();
+            case 0xE -> decodeOp0xE(kk);
+            case 0xF -> decodeOp0xF(kk);
+            default -> null;
+        };
+
+        if (opcodeType == null) {
+            return null;
+        }
+
+        return Instruction
                 .builder()
                 .OP(op)
                 .X(x)
@@ -31,70 +91,14 @@ public final class Chip8OpcodeDecoder {
                 .N(n)
                 .NNN(nnn)
                 .KK(kk)
+                .opcodeType(opcodeType)
                 .build();
-
-        switch (op) {
-            case 0x0:
-                decodedInstruction.setOpcodeType(decodeOp0x0(decodedInstruction));
-                break;
-            case 0x1:
-                decodedInstruction.setOpcodeType(decodeOp0x1());
-                break;
-            case 0x2:
-                decodedInstruction.setOpcodeType(decodeOp0x2());
-                break;
-            case 0x3:
-                decodedInstruction.setOpcodeType(decodeOp0x3());
-                break;
-            case 0x4:
-                decodedInstruction.setOpcodeType(decodeOp0x4());
-                break;
-            case 0x5:
-                decodedInstruction.setOpcodeType(decodeOp0x5(decodedInstruction));
-                break;
-            case 0x6:
-                decodedInstruction.setOpcodeType(decodeOp0x6());
-                break;
-            case 0x7:
-                decodedInstruction.setOpcodeType(decodeOp0x7());
-                break;
-            case 0x8:
-                decodedInstruction.setOpcodeType(decodeOp0x8(decodedInstruction));
-                break;
-            case 0x9:
-                decodedInstruction.setOpcodeType(decodeOp0x9(decodedInstruction));
-                break;
-            case 0xA:
-                decodedInstruction.setOpcodeType(decodeOp0xA());
-                break;
-            case 0xB:
-                decodedInstruction.setOpcodeType(decodeOp0xB());
-                break;
-            case 0xC:
-                decodedInstruction.setOpcodeType(decodeOp0xC());
-                break;
-            case 0xD:
-                decodedInstruction.setOpcodeType(decodeOp0xD());
-                break;
-            case 0xE:
-                decodedInstruction.setOpcodeType(decodeOp0xE(decodedInstruction));
-                break;
-            case 0xF:
-                decodedInstruction.setOpcodeType(decodeOp0xF(decodedInstruction));
-                break;
-        }
-
-        if (decodedInstruction.getOpcodeType() == null) {
-            throw new Chip8Exception(String.format("Unknown opcode: 0x%04X", opcode));
-        }
-
-        return decodedInstruction;
     }
 
-    private static OpcodeType decodeOp0x0(Instruction instruction) {
-        if (instruction.getX() == 0x0) {
-            if (instruction.getY() == 0xE) {
-                switch (instruction.getN()) {
+    private static OpcodeType decodeOp0x0(int x, int y, int n) {
+        if (x == 0x0) {
+            if (y == 0xE) {
+                switch (n) {
                     case 0x0:
                         return OpcodeType.OP_00E0;
                     case 0xE:
@@ -122,8 +126,8 @@ public final class Chip8OpcodeDecoder {
         return OpcodeType.OP_4XKK;
     }
 
-    private static OpcodeType decodeOp0x5(Instruction instruction) {
-        if (instruction.getN() == 0x0) {
+    private static OpcodeType decodeOp0x5(int n) {
+        if (n == 0x0) {
             return OpcodeType.OP_5XY0;
         } else {
             return null;
@@ -138,8 +142,8 @@ public final class Chip8OpcodeDecoder {
         return OpcodeType.OP_7XKK;
     }
 
-    private static OpcodeType decodeOp0x8(Instruction instruction) {
-        return switch (instruction.getN()) {
+    private static OpcodeType decodeOp0x8(int n) {
+        return switch (n) {
             case 0x0 -> OpcodeType.OP_8XY0;
             case 0x1 -> OpcodeType.OP_8XY1;
             case 0x2 -> OpcodeType.OP_8XY2;
@@ -153,8 +157,8 @@ public final class Chip8OpcodeDecoder {
         };
     }
 
-    private static OpcodeType decodeOp0x9(Instruction instruction) {
-        if (instruction.getN() == 0x0) {
+    private static OpcodeType decodeOp0x9(int n) {
+        if (n == 0x0) {
             return OpcodeType.OP_9XY0;
         } else {
             return null;
@@ -177,16 +181,16 @@ public final class Chip8OpcodeDecoder {
         return OpcodeType.OP_DXYN;
     }
 
-    private static OpcodeType decodeOp0xE(Instruction instruction) {
-        return switch (instruction.getKK()) {
+    private static OpcodeType decodeOp0xE(int kk) {
+        return switch (kk) {
             case 0x9E -> OpcodeType.OP_EX9E;
             case 0xA1 -> OpcodeType.OP_EXA1;
             default -> null;
         };
     }
 
-    private static OpcodeType decodeOp0xF(Instruction instruction) {
-        return switch (instruction.getKK()) {
+    private static OpcodeType decodeOp0xF(int kk) {
+        return switch (kk) {
             case 0x07 -> OpcodeType.OP_FX07;
             case 0x0A -> OpcodeType.OP_FX0A;
             case 0x15 -> OpcodeType.OP_FX15;
@@ -9,15 +9,16 @@ public final class Chip8OpcodeFetcher {
     /**
      * fetch CHIP-8 instruction from memory at the position indicated by PC (Program Counter)
      *
-     * @param memory the CHIP-8 memory data structure
-     * @param PC     the CHIP-8 Program Counter
+     * @param state the CHIP-8 machine state that holds the memory
+     * @param PC    the CHIP-8 Program Counter
      * @return CHIP-8 fetched opcode
+     * @throws IndexOutOfBoundsException if the opcode is not entirely in memory
      */
-    public static int fetch(int[] memory, int PC) {
+    public static int fetch(MachineState state, int PC) {
         // fetch opcode first byte
-        int opcodeFirstByte = memory[PC];
+        int opcodeFirstByte = state.getMemory(PC);
         // fetch opcode second byte
-        int opcodeSecondByte = memory[PC + 1];
+        int opcodeSecondByte = state.getMemory(PC + 1);
         // merge both bytes to get full opcode:
         // 1. 0x00XX << 8 = 0xXX00
         // 2. 0xXX00 | 0x00YY = 0xXXYY
@@ -0,0 +1,54 @@
+package com.ricdip.emulators.javachip8.engine;
+
+/**
+ * CHIP-8 random number generator: the same 48-bit linear congruential generator of {@link java.util.Random} (same
+ * sequence for the same seed), with its state stored in the machine state so that it is saved and restored with it.
+ */
+final class Chip8Random {
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+    /**
+     * machine state that stores the current 48-bit generator state
+     */
+    private final MachineState state;
+
+    Chip8Random(MachineState state) {
+        this.state = state;
+        setSeed(System.nanoTime());
+    }
+
+    /**
+     * set random seed, scrambled as {@link java.util.Random#setSeed(long)} does
+     *
+     * @param seed the random seed to set
+     */
+    void setSeed(long seed) {
+        state.setRandomState((seed ^ MULTIPLIER) & MASK);
+    }
+
+    /**
+     * generate a random number in [0, bound), as {@link java.util.Random#nextInt(int)} does
+     *
+     * @param bound the upper bound (exclusive), must be positive
+     * @return random number
+     */
+    int nextInt(int bound) {
+        int r = next(31);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            // bound is a power of 2
+            return (int) ((bound * (long) r) >> 31);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0; u = next(31)) {
+            // reject values that would make the distribution uneven
+        }
+        return r;
+    }
+
+    private int next(int bits) {
+        long next = (state.getRandomState() * MULTIPLIER + ADDEND) & MASK;
+        state.setRandomState(next);
+        return (int) (next >>> (48 - bits));
+    }
+}
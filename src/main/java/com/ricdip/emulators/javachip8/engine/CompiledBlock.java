@@ -0,0 +1,13 @@
+package com.ricdip.emulators.javachip8.engine;
+
+/**
+ * CHIP-8 basic block compiled to JVM bytecode by {@link JitCompiler}
+ */
+public interface CompiledBlock {
+    /**
+     * execute every instruction of the block, as many CHIP-8 cycles as the block length
+     *
+     * @param chip8 the engine whose state is read and written
+     */
+    void execute(JitChip8 chip8);
+}
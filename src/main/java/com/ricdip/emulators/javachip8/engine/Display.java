@@ -1,28 +1,48 @@
 package com.ricdip.emulators.javachip8.engine;
 
-import java.util.Arrays;
-
 public class Display {
     public static final int DISPLAY_WIDTH = 64;
     public static final int DISPLAY_HEIGHT = 32;
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
     /**
-     * CHIP-8 display implementation using booleans. Each element of the array is a pixel on the display:
+     * CHIP-8 display implementation using one <code>long</code> per row, stored in the display rows of a
+     * {@link MachineState}. Each bit of a row is a pixel on the display, the most significant bit is the leftmost
+     * pixel (column 0):
      * <ul>
-     *     <li>if the pixel is true: the pixel is on</li>
-     *     <li>if the pixel is false: the pixel is off</li>
+     *     <li>if the bit is 1: the pixel is on</li>
+     *     <li>if the bit is 0: the pixel is off</li>
      * </ul>
      */
-    private final boolean[] display;
+    private final MachineState state;
+    /**
+     * rows changed since the last call to {@link #takeDirtyRows()}: bit N is set if row N changed
+     */
+    private int dirtyRows;
 
     public Display() {
-        display = new boolean[DISPLAY_WIDTH * DISPLAY_HEIGHT];
+        this(MachineState.allocate());
     }
 
     /**
-     * clear the display setting every pixel to false
+     * create a display on the display rows of a machine state
+     *
+     * @param state the machine state that stores the pixels
+     */
+    Display(MachineState state) {
+        this.state = state;
+    }
+
+    /**
+     * clear the display setting every pixel to off
      */
     public void clear() {
-        Arrays.fill(display, false);
+        for (int row = 0; row < DISPLAY_HEIGHT; row++) {
+            if (state.getDisplayRow(row) != 0) {
+                state.setDisplayRow(row, 0L);
+                dirtyRows |= 1 << row;
+            }
+        }
     }
 
     /**
@@ -33,8 +53,7 @@ public class Display {
      * @return true if pixel is set, false otherwise
      */
     public boolean isPixelSet(int row, int col) {
-        int coords = (row * Display.DISPLAY_WIDTH) + col;
-        return display[coords];
+        return (state.getDisplayRow(row) & columnMask(col)) != 0;
     }
 
     /**
@@ -44,7 +63,86 @@ public class Display {
      * @param col the col of the display
      */
     public void togglePixel(int row, int col) {
-        int coords = (row * Display.DISPLAY_WIDTH) + col;
-        display[coords] = !display[coords];
+        state.setDisplayRow(row, state.getDisplayRow(row) ^ columnMask(col));
+        dirtyRows |= 1 << row;
+    }
+
+    /**
+     * XOR an 8-pixel sprite row onto a display row. Sprite pixels beyond the right edge are clipped.
+     *
+     * @param row    the row of the display
+     * @param col    the col of the leftmost sprite pixel
+     * @param sprite the sprite row, the most significant of the 8 bits is the leftmost pixel
+     * @return true if a pixel that was on has been turned off (collision), false otherwise
+     */
+    public boolean drawSpriteRow(int row, int col, int sprite) {
+        if (col >= DISPLAY_WIDTH) {
+            return false;
+        }
+        // move the sprite to the leftmost 8 bits, then to the sprite column: bits past column 63 are shifted out
+        long mask = ((long) (sprite & 0xFF) << (Long.SIZE - 8)) >>> col;
+        if (mask == 0) {
+            return false;
+        }
+        long bits = state.getDisplayRow(row);
+        state.setDisplayRow(row, bits ^ mask);
+        dirtyRows |= 1 << row;
+        return (bits & mask) != 0;
+    }
+
+    /**
+     * get the pixels of a row
+     *
+     * @param row the row of the display
+     * @return row pixels, the most significant bit is the leftmost pixel
+     */
+    public long getRow(int row) {
+        return state.getDisplayRow(row);
+    }
+
+    /**
+     * set the pixels of a row
+     *
+     * @param row  the row of the display
+     * @param bits row pixels, the most significant bit is the leftmost pixel
+     */
+    public void setRow(int row, long bits) {
+        if (state.getDisplayRow(row) != bits) {
+            state.setDisplayRow(row, bits);
+            dirtyRows |= 1 << row;
+        }
+    }
+
+    /**
+     * get the rows changed since the last call, and reset the tracking
+     *
+     * @return bit mask of the changed rows: bit N is set if row N changed
+     */
+    public int takeDirtyRows() {
+        int changedRows = dirtyRows;
+        dirtyRows = 0;
+        return changedRows;
+    }
+
+    /**
+     * compute 64-bit FNV-1a hash of the display content. Each row is hashed as 8 bytes, where the most significant bit
+     * of the first byte is the leftmost pixel.
+     *
+     * @return display content hash
+     */
+    public long hash() {
+        long hash = FNV_OFFSET_BASIS;
+        for (int row = 0; row < DISPLAY_HEIGHT; row++) {
+            long bits = state.getDisplayRow(row);
+            for (int shift = Long.SIZE - 8; shift >= 0; shift -= 8) {
+                hash ^= (bits >>> shift) & 0xFF;
+                hash *= FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+
+    private static long columnMask(int col) {
+        return Long.MIN_VALUE >>> col;
     }
 }
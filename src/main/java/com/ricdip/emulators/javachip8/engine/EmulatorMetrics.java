@@ -0,0 +1,227 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.model.OpcodeType;
+import com.ricdip.emulators.javachip8.utils.FrameTimeStats;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * emulation metrics MBean. The emulation thread keeps its counters in plain fields and publishes an immutable
+ * snapshot every {@link #PUBLISH_FRAMES} frames: JMX reads never touch the emulation state, and counting costs no
+ * synchronization. Each batch job registers its own MBean, named after the job.
+ */
+@Slf4j
+public class EmulatorMetrics implements EmulatorMetricsMXBean {
+    /**
+     * JMX object name of the MBean
+     */
+    public static final String OBJECT_NAME = "com.ricdip.emulators.javachip8:type=EmulatorMetrics";
+    /**
+     * metrics are published once per second
+     */
+    public static final int PUBLISH_FRAMES = Chip8.FRAME_RATE;
+    /**
+     * minimum time between two snapshots of a run whose frames are not paced
+     */
+    public static final long PUBLISH_INTERVAL_NANOS = 1_000_000_000L;
+    private volatile Snapshot snapshot = Snapshot.builder().opcodeCounts(Collections.emptyMap()).build();
+    private final String name;
+    private ObjectName objectName;
+    private long lastPublishNanos = System.nanoTime();
+    private long lastPublishCycles;
+
+    /**
+     * create the metrics of the emulation
+     */
+    public EmulatorMetrics() {
+        this(null);
+    }
+
+    /**
+     * create the metrics of an emulation job
+     *
+     * @param jobName nullable job name, added to the object name as the <code>job</code> key
+     */
+    public EmulatorMetrics(String jobName) {
+        name = jobName != null ? OBJECT_NAME + ",job=" + ObjectName.quote(jobName) : OBJECT_NAME;
+    }
+
+    /**
+     * register the MBean in the platform MBean server. Failures are logged, emulation goes on without metrics.
+     */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+            log.info("metrics MBean '{}' registered", name);
+        } catch (JMException e) {
+            log.warn("metrics MBean '{}' not registered: {}", name, e.getMessage());
+            objectName = null;
+        }
+    }
+
+    /**
+     * unregister the MBean from the platform MBean server
+     */
+    public void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            log.warn("metrics MBean '{}' not unregistered: {}", name, e.getMessage());
+        }
+        objectName = null;
+    }
+
+    /**
+     * check if {@link #PUBLISH_INTERVAL_NANOS} have passed since the last snapshot, for headless runs where
+     * {@link #PUBLISH_FRAMES} frames take much less than a second
+     *
+     * @return true if a new snapshot should be published, false otherwise
+     */
+    public boolean isPublishDue() {
+        return System.nanoTime() - lastPublishNanos >= PUBLISH_INTERVAL_NANOS;
+    }
+
+    /**
+     * publish a new snapshot, called by the emulation thread
+     *
+     * @param chip8          the emulated machine
+     * @param cycles         emulated cycles
+     * @param frames         emulated frames
+     * @param redraws        screen redraws
+     * @param frameTimeStats frame pacing statistics
+     */
+    public void publish(Chip8 chip8, long cycles, long frames, long redraws, FrameTimeStats frameTimeStats) {
+        long now = System.nanoTime();
+        double instructionsPerSecond = now > lastPublishNanos
+                ? (cycles - lastPublishCycles) * 1e9 / (now - lastPublishNanos)
+                : 0;
+        lastPublishNanos = now;
+        lastPublishCycles = cycles;
+        long[] counts = chip8.getOpcodeCounts();
+        Map<String, Long> opcodeCounts = new LinkedHashMap<>();
+        for (OpcodeType opcodeType : OpcodeType.values()) {
+            opcodeCounts.put(opcodeType.getType(), counts[opcodeType.ordinal()]);
+        }
+        snapshot = Snapshot
+                .builder()
+                .instructionsPerSecond(instructionsPerSecond)
+                .cycles(cycles)
+                .idleCycles(chip8.getIdleCycles())
+                .frames(frames)
+                .redraws(redraws)
+                .soundActivations(chip8.getSoundActivations())
+                .audioUnderruns(chip8.getSound().getUnderruns())
+                .lateFrames(frameTimeStats.getLateFrames())
+                .frameTimeMeanMillis(frameTimeStats.getMeanFrameNanos() / 1e6)
+                .frameTimeP50Millis(frameTimeStats.getPercentileNanos(50) / 1e6)
+                .frameTimeP95Millis(frameTimeStats.getPercentileNanos(95) / 1e6)
+                .frameTimeP99Millis(frameTimeStats.getPercentileNanos(99) / 1e6)
+                .frameTimeMaxMillis(frameTimeStats.getMaxFrameNanos() / 1e6)
+                .opcodeCounts(Collections.unmodifiableMap(opcodeCounts))
+                .build();
+    }
+
+    @Override
+    public double getInstructionsPerSecond() {
+        return snapshot.instructionsPerSecond;
+    }
+
+    @Override
+    public long getCycles() {
+        return snapshot.cycles;
+    }
+
+    @Override
+    public long getIdleCycles() {
+        return snapshot.idleCycles;
+    }
+
+    @Override
+    public long getFrames() {
+        return snapshot.frames;
+    }
+
+    @Override
+    public long getRedraws() {
+        return snapshot.redraws;
+    }
+
+    @Override
+    public long getSoundActivations() {
+        return snapshot.soundActivations;
+    }
+
+    @Override
+    public long getAudioUnderruns() {
+        return snapshot.audioUnderruns;
+    }
+
+    @Override
+    public long getLateFrames() {
+        return snapshot.lateFrames;
+    }
+
+    @Override
+    public double getFrameTimeMeanMillis() {
+        return snapshot.frameTimeMeanMillis;
+    }
+
+    @Override
+    public double getFrameTimeP50Millis() {
+        return snapshot.frameTimeP50Millis;
+    }
+
+    @Override
+    public double getFrameTimeP95Millis() {
+        return snapshot.frameTimeP95Millis;
+    }
+
+    @Override
+    public double getFrameTimeP99Millis() {
+        return snapshot.frameTimeP99Millis;
+    }
+
+    @Override
+    public double getFrameTimeMaxMillis() {
+        return snapshot.frameTimeMaxMillis;
+    }
+
+    @Override
+    public Map<String, Long> getOpcodeCounts() {
+        return snapshot.opcodeCounts;
+    }
+
+    @Builder
+    private static final class Snapshot {
+        private final double instructionsPerSecond;
+        private final long cycles;
+        private final long idleCycles;
+        private final long frames;
+        private final long redraws;
+        private final long soundActivations;
+        private final long audioUnderruns;
+        private final long lateFrames;
+        private final double frameTimeMeanMillis;
+        private final double frameTimeP50Millis;
+        private final double frameTimeP95Millis;
+        private final double frameTimeP99Millis;
+        private final double frameTimeMaxMillis;
+        private final Map<String, Long> opcodeCounts;
+    }
+}
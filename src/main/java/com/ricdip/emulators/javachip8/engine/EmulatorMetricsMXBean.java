@@ -0,0 +1,82 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import java.util.Map;
+
+/**
+ * emulation metrics exposed over JMX, see {@link EmulatorMetrics}. Values are refreshed every
+ * {@link EmulatorMetrics#PUBLISH_FRAMES} frames.
+ */
+public interface EmulatorMetricsMXBean {
+    /**
+     * get emulated instructions per second since the previous refresh, cycles skipped in idle loops included
+     *
+     * @return instructions per second
+     */
+    double getInstructionsPerSecond();
+
+    /**
+     * get emulated cycles, cycles skipped in idle loops included
+     *
+     * @return total cycles
+     */
+    long getCycles();
+
+    /**
+     * get cycles skipped in idle loops
+     *
+     * @return idle cycles
+     */
+    long getIdleCycles();
+
+    /**
+     * get emulated frames
+     *
+     * @return total frames
+     */
+    long getFrames();
+
+    /**
+     * get screen redraws
+     *
+     * @return total redraws
+     */
+    long getRedraws();
+
+    /**
+     * get the number of times the sound timer started
+     *
+     * @return sound activations
+     */
+    long getSoundActivations();
+
+    /**
+     * get the number of times the audio output ran out of samples
+     *
+     * @return audio underruns
+     */
+    long getAudioUnderruns();
+
+    /**
+     * get frames longer than the target frame time
+     *
+     * @return late frames
+     */
+    long getLateFrames();
+
+    double getFrameTimeMeanMillis();
+
+    double getFrameTimeP50Millis();
+
+    double getFrameTimeP95Millis();
+
+    double getFrameTimeP99Millis();
+
+    double getFrameTimeMaxMillis();
+
+    /**
+     * get executed instructions by opcode type, cycles skipped in idle loops excluded
+     *
+     * @return instruction counts by opcode type (e.g. "DXYN")
+     */
+    Map<String, Long> getOpcodeCounts();
+}
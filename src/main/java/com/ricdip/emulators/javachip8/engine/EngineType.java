@@ -0,0 +1,38 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import java.util.function.Supplier;
+
+/**
+ * selectable CHIP-8 emulation engines
+ */
+public enum EngineType {
+    /**
+     * fetch, decode and execute one instruction at a time
+     */
+    INTERPRETER(Chip8::new),
+
+    /**
+     * execute pre-decoded basic blocks cached by start address
+     */
+    BLOCK_CACHE(BlockCacheChip8::new),
+
+    /**
+     * execute cached basic blocks, compiling hot blocks to JVM bytecode
+     */
+    JIT(JitChip8::new);
+
+    private final Supplier<Chip8> engineFactory;
+
+    EngineType(Supplier<Chip8> engineFactory) {
+        this.engineFactory = engineFactory;
+    }
+
+    /**
+     * create a new engine instance
+     *
+     * @return new CHIP-8 engine
+     */
+    public Chip8 create() {
+        return engineFactory.get();
+    }
+}
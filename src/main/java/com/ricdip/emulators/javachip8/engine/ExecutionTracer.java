@@ -0,0 +1,207 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.ExecutionException;
+import com.ricdip.emulators.javachip8.model.ExecutionTrace;
+import com.ricdip.emulators.javachip8.model.Instruction;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * record every executed instruction: records are appended to a memory-mapped trace file (see {@link ExecutionTrace}
+ * for the format), and the last ones are also kept in an in-memory ring, logged by {@link #dumpRing(BaseChip8)} when
+ * the emulation fails.
+ */
+@Slf4j
+public class ExecutionTracer implements AutoCloseable {
+    /**
+     * default number of records kept in the in-memory ring
+     */
+    public static final int DEFAULT_RING_RECORDS = 64;
+    /**
+     * the trace file is mapped <code>MAPPED_RECORDS</code> records at a time
+     */
+    static final int MAPPED_RECORDS = 1 << 20;
+    private final Path path;
+    private final FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long mappedPosition;
+    private long records;
+    /**
+     * emulated cycle of the next record, idle cycles included
+     */
+    private long cycle;
+    /**
+     * ring records: cycle, and PC, opcode, register and value packed as in the trace file
+     */
+    private final long[] ringCycles;
+    private final long[] ringRecords;
+
+    /**
+     * create tracer
+     *
+     * @param path        nullable trace file, only the ring is kept if null
+     * @param ringRecords number of records kept in the in-memory ring, at least 1
+     * @throws ExecutionException if the trace file cannot be created
+     */
+    public ExecutionTracer(Path path, int ringRecords) {
+        this.path = path;
+        this.ringCycles = new long[ringRecords];
+        this.ringRecords = new long[ringRecords];
+        if (path == null) {
+            channel = null;
+            return;
+        }
+        try {
+            channel = FileChannel.open(
+                    path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE
+            );
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, ExecutionTrace.HEADER_SIZE);
+            mapped.putInt(ExecutionTrace.MAGIC);
+            mapped.putShort((short) ExecutionTrace.VERSION);
+            mapped.putShort((short) ExecutionTrace.RECORD_SIZE);
+            mapped.putLong(0);
+            mappedPosition = ExecutionTrace.HEADER_SIZE;
+            mapNext();
+        } catch (IOException e) {
+            throw new ExecutionException(String.format("Cannot create trace file '%s'", path), e);
+        }
+        log.info("tracing instructions to '{}'", path);
+    }
+
+    /**
+     * record an executed instruction, called after its execution. At most one register is recorded: FX65 records only
+     * VX, the last loaded register, and the memory writes of FX33 and FX55 are not recorded, their content follows
+     * from the recorded I and registers
+     *
+     * @param chip8       the machine
+     * @param PC          address of the instruction
+     * @param opcode      the instruction opcode
+     * @param instruction the decoded instruction
+     */
+    void record(BaseChip8 chip8, int PC, int opcode, Instruction instruction) {
+        int register = ExecutionTrace.NO_REGISTER;
+        int value = 0;
+        switch (instruction.getOpcodeType()) {
+            case OP_6XKK, OP_7XKK, OP_8XY0, OP_8XY1, OP_8XY2, OP_8XY3, OP_8XY4, OP_8XY5, OP_8XY6, OP_8XY7, OP_8XYE,
+                    OP_CXKK, OP_FX07, OP_FX0A, OP_FX65 -> {
+                register = instruction.getX();
+                value = chip8.state.getV(register);
+            }
+            case OP_DXYN -> {
+                register = 0xF;
+                value = chip8.state.getV(register);
+            }
+            case OP_ANNN, OP_FX1E, OP_FX29 -> {
+                register = ExecutionTrace.REGISTER_I;
+                value = chip8.state.getI();
+            }
+            default -> {
+                // no register changed
+            }
+        }
+        long packed = ExecutionTrace.pack(PC, opcode, register, value);
+        int ringIndex = (int) (records % ringRecords.length);
+        ringCycles[ringIndex] = cycle;
+        ringRecords[ringIndex] = packed;
+        if (channel != null) {
+            if (!mapped.hasRemaining()) {
+                mapNext();
+            }
+            mapped.putLong(cycle);
+            mapped.putLong(packed);
+        }
+        records += 1;
+        cycle += 1;
+    }
+
+    /**
+     * account for cycles skipped in an idle loop, which are not recorded
+     *
+     * @param cycles the skipped cycles
+     */
+    void skip(long cycles) {
+        cycle += cycles;
+    }
+
+    /**
+     * log the records of the in-memory ring, oldest first, followed by the instruction that failed
+     *
+     * @param chip8 the machine, stopped on the failed instruction
+     */
+    public void dumpRing(BaseChip8 chip8) {
+        List<String> ring = formatRing();
+        log.error("last {} executed instructions:", ring.size());
+        for (String line : ring) {
+            log.error(line);
+        }
+        log.error("failed instruction:");
+        log.error(ExecutionTrace.format(
+                cycle,
+                ExecutionTrace.pack(chip8.getPC(), chip8.getOpcode(), ExecutionTrace.NO_REGISTER, 0)
+        ));
+    }
+
+    /**
+     * format the records of the in-memory ring
+     *
+     * @return trace lines, oldest first
+     */
+    List<String> formatRing() {
+        long first = Math.max(0, records - ringRecords.length);
+        List<String> ring = new ArrayList<>((int) (records - first));
+        for (long record = first; record < records; record++) {
+            int ringIndex = (int) (record % ringRecords.length);
+            ring.add(ExecutionTrace.format(ringCycles[ringIndex], ringRecords[ringIndex]));
+        }
+        return ring;
+    }
+
+    /**
+     * write the number of records in the trace file header and release the file
+     *
+     * @throws ExecutionException if the trace file cannot be written
+     */
+    @Override
+    public void close() {
+        if (channel == null || !channel.isOpen()) {
+            return;
+        }
+        try (channel) {
+            channel.map(FileChannel.MapMode.READ_WRITE, ExecutionTrace.RECORD_COUNT_OFFSET, Long.BYTES)
+                    .putLong(records);
+            mapped.force();
+            try {
+                // drop the unused part of the last mapped region
+                channel.truncate(ExecutionTrace.HEADER_SIZE + (records * ExecutionTrace.RECORD_SIZE));
+            } catch (IOException e) {
+                log.debug("trace file '{}' not truncated: {}", path, e.getMessage());
+            }
+        } catch (IOException e) {
+            throw new ExecutionException(String.format("Cannot write trace file '%s'", path), e);
+        }
+        log.info("trace file '{}' written: {} records", path, records);
+    }
+
+    private void mapNext() {
+        try {
+            long size = (long) MAPPED_RECORDS * ExecutionTrace.RECORD_SIZE;
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, mappedPosition, size);
+            mapped.order(ByteOrder.BIG_ENDIAN);
+            mappedPosition += size;
+        } catch (IOException e) {
+            throw new ExecutionException(String.format("Cannot map trace file '%s'", path), e);
+        }
+    }
+}
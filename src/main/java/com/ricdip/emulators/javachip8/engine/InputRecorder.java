@@ -0,0 +1,115 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.InputException;
+import com.ricdip.emulators.javachip8.model.InputRecording;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * stream key events to an input recording file, see {@link InputRecording} for the format
+ */
+@Slf4j
+public class InputRecorder implements AutoCloseable {
+    private final Path path;
+    private final DataOutputStream output;
+    private long lastEventFrame;
+    private long events;
+    private boolean finished;
+
+    /**
+     * create the recording file and write its header
+     *
+     * @param path                  the recording file
+     * @param randomSeed            the random seed of the emulation
+     * @param romChecksum           the ROM CRC-32
+     * @param instructionsPerSecond instructions per second of the emulation
+     * @throws InputException if the file cannot be written
+     */
+    public InputRecorder(Path path, long randomSeed, int romChecksum, int instructionsPerSecond) {
+        this.path = path;
+        try {
+            output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+            output.writeInt(InputRecording.MAGIC);
+            output.writeShort(InputRecording.VERSION);
+            output.writeShort(0);
+            output.writeLong(randomSeed);
+            output.writeInt(romChecksum);
+            output.writeInt(instructionsPerSecond);
+        } catch (IOException e) {
+            throw new InputException(String.format("Cannot write input recording '%s'", path), e);
+        }
+        log.info("recording input to '{}'", path);
+    }
+
+    /**
+     * record a key event
+     *
+     * @param frame   number of frames emulated before the event
+     * @param key     the key
+     * @param pressed true for a key press, false for a key release
+     * @throws InputException if the file cannot be written
+     */
+    public void record(long frame, int key, boolean pressed) {
+        writeCode(frame, pressed ? InputRecording.PRESSED_FLAG | key : key);
+        events += 1;
+    }
+
+    /**
+     * write the end of the recording and close the file
+     *
+     * @param frames          number of emulated frames
+     * @param framebufferHash the final framebuffer hash
+     * @throws InputException if the file cannot be written
+     */
+    public void finish(long frames, long framebufferHash) {
+        writeCode(frames, InputRecording.END_CODE);
+        try {
+            output.writeLong(frames);
+            output.writeLong(framebufferHash);
+            output.close();
+        } catch (IOException e) {
+            throw new InputException(String.format("Cannot write input recording '%s'", path), e);
+        }
+        finished = true;
+        log.info("input recording '{}' written: {} events, {} frames", path, events, frames);
+    }
+
+    /**
+     * close the file. A recording not completed by {@link #finish(long, long)} is left truncated, and cannot be
+     * replayed.
+     *
+     * @throws InputException if the file cannot be written
+     */
+    @Override
+    public void close() {
+        if (finished) {
+            return;
+        }
+        try {
+            output.close();
+        } catch (IOException e) {
+            throw new InputException(String.format("Cannot write input recording '%s'", path), e);
+        }
+        log.warn("input recording '{}' not completed: {} events", path, events);
+    }
+
+    private void writeCode(long frame, int code) {
+        try {
+            long remaining = frame - lastEventFrame;
+            while (remaining >= 0x80) {
+                output.writeByte((int) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            output.writeByte((int) remaining);
+            output.writeByte(code);
+        } catch (IOException e) {
+            throw new InputException(String.format("Cannot write input recording '%s'", path), e);
+        }
+        lastEventFrame = frame;
+    }
+}
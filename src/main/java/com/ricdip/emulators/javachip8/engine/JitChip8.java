@@ -0,0 +1,210 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.Chip8Exception;
+import com.ricdip.emulators.javachip8.model.OpcodeType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * tiered CHIP-8 engine: blocks are executed by the block cache interpreter until they have been entered
+ * {@link #COMPILE_THRESHOLD} times, then they are compiled to JVM bytecode by {@link JitCompiler}.
+ * Compiled blocks are only used by {@link #emulateCycles(int)}, when the whole block fits in the requested cycles.
+ * Memory writes that overlap a compiled block deoptimize it back to the interpreter.
+ */
+@Slf4j
+public class JitChip8 extends BlockCacheChip8 {
+    /**
+     * number of block entries after which a block is compiled
+     */
+    public static final int COMPILE_THRESHOLD = 500;
+    /**
+     * execution counter value of blocks that failed compilation
+     */
+    private static final int NOT_COMPILABLE = -1;
+    /**
+     * compiled blocks indexed by start address
+     */
+    private final CompiledBlock[] compiledBlocks;
+    /**
+     * compiled blocks length (number of instructions) indexed by start address
+     */
+    private final int[] compiledBlockLengths;
+    /**
+     * block entries counters indexed by start address
+     */
+    private final int[] executionCounts;
+    /**
+     * compiled block executions not yet added to the opcode counters, indexed by start address
+     */
+    private final long[] compiledExecutionCounts;
+    /**
+     * {@link OpcodeType} ordinals of the instructions compiled to bytecode, indexed by block start address.
+     * Instructions delegated to the interpreter are counted by the interpreter.
+     */
+    private final int[][] compiledOpcodeTypes;
+    /**
+     * addresses of the instructions compiled to bytecode, indexed by block start address
+     */
+    private final int[][] compiledAddresses;
+    /**
+     * number of compiled blocks discarded because their memory was written
+     */
+    private long deoptimizations;
+
+    public JitChip8() {
+        compiledBlocks = new CompiledBlock[MEMORY_LENGTH];
+        compiledBlockLengths = new int[MEMORY_LENGTH];
+        executionCounts = new int[MEMORY_LENGTH];
+        compiledExecutionCounts = new long[MEMORY_LENGTH];
+        compiledOpcodeTypes = new int[MEMORY_LENGTH][];
+        compiledAddresses = new int[MEMORY_LENGTH][];
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        Arrays.fill(compiledBlocks, null);
+        Arrays.fill(compiledBlockLengths, 0);
+        Arrays.fill(executionCounts, 0);
+        Arrays.fill(compiledExecutionCounts, 0);
+        Arrays.fill(compiledOpcodeTypes, null);
+        Arrays.fill(compiledAddresses, null);
+        deoptimizations = 0;
+    }
+
+    @Override
+    protected void updateCounters() {
+        for (int address = 0; address < MEMORY_LENGTH; address++) {
+            addCompiledCounts(address);
+        }
+    }
+
+    @Override
+    public void emulateCycles(int cycles) {
+        if (tracer != null) {
+            // compiled blocks do not record their instructions: trace with the block cache interpreter
+            super.emulateCycles(cycles);
+            return;
+        }
+        int remaining = cycles;
+        while (remaining > 0) {
+            int PC = state.getPC();
+            int previousPC = PC;
+            if (isAtBlockStart() && PC < MEMORY_LENGTH) {
+                CompiledBlock compiledBlock = compiledBlocks[PC];
+                if (compiledBlock == null && executionCounts[PC] != NOT_COMPILABLE) {
+                    executionCounts[PC] += 1;
+                    if (executionCounts[PC] >= COMPILE_THRESHOLD) {
+                        compiledBlock = compileBlock(PC);
+                    }
+                }
+                if (compiledBlock != null && compiledBlockLengths[PC] <= remaining) {
+                    remaining -= compiledBlockLengths[PC];
+                    compiledExecutionCounts[PC] += 1;
+                    compiledBlock.execute(this);
+                } else {
+                    emulateCycle();
+                    remaining -= 1;
+                }
+            } else {
+                emulateCycle();
+                remaining -= 1;
+            }
+            // idle loops always jump backward or stay on the same instruction
+            if (state.getPC() <= previousPC) {
+                remaining -= skipIdleLoop(remaining);
+            }
+        }
+    }
+
+    @Override
+    protected void onMemoryWrite(int address, int length) {
+        super.onMemoryWrite(address, length);
+        int end = address + length;
+        int firstStart = Math.max(0, address - (MAX_BLOCK_LENGTH * 2) + 1);
+        for (int start = firstStart; start < end && start < MEMORY_LENGTH; start++) {
+            if (compiledBlocks[start] != null && address < start + (compiledBlockLengths[start] * 2)) {
+                addCompiledCounts(start);
+                compiledBlocks[start] = null;
+                compiledOpcodeTypes[start] = null;
+                compiledAddresses[start] = null;
+                compiledBlockLengths[start] = 0;
+                executionCounts[start] = 0;
+                deoptimizations += 1;
+                log.debug("compiled block at 0x{} deoptimized", Integer.toHexString(start));
+            }
+        }
+    }
+
+    /**
+     * count the compiled blocks in use
+     *
+     * @return number of compiled blocks
+     */
+    int getCompiledBlockCount() {
+        return (int) Arrays.stream(compiledBlocks).filter(Objects::nonNull).count();
+    }
+
+    /**
+     * get the number of compiled blocks discarded because their memory was written
+     *
+     * @return deoptimized blocks
+     */
+    long getDeoptimizations() {
+        return deoptimizations;
+    }
+
+    /**
+     * execute one instruction with the interpreter, called by compiled blocks
+     *
+     * @param blockOpcode the opcode to execute
+     */
+    void interpret(int blockOpcode) {
+        state.setOpcode(blockOpcode);
+        executeInstruction(Chip8OpcodeDecoder.decode(blockOpcode));
+    }
+
+    private void addCompiledCounts(int address) {
+        long executions = compiledExecutionCounts[address];
+        if (executions == 0) {
+            return;
+        }
+        for (int ordinal : compiledOpcodeTypes[address]) {
+            opcodeCounts[ordinal] += executions;
+        }
+        if (pcExecutions != null) {
+            for (int instructionAddress : compiledAddresses[address]) {
+                pcExecutions[instructionAddress] += executions;
+            }
+        }
+        compiledExecutionCounts[address] = 0;
+    }
+
+    private CompiledBlock compileBlock(int address) {
+        int[] opcodes = getBlockOpcodes(address);
+        try {
+            CompiledBlock compiledBlock = JitCompiler.compile(address, opcodes);
+            compiledBlocks[address] = compiledBlock;
+            compiledBlockLengths[address] = opcodes.length;
+            compiledOpcodeTypes[address] = Arrays
+                    .stream(opcodes)
+                    .map(blockOpcode -> Chip8OpcodeDecoder.decode(blockOpcode).getOpcodeType().ordinal())
+                    .filter(ordinal -> !JitCompiler.isInterpreted(OpcodeType.values()[ordinal]))
+                    .toArray();
+            compiledAddresses[address] = IntStream
+                    .range(0, opcodes.length)
+                    .filter(i -> !JitCompiler.isInterpreted(Chip8OpcodeDecoder.decode(opcodes[i]).getOpcodeType()))
+                    .map(i -> address + (i * 2))
+                    .toArray();
+            log.debug("block at 0x{} compiled: {} instructions", Integer.toHexString(address), opcodes.length);
+            return compiledBlock;
+        } catch (Chip8Exception e) {
+            log.warn("block at 0x{} not compiled: {}", Integer.toHexString(address), e.getMessage());
+            executionCounts[address] = NOT_COMPILABLE;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.Chip8Exception;
+import com.ricdip.emulators.javachip8.model.Instruction;
+import com.ricdip.emulators.javachip8.model.OpcodeType;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * compile CHIP-8 basic blocks to JVM bytecode, loaded as hidden classes implementing {@link CompiledBlock}.
+ * <p>
+ * The registers used by the block are kept in JVM locals and written back to the {@link MachineState} (<code>V</code>,
+ * <code>I</code> and <code>PC</code>) on block exit. Instructions that touch the display, the keyboard, the stack, the random generator
+ * or the memory are delegated to the interpreter, with registers written back before and reloaded after the call.
+ */
+final class JitCompiler {
+    private static final String BLOCK_CLASS_NAME = Type.getInternalName(JitChip8.class) + "$Block";
+    private static final String BASE_CHIP8 = Type.getInternalName(BaseChip8.class);
+    private static final String JIT_CHIP8 = Type.getInternalName(JitChip8.class);
+    private static final String MACHINE_STATE = Type.getInternalName(MachineState.class);
+    private static final String MACHINE_STATE_DESCRIPTOR = Type.getDescriptor(MachineState.class);
+    private static final String EXECUTE_DESCRIPTOR = Type.getMethodDescriptor(
+            Type.VOID_TYPE, Type.getType(JitChip8.class)
+    );
+    // JVM local variables layout of the execute method
+    private static final int LOCAL_CHIP8 = 1;
+    private static final int LOCAL_STATE = 2;
+    private static final int LOCAL_V0 = 3;
+    private static final int LOCAL_I = LOCAL_V0 + BaseChip8.V_LENGTH;
+    private static final int LOCAL_PC = LOCAL_I + 1;
+    private static final int LOCAL_TMP = LOCAL_PC + 1;
+
+    private JitCompiler() {
+        // NOOP
+    }
+
+    /**
+     * compile block of opcodes starting at address
+     *
+     * @param address block start address
+     * @param opcodes block opcodes, the last one may be a block terminator
+     * @return compiled block
+     * @throws Chip8Exception if block cannot be compiled or loaded
+     */
+    static CompiledBlock compile(int address, int[] opcodes) {
+        byte[] classBytes = generate(address, opcodes);
+        try {
+            MethodHandles.Lookup blockLookup = MethodHandles.lookup().defineHiddenClass(classBytes, true);
+            return (CompiledBlock) blockLookup
+                    .findConstructor(blockLookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable e) {
+            throw new Chip8Exception(String.format("Fail to compile block at 0x%03X: %s", address, e));
+        }
+    }
+
+    private static byte[] generate(int address, int[] opcodes) {
+        Instruction[] instructions = new Instruction[opcodes.length];
+        boolean[] usedRegisters = new boolean[BaseChip8.V_LENGTH];
+        boolean usedI = false;
+        for (int i = 0; i < opcodes.length; i++) {
+            instructions[i] = Chip8OpcodeDecoder.decode(opcodes[i]);
+            usedI |= markUsedRegisters(instructions[i], usedRegisters);
+        }
+
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(
+                V17,
+                ACC_FINAL | ACC_SUPER,
+                BLOCK_CLASS_NAME,
+                null,
+                Type.getInternalName(Object.class),
+                new String[]{Type.getInternalName(CompiledBlock.class)}
+        );
+
+        MethodVisitor constructor = classWriter.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor mv = classWriter.visitMethod(ACC_PUBLIC, "execute", EXECUTE_DESCRIPTOR, null, null);
+        mv.visitCode();
+        // load machine state and used registers into locals
+        mv.visitVarInsn(ALOAD, LOCAL_CHIP8);
+        mv.visitFieldInsn(GETFIELD, BASE_CHIP8, "state", MACHINE_STATE_DESCRIPTOR);
+        mv.visitVarInsn(ASTORE, LOCAL_STATE);
+        loadRegisters(mv, usedRegisters, usedI);
+
+        int instructionAddress = address;
+        boolean pcSetByInterpreter = false;
+        boolean pcInLocal = false;
+        for (int i = 0; i < instructions.length; i++) {
+            Instruction instruction = instructions[i];
+            if (isInterpreted(instruction.getOpcodeType())) {
+                storeRegisters(mv, usedRegisters, usedI);
+                mv.visitVarInsn(ALOAD, LOCAL_STATE);
+                pushInt(mv, instructionAddress);
+                generateStateCall(mv, "setPC", "(I)V");
+                mv.visitVarInsn(ALOAD, LOCAL_CHIP8);
+                pushInt(mv, opcodes[i]);
+                mv.visitMethodInsn(INVOKEVIRTUAL, JIT_CHIP8, "interpret", "(I)V", false);
+                loadRegisters(mv, usedRegisters, usedI);
+                pcSetByInterpreter = BlockCacheChip8.isBlockTerminator(instruction.getOpcodeType());
+            } else {
+                pcInLocal = generateInstruction(mv, instruction, instructionAddress);
+            }
+            instructionAddress += 2;
+        }
+
+        // write back registers, PC and last opcode
+        storeRegisters(mv, usedRegisters, usedI);
+        if (!pcSetByInterpreter) {
+            mv.visitVarInsn(ALOAD, LOCAL_STATE);
+            if (pcInLocal) {
+                mv.visitVarInsn(ILOAD, LOCAL_PC);
+            } else {
+                pushInt(mv, instructionAddress);
+            }
+            generateStateCall(mv, "setPC", "(I)V");
+        }
+        mv.visitVarInsn(ALOAD, LOCAL_STATE);
+        pushInt(mv, opcodes[opcodes.length - 1]);
+        generateStateCall(mv, "setOpcode", "(I)V");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * check if instruction is executed by calling the interpreter
+     *
+     * @param opcodeType the instruction opcode type
+     * @return true if instruction is not compiled to bytecode, false otherwise
+     */
+    static boolean isInterpreted(OpcodeType opcodeType) {
+        return switch (opcodeType) {
+            case OP_00E0, OP_00EE, OP_2NNN, OP_CXKK, OP_DXYN, OP_EX9E, OP_EXA1,
+                    OP_FX0A, OP_FX29, OP_FX33, OP_FX55, OP_FX65 -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean markUsedRegisters(Instruction instruction, boolean[] usedRegisters) {
+        OpcodeType opcodeType = instruction.getOpcodeType();
+        if (isInterpreted(opcodeType)) {
+            return false;
+        }
+        switch (opcodeType) {
+            case OP_3XKK, OP_4XKK, OP_6XKK, OP_7XKK, OP_FX07, OP_FX15, OP_FX18 -> usedRegisters[instruction.getX()] = true;
+            case OP_5XY0, OP_9XY0, OP_8XY0, OP_8XY1, OP_8XY2, OP_8XY3 -> {
+                usedRegisters[instruction.getX()] = true;
+                usedRegisters[instruction.getY()] = true;
+            }
+            case OP_8XY4, OP_8XY5, OP_8XY6, OP_8XY7, OP_8XYE -> {
+                usedRegisters[instruction.getX()] = true;
+                usedRegisters[instruction.getY()] = true;
+                usedRegisters[0xF] = true;
+            }
+            case OP_BNNN -> usedRegisters[0x0] = true;
+            case OP_ANNN -> {
+                return true;
+            }
+            case OP_FX1E -> {
+                usedRegisters[instruction.getX()] = true;
+                usedRegisters[0xF] = true;
+                return true;
+            }
+            default -> {
+                // no registers used
+            }
+        }
+        return false;
+    }
+
+    /**
+     * generate bytecode for instruction
+     *
+     * @return true if the instruction computed the next PC into the PC local, false otherwise
+     */
+    private static boolean generateInstruction(MethodVisitor mv, Instruction instruction, int address) {
+        int vx = LOCAL_V0 + instruction.getX();
+        int vy = LOCAL_V0 + instruction.getY();
+        int vf = LOCAL_V0 + 0xF;
+        int kk = instruction.getKK();
+        int nnn = instruction.getNNN();
+
+        switch (instruction.getOpcodeType()) {
+            case OP_0NNN -> {
+                // ignore legacy instruction
+            }
+            case OP_1NNN -> {
+                pushInt(mv, nnn);
+                mv.visitVarInsn(ISTORE, LOCAL_PC);
+                return true;
+            }
+            case OP_3XKK -> {
+                mv.visitVarInsn(ILOAD, vx);
+                pushInt(mv, kk);
+                generateSkip(mv, IF_ICMPNE, address);
+                return true;
+            }
+            case OP_4XKK -> {
+                mv.visitVarInsn(ILOAD, vx);
+                pushInt(mv, kk);
+                generateSkip(mv, IF_ICMPEQ, address);
+                return true;
+            }
+            case OP_5XY0 -> {
+                mv.visitVarInsn(ILOAD, vx);
+                mv.visitVarInsn(ILOAD, vy);
+                generateSkip(mv, IF_ICMPNE, address);
+                return true;
+            }
+            case OP_9XY0 -> {
+                mv.visitVarInsn(ILOAD, vx);
+                mv.visitVarInsn(ILOAD, vy);
+                generateSkip(mv, IF_ICMPEQ, address);
+                return true;
+            }
+            case OP_6XKK -> {
+                pushInt(mv, kk);
+                mv.visitVarInsn(ISTORE, vx);
+            }
+            case OP_7XKK -> {
+                mv.visitVarInsn(ILOAD, vx);
+                pushInt(mv, kk);
+                mv.visitInsn(IADD);
+                mv.visitVarInsn(ISTORE, LOCAL_TMP);
+                Label noOverflow = new Label();
+                Label end = new Label();
+                mv.visitVarInsn(ILOAD, LOCAL_TMP);
+                pushInt(mv, 0xFF + 1);
+                mv.visitJumpInsn(IF_ICMPLT, noOverflow);
+                mv.visitVarInsn(ILOAD, LOCAL_TMP);
+                pushInt(mv, 0xFF + 1);
+                mv.visitInsn(ISUB);
+                mv.visitVarInsn(ISTORE, vx);
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(noOverflow);
+                mv.visitVarInsn(ILOAD, LOCAL_TMP);
+                mv.visitVarInsn(ISTORE, vx);
+                mv.visitLabel(end);
+            }
+            case OP_8XY0 -> {
+                mv.visitVarInsn(ILOAD, vy);
+                mv.visitVarInsn(ISTORE, vx);
+            }
+            case OP_8XY1 -> generateBinaryOperation(mv, IOR, vx, vy);
+            case OP_8XY2 -> generateBinaryOperation(mv, IAND, vx, vy);
+            case OP_8XY3 -> generateBinaryOperation(mv, IXOR, vx, vy);
+            case OP_8XY4 -> {
+                mv.visitVarInsn(ILOAD, vx);
+                mv.visitVarInsn(ILOAD, vy);
+                mv.visitInsn(IADD);
+                mv.visitVarInsn(ISTORE, LOCAL_TMP);
+                Label noCarry = new Label();
+                Label end = new Label();
+                mv.visitVarInsn(ILOAD, LOCAL_TMP);
+                pushInt(mv, 0xFF + 1);
+                mv.visitJumpInsn(IF_ICMPLT, noCarry);
+                pushInt(mv, 1);
+                mv.visitVarInsn(ISTORE, vf);
+                mv.visitVarInsn(ILOAD, LOCAL_TMP);
+                pushInt(mv, 0xFF + 1);
+                mv.visitInsn(ISUB);
+                mv.visitVarInsn(ISTORE, vx);
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(noCarry);
+                pushInt(mv, 0);
+                mv.visitVarInsn(ISTORE, vf);
+                mv.visitVarInsn(ILOAD, LOCAL_TMP);
+                mv.visitVarInsn(ISTORE, vx);
+                mv.visitLabel(end);
+            }
+            case OP_8XY5 -> {
+                // if VX > VY: VF = 1, VX = VX - VY; else: VF = 0, VX = VY - VX
+                Label borrow = new Label();
+                Label end = new Label();
+                mv.visitVarInsn(ILOAD, vx);
+                mv.visitVarInsn(ILOAD, vy);
+                mv.visitJumpInsn(IF_ICMPLE, borrow);
+                pushInt(mv, 1);
+                mv.visitVarInsn(ISTORE, vf);
+                generateSubtraction(mv, vx, vx, vy);
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(borrow);
+                pushInt(mv, 0);
+                mv.visitVarInsn(ISTORE, vf);
+                generateSubtraction(mv, vx, vy, vx);
+                mv.visitLabel(end);
+            }
+            case OP_8XY6 -> {
+                mv.visitVarInsn(ILOAD, vx);
+                pushInt(mv, 0x01);
+                mv.visitInsn(IAND);
+                mv.visitVarInsn(ISTORE, vf);
+                mv.visitVarInsn(ILOAD, vx);
+                pushInt(mv, 1);
+                mv.visitInsn(IUSHR);
+                mv.visitVarInsn(ISTORE, vx);
+            }
+            case OP_8XY7 -> {
+                // if VY > VX: VF = 1, VX = VY - VX; else: VF = 0, VX = VX - VY
+                Label borrow = new Label();
+                Label end = new Label();
+                mv.visitVarInsn(ILOAD, vy);
+                mv.visitVarInsn(ILOAD, vx);
+                mv.visitJumpInsn(IF_ICMPLE, borrow);
+                pushInt(mv, 1);
+                mv.visitVarInsn(ISTORE, vf);
+                generateSubtraction(mv, vx, vy, vx);
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(borrow);
+                pushInt(mv, 0);
+                mv.visitVarInsn(ISTORE, vf);
+                generateSubtraction(mv, vx, vx, vy);
+                mv.visitLabel(end);
+            }
+            case OP_8XYE -> {
+                mv.visitVarInsn(ILOAD, vx);
+                pushInt(mv, 7);
+                mv.visitInsn(IUSHR);
+                pushInt(mv, 0x01);
+                mv.visitInsn(IAND);
+                mv.visitVarInsn(ISTORE, vf);
+                mv.visitVarInsn(ILOAD, vx);
+                pushInt(mv, 1);
+                mv.visitInsn(ISHL);
+                pushInt(mv, 0xFF);
+                mv.visitInsn(IAND);
+                mv.visitVarInsn(ISTORE, vx);
+            }
+            case OP_ANNN -> {
+                pushInt(mv, nnn);
+                mv.visitVarInsn(ISTORE, LOCAL_I);
+            }
+            case OP_BNNN -> {
+                pushInt(mv, nnn);
+                mv.visitVarInsn(ILOAD, LOCAL_V0);
+                mv.visitInsn(IADD);
+                mv.visitVarInsn(ISTORE, LOCAL_PC);
+                return true;
+            }
+            case OP_FX07 -> {
+                mv.visitVarInsn(ALOAD, LOCAL_STATE);
+                generateStateCall(mv, "getDelayTimer", "()I");
+                mv.visitVarInsn(ISTORE, vx);
+            }
+            case OP_FX15 -> {
+                mv.visitVarInsn(ALOAD, LOCAL_STATE);
+                mv.visitVarInsn(ILOAD, vx);
+                generateStateCall(mv, "setDelayTimer", "(I)V");
+            }
+            case OP_FX18 -> {
+                mv.visitVarInsn(ALOAD, LOCAL_STATE);
+                mv.visitVarInsn(ILOAD, vx);
+                generateStateCall(mv, "setSoundTimer", "(I)V");
+            }
+            case OP_FX1E -> {
+                mv.visitVarInsn(ILOAD, LOCAL_I);
+                mv.visitVarInsn(ILOAD, vx);
+                mv.visitInsn(IADD);
+                mv.visitVarInsn(ISTORE, LOCAL_TMP);
+                Label noOverflow = new Label();
+                Label end = new Label();
+                mv.visitVarInsn(ILOAD, LOCAL_TMP);
+                pushInt(mv, 0xFFF + 1);
+                mv.visitJumpInsn(IF_ICMPLT, noOverflow);
+                pushInt(mv, 1);
+                mv.visitVarInsn(ISTORE, vf);
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(noOverflow);
+                pushInt(mv, 0);
+                mv.visitVarInsn(ISTORE, vf);
+                mv.visitLabel(end);
+                mv.visitVarInsn(ILOAD, LOCAL_TMP);
+                mv.visitVarInsn(ISTORE, LOCAL_I);
+            }
+            default -> throw new Chip8Exception(
+                    String.format("Fail to compile opcode %s: not supported", instruction.getOpcodeType().getType())
+            );
+        }
+        return false;
+    }
+
+    /**
+     * generate a conditional skip: the two operands are on the stack, next PC is <code>address + 2</code> if
+     * <code>noSkipJump</code> condition holds, <code>address + 4</code> otherwise
+     */
+    private static void generateSkip(MethodVisitor mv, int noSkipJump, int address) {
+        Label noSkip = new Label();
+        Label end = new Label();
+        mv.visitJumpInsn(noSkipJump, noSkip);
+        pushInt(mv, address + 4);
+        mv.visitVarInsn(ISTORE, LOCAL_PC);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(noSkip);
+        pushInt(mv, address + 2);
+        mv.visitVarInsn(ISTORE, LOCAL_PC);
+        mv.visitLabel(end);
+    }
+
+    private static void generateBinaryOperation(MethodVisitor mv, int operation, int vx, int vy) {
+        mv.visitVarInsn(ILOAD, vx);
+        mv.visitVarInsn(ILOAD, vy);
+        mv.visitInsn(operation);
+        mv.visitVarInsn(ISTORE, vx);
+    }
+
+    /**
+     * generate <code>target = (minuend - subtrahend) &amp; 0xFF</code>: when VF is an operand, it has already been
+     * overwritten and the difference can be negative, registers keep the low 8 bits as in the machine state
+     */
+    private static void generateSubtraction(MethodVisitor mv, int target, int minuend, int subtrahend) {
+        mv.visitVarInsn(ILOAD, minuend);
+        mv.visitVarInsn(ILOAD, subtrahend);
+        mv.visitInsn(ISUB);
+        pushInt(mv, 0xFF);
+        mv.visitInsn(IAND);
+        mv.visitVarInsn(ISTORE, target);
+    }
+
+    private static void generateStateCall(MethodVisitor mv, String name, String descriptor) {
+        mv.visitMethodInsn(INVOKEVIRTUAL, MACHINE_STATE, name, descriptor, false);
+    }
+
+    private static void loadRegisters(MethodVisitor mv, boolean[] usedRegisters, boolean usedI) {
+        for (int register = 0; register < usedRegisters.length; register++) {
+            if (usedRegisters[register]) {
+                mv.visitVarInsn(ALOAD, LOCAL_STATE);
+                pushInt(mv, register);
+                generateStateCall(mv, "getV", "(I)I");
+                mv.visitVarInsn(ISTORE, LOCAL_V0 + register);
+            }
+        }
+        if (usedI) {
+            mv.visitVarInsn(ALOAD, LOCAL_STATE);
+            generateStateCall(mv, "getI", "()I");
+            mv.visitVarInsn(ISTORE, LOCAL_I);
+        }
+    }
+
+    private static void storeRegisters(MethodVisitor mv, boolean[] usedRegisters, boolean usedI) {
+        for (int register = 0; register < usedRegisters.length; register++) {
+            if (usedRegisters[register]) {
+                mv.visitVarInsn(ALOAD, LOCAL_STATE);
+                pushInt(mv, register);
+                mv.visitVarInsn(ILOAD, LOCAL_V0 + register);
+                generateStateCall(mv, "setV", "(II)V");
+            }
+        }
+        if (usedI) {
+            mv.visitVarInsn(ALOAD, LOCAL_STATE);
+            mv.visitVarInsn(ILOAD, LOCAL_I);
+            generateStateCall(mv, "setI", "(I)V");
+        }
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+}
@@ -2,13 +2,21 @@ package com.ricdip.emulators.javachip8.engine;
 
 import com.ricdip.emulators.javachip8.exception.KeyboardException;
 
-import java.util.Arrays;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * CHIP-8 keyboard, written by the input thread and read by the emulation thread. The state is kept in atomically
+ * updated bit masks, so that no lock is needed and every change is visible to the emulation thread.
+ */
 public class Keyboard {
     public static final int KEYBOARD_LENGTH = 16;
     /**
-     * 16-key keypad implementation using an array of booleans.
+     * value returned when no key is pressed
+     */
+    public static final int NO_KEY = -1;
+    /**
+     * 16-key keypad implementation using a bit mask.
      * The CHIP-8 keyboard has the following layout:
      * <pre>
      * |1|2|3|C|
@@ -16,19 +24,35 @@ public class Keyboard {
      * |7|8|9|E|
      * |A|0|B|F|
      * </pre>
-     * Where each position denotes a specific key (example: position 15 -> 0xF is key F)
+     * Where each bit denotes a specific key (example: bit 15 -> 0xF is key F): if the bit is set, the key is pressed
+     */
+    private final AtomicInteger keys;
+    /**
+     * keys pressed while the latch is armed, so that a key pressed and released between two checks of a key wait
+     * (FX0A) is not lost
+     */
+    private final AtomicInteger latchedKeys;
+    /**
+     * true while the emulation thread waits for a key press
+     */
+    private volatile boolean latchArmed;
+    /**
+     * thread parked in {@link #awaitKeyPress(long)}, null if none
      */
-    private final boolean[] keys;
+    private volatile Thread waiter;
 
     public Keyboard() {
-        keys = new boolean[KEYBOARD_LENGTH];
+        keys = new AtomicInteger();
+        latchedKeys = new AtomicInteger();
     }
 
     /**
-     * reset the keyboard by setting every element to false
+     * reset the keyboard by releasing every key
      */
     public void reset() {
-        Arrays.fill(keys, false);
+        keys.set(0);
+        latchedKeys.set(0);
+        latchArmed = false;
     }
 
     /**
@@ -39,21 +63,81 @@ public class Keyboard {
      */
     public boolean isPressed(int key) {
         checkIllegalKeyError(key);
-        return keys[key];
+        return (keys.get() & (1 << key)) != 0;
     }
 
     /**
      * get pressed key from keyboard
      *
-     * @return Optional describing the pressed key, <code>Optional.empty()</code> otherwise
+     * @return the lowest pressed key, <code>NO_KEY</code> otherwise
+     */
+    public int getPressedKey() {
+        return lowestKey(keys.get());
+    }
+
+    /**
+     * take a key press for a key wait (FX0A). If no key is pressed, the latch is armed: keys pressed from now on are
+     * returned by the next calls even if they have already been released.
+     *
+     * @return the lowest pressed or latched key, <code>NO_KEY</code> otherwise
+     */
+    public int takeKeyPress() {
+        if (!latchArmed) {
+            // a new wait starts: forget the keys latched by previous waits
+            latchedKeys.set(0);
+            latchArmed = true;
+        }
+        int key = lowestKey(keys.get() | latchedKeys.getAndSet(0));
+        if (key != NO_KEY) {
+            latchArmed = false;
+        }
+        return key;
+    }
+
+    /**
+     * check if a key wait (FX0A) would get a key press
+     *
+     * @return true if a key is pressed or latched, false otherwise
+     */
+    public boolean hasKeyPress() {
+        return (keys.get() | (latchArmed ? latchedKeys.get() : 0)) != 0;
+    }
+
+    /**
+     * park the calling thread until a key is pressed
+     *
+     * @param timeoutNanos maximum waiting time in nanoseconds
+     * @return true if a key is pressed or latched, false if the timeout elapsed first
      */
-    public Optional<Integer> getPressedKey() {
-        for (int i = 0; i < KEYBOARD_LENGTH; i++) {
-            if (keys[i]) {
-                return Optional.of(i);
+    public boolean awaitKeyPress(long timeoutNanos) {
+        waiter = Thread.currentThread();
+        try {
+            // a key pressed after this check unparks the thread, so that the press cannot be missed
+            if (!hasKeyPress()) {
+                LockSupport.parkNanos(this, timeoutNanos);
             }
+            return hasKeyPress();
+        } finally {
+            waiter = null;
         }
-        return Optional.empty();
+    }
+
+    /**
+     * get all pressed keys
+     *
+     * @return bit mask of the pressed keys: bit N is set if key N is pressed
+     */
+    public int getPressedKeys() {
+        return keys.get();
+    }
+
+    /**
+     * forget the keys latched for a key wait (FX0A), keeping the pressed keys. Called when the machine state is
+     * replaced: presses latched for the previous state must not end a key wait of the new one.
+     */
+    public void clearLatchedKeys() {
+        latchedKeys.set(0);
+        latchArmed = false;
     }
 
     /**
@@ -64,7 +148,15 @@ public class Keyboard {
      */
     public void setKeyPressed(int key) {
         checkIllegalKeyError(key);
-        keys[key] = true;
+        int keyBit = 1 << key;
+        keys.getAndAccumulate(keyBit, (pressedKeys, bit) -> pressedKeys | bit);
+        if (latchArmed) {
+            latchedKeys.getAndAccumulate(keyBit, (pressedKeys, bit) -> pressedKeys | bit);
+        }
+        Thread waitingThread = waiter;
+        if (waitingThread != null) {
+            LockSupport.unpark(waitingThread);
+        }
     }
 
     /**
@@ -75,7 +167,12 @@ public class Keyboard {
      */
     public void setKeyReleased(int key) {
         checkIllegalKeyError(key);
-        keys[key] = false;
+        int keyBit = 1 << key;
+        keys.getAndAccumulate(keyBit, (pressedKeys, bit) -> pressedKeys & ~bit);
+    }
+
+    private static int lowestKey(int pressedKeys) {
+        return pressedKeys != 0 ? Integer.numberOfTrailingZeros(pressedKeys) : NO_KEY;
     }
 
     private void checkIllegalKeyError(int value) {
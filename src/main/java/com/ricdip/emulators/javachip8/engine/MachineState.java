@@ -0,0 +1,249 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * CHIP-8 machine state packed in one contiguous byte array with a fixed layout. Values are stored with their CHIP-8
+ * width (8-bit RAM and registers, 16-bit addresses), big-endian:
+ * <pre>
+ * | offset | size | content                                                |
+ * | 0x0000 | 4096 | memory                                                 |
+ * | 0x1000 |   16 | V0 - VF                                                |
+ * | 0x1010 |   32 | stack: 16 16-bit values                                |
+ * | 0x1030 |    2 | I                                                      |
+ * | 0x1032 |    2 | PC                                                     |
+ * | 0x1034 |    1 | SP                                                     |
+ * | 0x1035 |    1 | delay timer                                            |
+ * | 0x1036 |    1 | sound timer                                            |
+ * | 0x1037 |    1 | flags: bit 0 is the draw flag                          |
+ * | 0x1038 |    2 | opcode                                                 |
+ * | 0x103A |    2 | pressed keys at save time (bit N: key N), not loaded   |
+ * | 0x103C |    4 | reserved                                               |
+ * | 0x1040 |    8 | random number generator state                          |
+ * | 0x1048 |  184 | reserved                                               |
+ * | 0x1100 |  256 | display: 32 rows of 8 bytes, MSB is the leftmost pixel |
+ * </pre>
+ * The whole state is 4608 bytes, about a quarter of the same state kept in <code>int</code> arrays. It is both the
+ * working storage of a machine (see {@link BaseChip8}) and the format of its snapshots: saving and restoring a machine
+ * are bulk copies between two states ({@link #copyFrom(MachineState)}, {@link #getBytes(byte[])},
+ * {@link #setBytes(byte[])}). The pressed keys are only written in snapshots.
+ * <p>
+ * Setters store the low bits of the value only: engines keep registers in 8 bits, so that a restored state is the
+ * state that was saved.
+ */
+public final class MachineState {
+    public static final int MEMORY_OFFSET = 0x0000;
+    public static final int V_OFFSET = 0x1000;
+    public static final int STACK_OFFSET = 0x1010;
+    public static final int I_OFFSET = 0x1030;
+    public static final int PC_OFFSET = 0x1032;
+    public static final int SP_OFFSET = 0x1034;
+    public static final int DELAY_TIMER_OFFSET = 0x1035;
+    public static final int SOUND_TIMER_OFFSET = 0x1036;
+    public static final int FLAGS_OFFSET = 0x1037;
+    public static final int OPCODE_OFFSET = 0x1038;
+    public static final int KEYS_OFFSET = 0x103A;
+    public static final int RANDOM_OFFSET = 0x1040;
+    public static final int DISPLAY_OFFSET = 0x1100;
+    /**
+     * machine state size in bytes
+     */
+    public static final int STATE_SIZE = DISPLAY_OFFSET + (Display.DISPLAY_HEIGHT * Long.BYTES);
+    private static final int DRAW_FLAG = 0x01;
+    /**
+     * big-endian 16-bit and 64-bit views of the state bytes
+     */
+    private static final VarHandle SHORT_VIEW = MethodHandles.byteArrayViewVarHandle(
+            short[].class,
+            ByteOrder.BIG_ENDIAN
+    );
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private final byte[] bytes;
+
+    private MachineState() {
+        bytes = new byte[STATE_SIZE];
+    }
+
+    /**
+     * allocate a machine state
+     *
+     * @return zeroed machine state
+     */
+    public static MachineState allocate() {
+        return new MachineState();
+    }
+
+    /**
+     * copy another machine state into this one
+     *
+     * @param other the machine state to copy
+     */
+    public void copyFrom(MachineState other) {
+        System.arraycopy(other.bytes, 0, bytes, 0, STATE_SIZE);
+    }
+
+    /**
+     * set every byte of the state to 0
+     */
+    public void clear() {
+        Arrays.fill(bytes, (byte) 0);
+    }
+
+    /**
+     * copy the whole state to an array
+     *
+     * @param destination destination array, at least {@link #STATE_SIZE} bytes long
+     */
+    public void getBytes(byte[] destination) {
+        System.arraycopy(bytes, 0, destination, 0, STATE_SIZE);
+    }
+
+    /**
+     * copy the whole state from an array
+     *
+     * @param source source array, at least {@link #STATE_SIZE} bytes long
+     */
+    public void setBytes(byte[] source) {
+        System.arraycopy(source, 0, bytes, 0, STATE_SIZE);
+    }
+
+    /**
+     * read a memory location
+     *
+     * @param address the memory address
+     * @return the 8-bit value
+     * @throws IndexOutOfBoundsException if address is outside the memory
+     */
+    public int getMemory(int address) {
+        return Byte.toUnsignedInt(bytes[MEMORY_OFFSET + Objects.checkIndex(address, BaseChip8.MEMORY_LENGTH)]);
+    }
+
+    /**
+     * write a memory location
+     *
+     * @param address the memory address
+     * @param value   the value, only the low 8 bits are stored
+     * @throws IndexOutOfBoundsException if address is outside the memory
+     */
+    public void setMemory(int address, int value) {
+        bytes[MEMORY_OFFSET + Objects.checkIndex(address, BaseChip8.MEMORY_LENGTH)] = (byte) value;
+    }
+
+    /**
+     * write consecutive memory locations
+     *
+     * @param address first memory address
+     * @param source  source array
+     * @param offset  first byte to copy from the array
+     * @param length  number of bytes to copy
+     * @throws IndexOutOfBoundsException if the range is outside the memory or the array
+     */
+    public void setMemory(int address, byte[] source, int offset, int length) {
+        Objects.checkFromIndexSize(address, length, BaseChip8.MEMORY_LENGTH);
+        System.arraycopy(source, offset, bytes, MEMORY_OFFSET + address, length);
+    }
+
+    public int getV(int register) {
+        return Byte.toUnsignedInt(bytes[V_OFFSET + register]);
+    }
+
+    public void setV(int register, int value) {
+        bytes[V_OFFSET + register] = (byte) value;
+    }
+
+    public int getStack(int level) {
+        return Short.toUnsignedInt((short) SHORT_VIEW.get(bytes, STACK_OFFSET + (level * Short.BYTES)));
+    }
+
+    public void setStack(int level, int address) {
+        SHORT_VIEW.set(bytes, STACK_OFFSET + (level * Short.BYTES), (short) address);
+    }
+
+    public int getI() {
+        return Short.toUnsignedInt((short) SHORT_VIEW.get(bytes, I_OFFSET));
+    }
+
+    public void setI(int address) {
+        SHORT_VIEW.set(bytes, I_OFFSET, (short) address);
+    }
+
+    public int getPC() {
+        return Short.toUnsignedInt((short) SHORT_VIEW.get(bytes, PC_OFFSET));
+    }
+
+    public void setPC(int address) {
+        SHORT_VIEW.set(bytes, PC_OFFSET, (short) address);
+    }
+
+    public int getSP() {
+        return Byte.toUnsignedInt(bytes[SP_OFFSET]);
+    }
+
+    public void setSP(int level) {
+        bytes[SP_OFFSET] = (byte) level;
+    }
+
+    public int getDelayTimer() {
+        return Byte.toUnsignedInt(bytes[DELAY_TIMER_OFFSET]);
+    }
+
+    public void setDelayTimer(int value) {
+        bytes[DELAY_TIMER_OFFSET] = (byte) value;
+    }
+
+    public int getSoundTimer() {
+        return Byte.toUnsignedInt(bytes[SOUND_TIMER_OFFSET]);
+    }
+
+    public void setSoundTimer(int value) {
+        bytes[SOUND_TIMER_OFFSET] = (byte) value;
+    }
+
+    public boolean isDrawFlag() {
+        return (bytes[FLAGS_OFFSET] & DRAW_FLAG) != 0;
+    }
+
+    public void setDrawFlag(boolean drawFlag) {
+        bytes[FLAGS_OFFSET] = (byte) (drawFlag ? DRAW_FLAG : 0);
+    }
+
+    public int getOpcode() {
+        return Short.toUnsignedInt((short) SHORT_VIEW.get(bytes, OPCODE_OFFSET));
+    }
+
+    public void setOpcode(int opcode) {
+        SHORT_VIEW.set(bytes, OPCODE_OFFSET, (short) opcode);
+    }
+
+    public int getPressedKeys() {
+        return Short.toUnsignedInt((short) SHORT_VIEW.get(bytes, KEYS_OFFSET));
+    }
+
+    public void setPressedKeys(int pressedKeys) {
+        SHORT_VIEW.set(bytes, KEYS_OFFSET, (short) pressedKeys);
+    }
+
+    public long getRandomState() {
+        return (long) LONG_VIEW.get(bytes, RANDOM_OFFSET);
+    }
+
+    public void setRandomState(long randomState) {
+        LONG_VIEW.set(bytes, RANDOM_OFFSET, randomState);
+    }
+
+    public long getDisplayRow(int row) {
+        return (long) LONG_VIEW.get(bytes, displayRowOffset(row));
+    }
+
+    public void setDisplayRow(int row, long bits) {
+        LONG_VIEW.set(bytes, displayRowOffset(row), bits);
+    }
+
+    private static int displayRowOffset(int row) {
+        return DISPLAY_OFFSET + (Objects.checkIndex(row, Display.DISPLAY_HEIGHT) * Long.BYTES);
+    }
+}
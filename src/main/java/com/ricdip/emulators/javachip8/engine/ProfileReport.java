@@ -0,0 +1,136 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.ExecutionException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * write the profiler counters of a machine as a text report: ranked hotspots, subroutine calls and a coverage map of
+ * the ROM, each address annotated with the opcode currently in memory and its decoded type
+ */
+@Slf4j
+public final class ProfileReport {
+    /**
+     * number of addresses listed in the hotspots section
+     */
+    public static final int HOTSPOTS = 32;
+
+    private ProfileReport() {
+        // NOOP
+    }
+
+    /**
+     * write the profile report
+     *
+     * @param chip8   the profiled machine, with the profiler enabled
+     * @param romName the ROM name
+     * @param romSize the ROM size, in bytes
+     * @param path    the report file
+     * @throws ExecutionException if the report cannot be written
+     */
+    public static void write(Chip8 chip8, String romName, int romSize, Path path) {
+        long[] executions = chip8.getPcExecutions();
+        long[] calls = chip8.getSubroutineCalls();
+        MachineState state = chip8.getState();
+        long total = 0;
+        int executed = 0;
+        for (long count : executions) {
+            total += count;
+            executed += count > 0 ? 1 : 0;
+        }
+        int romEnd = BaseChip8.PC_INIT_VALUE + romSize;
+        try (PrintWriter report = new PrintWriter(Files.newBufferedWriter(path))) {
+            report.printf(
+                    "PC profile of '%s': %d instructions (%d skipped in idle loops), %d addresses executed%n",
+                    romName,
+                    total,
+                    chip8.getIdleCycles(),
+                    executed
+            );
+
+            report.printf(
+                    "%nHotspots:%n%4s  %-7s %-6s %-4s %14s %8s%n",
+                    "rank",
+                    "address",
+                    "opcode",
+                    "type",
+                    "executions",
+                    "share"
+            );
+            int[] hotspots = IntStream
+                    .range(0, BaseChip8.MEMORY_LENGTH)
+                    .filter(address -> executions[address] > 0)
+                    .boxed()
+                    .sorted(Comparator.comparingLong((Integer address) -> executions[address]).reversed())
+                    .limit(HOTSPOTS)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            for (int rank = 0; rank < hotspots.length; rank++) {
+                int address = hotspots[rank];
+                report.printf(
+                        "%4d  0x%03X   %s %14d %7.2f%%%n",
+                        rank + 1,
+                        address,
+                        describe(state, address),
+                        executions[address],
+                        executions[address] * 100.0 / total
+                );
+            }
+
+            report.printf("%nSubroutine calls:%n%-7s %14s%n", "address", "calls");
+            for (int address = 0; address < BaseChip8.MEMORY_LENGTH; address++) {
+                if (calls[address] > 0) {
+                    report.printf("0x%03X   %14d%n", address, calls[address]);
+                }
+            }
+
+            int romInstructions = (romSize + 1) / 2;
+            int romExecuted = 0;
+            for (int address = BaseChip8.PC_INIT_VALUE; address < romEnd; address += 2) {
+                romExecuted += executions[address] > 0 ? 1 : 0;
+            }
+            report.printf(
+                    "%nCoverage: %d of %d ROM instruction addresses executed%n%-7s %-6s %-4s %14s%n",
+                    romExecuted,
+                    romInstructions,
+                    "address",
+                    "opcode",
+                    "type",
+                    "executions"
+            );
+            for (int address = 0; address < BaseChip8.MEMORY_LENGTH; address++) {
+                boolean romInstruction = address >= BaseChip8.PC_INIT_VALUE
+                        && address < romEnd
+                        && (address - BaseChip8.PC_INIT_VALUE) % 2 == 0;
+                if (executions[address] > 0 || romInstruction) {
+                    report.printf(
+                            "0x%03X   %s %14s%n",
+                            address,
+                            describe(state, address),
+                            executions[address] > 0 ? Long.toString(executions[address]) : "-"
+                    );
+                }
+            }
+        } catch (IOException e) {
+            throw new ExecutionException(String.format("Cannot write profile report '%s'", path), e);
+        }
+        log.info("profile report written to '{}'", path);
+    }
+
+    private static String describe(MachineState state, int address) {
+        if (address + 1 >= BaseChip8.MEMORY_LENGTH) {
+            return String.format("%-6s %-4s", "-", "-");
+        }
+        int opcode = Chip8OpcodeFetcher.fetch(state, address);
+        String type = Chip8OpcodeDecoder.isKnown(opcode)
+                ? Chip8OpcodeDecoder.decode(opcode).getOpcodeType().getType()
+                : "????";
+        return String.format("0x%04X %-4s", opcode, type);
+    }
+}
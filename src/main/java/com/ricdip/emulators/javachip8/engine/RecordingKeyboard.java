@@ -0,0 +1,48 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * keyboard that queues the key events of the input thread, so that the emulation thread applies them to the machine
+ * keyboard only at frame boundaries, where they can be recorded and replayed exactly
+ */
+public class RecordingKeyboard extends Keyboard {
+    /**
+     * queued events: key, plus 0x10 for key presses
+     */
+    private final Queue<Integer> events = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void setKeyPressed(int key) {
+        super.setKeyPressed(key);
+        events.add(0x10 | key);
+    }
+
+    @Override
+    public void setKeyReleased(int key) {
+        super.setKeyReleased(key);
+        events.add(key);
+    }
+
+    /**
+     * apply the queued events to the machine keyboard and record them
+     *
+     * @param keyboard the machine keyboard
+     * @param frame    number of frames emulated so far
+     * @param recorder the input recorder
+     */
+    public void applyEvents(Keyboard keyboard, long frame, InputRecorder recorder) {
+        Integer event;
+        while ((event = events.poll()) != null) {
+            int key = event & 0x0F;
+            boolean pressed = (event & 0x10) != 0;
+            if (pressed) {
+                keyboard.setKeyPressed(key);
+            } else {
+                keyboard.setKeyReleased(key);
+            }
+            recorder.record(frame, key, pressed);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import java.util.Arrays;
+
+/**
+ * bounded history of per-frame machine states, used to rewind the emulation one frame at a time.
+ * States are grouped by {@link #KEYFRAME_INTERVAL} frames: the first state of a group (keyframe) is stored as it is,
+ * the following ones as the difference (XOR) with the keyframe. Both are run-length encoded, so that the unchanged
+ * bytes (most of the memory, most of the time) cost almost nothing. When the history is full, the oldest group is
+ * dropped and its buffer is reused, so that capturing a frame does not allocate memory.
+ * Encoding of a state, with <code>delta = state XOR base</code> (base is all zeros for keyframes):
+ * <pre>
+ * repeat until the whole state is covered:
+ *     | varint | number of zero delta bytes          |
+ *     | varint | number of literal delta bytes (N)   |
+ *     | N      | literal delta bytes                 |
+ * </pre>
+ */
+public class RewindBuffer {
+    /**
+     * number of frames of a group, the first one is the keyframe
+     */
+    public static final int KEYFRAME_INTERVAL = 60;
+    /**
+     * zero bytes inside a literal run are encoded as a zero run only if at least <code>MIN_ZERO_RUN</code> are
+     * consecutive
+     */
+    private static final int MIN_ZERO_RUN = 3;
+    private static final int INITIAL_GROUP_CAPACITY = 4096;
+    private static final byte[] ZEROS = new byte[MachineState.STATE_SIZE];
+    private final Group[] groups;
+    private final MachineState state;
+    private final byte[] stateBytes;
+    /**
+     * keyframe of the newest group
+     */
+    private final byte[] keyframe;
+    /**
+     * ring buffer index of the oldest group
+     */
+    private int oldestGroup;
+    private int groupCount;
+
+    /**
+     * create rewind buffer
+     *
+     * @param capacityFrames maximum number of frames of history, rounded up to a multiple of
+     *                       {@link #KEYFRAME_INTERVAL}
+     */
+    public RewindBuffer(int capacityFrames) {
+        groups = new Group[Math.max(1, (capacityFrames + KEYFRAME_INTERVAL - 1) / KEYFRAME_INTERVAL)];
+        state = MachineState.allocate();
+        stateBytes = new byte[MachineState.STATE_SIZE];
+        keyframe = new byte[MachineState.STATE_SIZE];
+    }
+
+    /**
+     * capture the current machine state as the newest frame of the history
+     *
+     * @param chip8 the machine to capture
+     */
+    public void capture(Chip8 chip8) {
+        chip8.saveState(state);
+        // held keys (e.g. while the rewind key is down) are not part of the history: rewinding keeps the keyboard
+        // as it is, and key presses do not cost a delta
+        state.setPressedKeys(0);
+        state.getBytes(stateBytes);
+        Group group = groupCount > 0 ? newestGroup() : null;
+        if (group == null || group.entries == KEYFRAME_INTERVAL) {
+            group = addGroup();
+            System.arraycopy(stateBytes, 0, keyframe, 0, MachineState.STATE_SIZE);
+            group.append(stateBytes, ZEROS);
+        } else {
+            group.append(stateBytes, keyframe);
+        }
+    }
+
+    /**
+     * restore the newest frame of the history and remove it from the history. The keyboard is not restored, see
+     * {@link BaseChip8#loadState(MachineState)}.
+     *
+     * @param chip8 the machine to restore
+     * @return true if a frame has been restored, false if the history is empty
+     */
+    public boolean rewind(Chip8 chip8) {
+        if (groupCount == 0) {
+            return false;
+        }
+        Group group = newestGroup();
+        group.entries -= 1;
+        if (group.entries == 0) {
+            // the keyframe itself
+            group.decode(0, ZEROS, stateBytes);
+            groupCount -= 1;
+            if (groupCount > 0) {
+                newestGroup().decode(0, ZEROS, keyframe);
+            }
+        } else {
+            group.decode(group.entries, keyframe, stateBytes);
+        }
+        group.length = group.offsets[group.entries];
+        state.setBytes(stateBytes);
+        chip8.loadState(state);
+        chip8.setDrawFlag(true);
+        return true;
+    }
+
+    /**
+     * get the number of frames of history
+     *
+     * @return number of captured frames that can be restored
+     */
+    public int size() {
+        if (groupCount == 0) {
+            return 0;
+        }
+        return ((groupCount - 1) * KEYFRAME_INTERVAL) + newestGroup().entries;
+    }
+
+    /**
+     * get the size of the encoded history
+     *
+     * @return encoded history size in bytes
+     */
+    public long getEncodedBytes() {
+        long bytes = 0;
+        for (int i = 0; i < groupCount; i++) {
+            bytes += groups[(oldestGroup + i) % groups.length].length;
+        }
+        return bytes;
+    }
+
+    private Group newestGroup() {
+        return groups[(oldestGroup + groupCount - 1) % groups.length];
+    }
+
+    private Group addGroup() {
+        if (groupCount == groups.length) {
+            // drop the oldest group, its buffer is reused
+            oldestGroup = (oldestGroup + 1) % groups.length;
+            groupCount -= 1;
+        }
+        int index = (oldestGroup + groupCount) % groups.length;
+        if (groups[index] == null) {
+            groups[index] = new Group();
+        }
+        groupCount += 1;
+        Group group = groups[index];
+        group.entries = 0;
+        group.length = 0;
+        return group;
+    }
+
+    /**
+     * a keyframe followed by the deltas of the next frames
+     */
+    private static final class Group {
+        /**
+         * start of each encoded state in data, plus the end of the last one
+         */
+        private final int[] offsets = new int[KEYFRAME_INTERVAL + 1];
+        private byte[] data = new byte[INITIAL_GROUP_CAPACITY];
+        private int length;
+        private int entries;
+        /**
+         * decoding position in data
+         */
+        private int cursor;
+
+        private void append(byte[] current, byte[] base) {
+            offsets[entries] = length;
+            int position = 0;
+            while (position < MachineState.STATE_SIZE) {
+                int zeroRunStart = position;
+                while (position < MachineState.STATE_SIZE && current[position] == base[position]) {
+                    position += 1;
+                }
+                int literalStart = position;
+                while (position < MachineState.STATE_SIZE && !isZeroRun(current, base, position)) {
+                    position += 1;
+                }
+                ensureCapacity(10 + (position - literalStart));
+                writeVarint(literalStart - zeroRunStart);
+                writeVarint(position - literalStart);
+                for (int i = literalStart; i < position; i++) {
+                    data[length++] = (byte) (current[i] ^ base[i]);
+                }
+            }
+            entries += 1;
+            offsets[entries] = length;
+        }
+
+        private void decode(int entry, byte[] base, byte[] destination) {
+            System.arraycopy(base, 0, destination, 0, MachineState.STATE_SIZE);
+            cursor = offsets[entry];
+            int position = 0;
+            while (position < MachineState.STATE_SIZE) {
+                position += readVarint();
+                int literalLength = readVarint();
+                for (int i = 0; i < literalLength; i++) {
+                    destination[position] ^= data[cursor++];
+                    position += 1;
+                }
+            }
+        }
+
+        private static boolean isZeroRun(byte[] current, byte[] base, int position) {
+            int end = Math.min(position + MIN_ZERO_RUN, MachineState.STATE_SIZE);
+            for (int i = position; i < end; i++) {
+                if (current[i] != base[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void ensureCapacity(int additionalBytes) {
+            if (length + additionalBytes > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + additionalBytes));
+            }
+        }
+
+        private void writeVarint(int value) {
+            int remaining = value;
+            while (remaining >= 0x80) {
+                data[length++] = (byte) ((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            data[length++] = (byte) remaining;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = data[cursor++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
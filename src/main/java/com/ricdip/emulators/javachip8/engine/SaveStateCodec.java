@@ -0,0 +1,87 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.StateException;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * binary save state format, big-endian:
+ * <pre>
+ * | offset | size | content                                    |
+ * | 0x0000 |    4 | magic: "C8ST"                              |
+ * | 0x0004 |    2 | format version                             |
+ * | 0x0006 |    2 | reserved                                   |
+ * | 0x0008 |    4 | machine state size                         |
+ * | 0x000C | 4608 | machine state, see {@link MachineState}    |
+ * | 0x120C |    4 | CRC-32 of the machine state                |
+ * </pre>
+ * The format version changes whenever the {@link MachineState} layout changes.
+ */
+public final class SaveStateCodec {
+    public static final int MAGIC = 0x43385354;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 12;
+    public static final int ENCODED_SIZE = HEADER_SIZE + MachineState.STATE_SIZE + Integer.BYTES;
+
+    private SaveStateCodec() {
+        // NOOP
+    }
+
+    /**
+     * encode a machine state
+     *
+     * @param state the machine state to encode
+     * @return encoded save state, {@link #ENCODED_SIZE} bytes long
+     */
+    public static byte[] encode(MachineState state) {
+        byte[] bytes = new byte[ENCODED_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putInt(MAGIC);
+        buffer.putShort((short) VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(MachineState.STATE_SIZE);
+        byte[] stateBytes = new byte[MachineState.STATE_SIZE];
+        state.getBytes(stateBytes);
+        buffer.put(stateBytes);
+        buffer.putInt(checksum(stateBytes));
+        return bytes;
+    }
+
+    /**
+     * decode a save state encoded by {@link #encode(MachineState)}
+     *
+     * @param bytes the encoded save state
+     * @param state the machine state to write
+     * @throws StateException if the save state is not valid or has another format version
+     */
+    public static void decode(byte[] bytes, MachineState state) {
+        if (bytes.length != ENCODED_SIZE) {
+            throw new StateException(String.format("Invalid save state size: %d bytes", bytes.length));
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != MAGIC) {
+            throw new StateException("Invalid save state: wrong magic number");
+        }
+        int version = Short.toUnsignedInt(buffer.getShort());
+        if (version != VERSION) {
+            throw new StateException(String.format("Unsupported save state version: %d", version));
+        }
+        buffer.getShort();
+        if (buffer.getInt() != MachineState.STATE_SIZE) {
+            throw new StateException("Invalid save state: wrong machine state size");
+        }
+        byte[] stateBytes = new byte[MachineState.STATE_SIZE];
+        buffer.get(stateBytes);
+        if (buffer.getInt() != checksum(stateBytes)) {
+            throw new StateException("Invalid save state: checksum mismatch");
+        }
+        state.setBytes(stateBytes);
+    }
+
+    private static int checksum(byte[] stateBytes) {
+        CRC32 crc = new CRC32();
+        crc.update(stateBytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,185 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.ExecutionException;
+import com.ricdip.emulators.javachip8.exception.StateException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * save state slots of a ROM. Save and load requests can be made by any thread and are performed by the emulation
+ * thread at frame boundaries: the state is captured in memory, and written to disk by a background thread so that
+ * the emulation never waits for I/O. Slots saved during the session are loaded from memory.
+ */
+@Slf4j
+public class SaveStateManager implements AutoCloseable {
+    public static final int SLOTS = 4;
+    public static final String STATE_FILE_EXTENSION = ".state";
+    /**
+     * maximum time to wait for pending writes when closing
+     */
+    public static final long CLOSE_TIMEOUT_SECONDS = 5;
+    private final Path directory;
+    private final String romName;
+    private final MachineState state;
+    /**
+     * encoded save states by slot index, null if not saved during the session
+     */
+    private final byte[][] savedSlots;
+    /**
+     * pending requests: positive for save, negative for load, absolute value is the slot
+     */
+    private final Queue<Integer> requests;
+    private final ExecutorService writer;
+
+    /**
+     * create save state slots
+     *
+     * @param directory directory of the state files
+     * @param romName   the ROM name, used to name the state files
+     */
+    public SaveStateManager(Path directory, String romName) {
+        this.directory = directory;
+        this.romName = romName;
+        state = MachineState.allocate();
+        savedSlots = new byte[SLOTS][];
+        requests = new ConcurrentLinkedQueue<>();
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "save-state-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * request a save to a slot
+     *
+     * @param slot the save slot, from 1 to {@link #SLOTS}
+     */
+    public void requestSave(int slot) {
+        requests.add(checkSlot(slot));
+    }
+
+    /**
+     * request a load from a slot
+     *
+     * @param slot the save slot, from 1 to {@link #SLOTS}
+     */
+    public void requestLoad(int slot) {
+        requests.add(-checkSlot(slot));
+    }
+
+    /**
+     * check if requests are waiting to be performed
+     *
+     * @return true if at least one request is pending, false otherwise
+     */
+    public boolean hasRequests() {
+        return !requests.isEmpty();
+    }
+
+    /**
+     * perform the pending requests, called by the emulation thread between two frames. Errors are logged, so that a
+     * failed load or save never stops the emulation.
+     *
+     * @param chip8 the machine to save or restore
+     */
+    public void performRequests(Chip8 chip8) {
+        Integer request;
+        while ((request = requests.poll()) != null) {
+            try {
+                if (request > 0) {
+                    save(chip8, request);
+                } else {
+                    load(chip8, -request);
+                }
+            } catch (StateException e) {
+                log.error("save state slot {} failed: {}", Math.abs(request), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * wait for the pending writes and stop the writer thread
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("save state writes still pending after {} s", CLOSE_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException("Interrupted while waiting for save state writes", e);
+        }
+    }
+
+    /**
+     * get the state file of a slot
+     *
+     * @param slot the save slot
+     * @return state file path
+     */
+    public Path getSlotPath(int slot) {
+        return directory.resolve(romName + "." + slot + STATE_FILE_EXTENSION);
+    }
+
+    private void save(Chip8 chip8, int slot) {
+        long startNanos = System.nanoTime();
+        chip8.saveState(state);
+        byte[] bytes = SaveStateCodec.encode(state);
+        savedSlots[slot - 1] = bytes;
+        log.info("state saved to slot {} in {} us", slot, (System.nanoTime() - startNanos) / 1000);
+        Path path = getSlotPath(slot);
+        writer.execute(() -> writeFile(path, bytes));
+    }
+
+    private void load(Chip8 chip8, int slot) {
+        long startNanos = System.nanoTime();
+        byte[] bytes = savedSlots[slot - 1];
+        if (bytes == null) {
+            bytes = readFile(getSlotPath(slot));
+        }
+        SaveStateCodec.decode(bytes, state);
+        chip8.loadState(state);
+        chip8.setDrawFlag(true);
+        log.info("state loaded from slot {} in {} us", slot, (System.nanoTime() - startNanos) / 1000);
+    }
+
+    private static void writeFile(Path path, byte[] bytes) {
+        // write a temporary file, then replace the state file, so that a crash never leaves a truncated state
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Files.write(temporaryPath, bytes);
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("state file '{}' written", path);
+        } catch (IOException e) {
+            log.error("cannot write state file '{}': {}", path, e.toString());
+        }
+    }
+
+    private static byte[] readFile(Path path) {
+        try {
+            return Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new StateException(String.format("Cannot read state file '%s'", path), e);
+        }
+    }
+
+    private static int checkSlot(int slot) {
+        if (slot < 1 || slot > SLOTS) {
+            throw new StateException(String.format("Illegal save slot: %d", slot));
+        }
+        return slot;
+    }
+}
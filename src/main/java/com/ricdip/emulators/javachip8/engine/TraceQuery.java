@@ -0,0 +1,50 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.ExecutionException;
+import com.ricdip.emulators.javachip8.model.ExecutionTrace;
+import com.ricdip.emulators.javachip8.model.TraceQueryConfig;
+
+import java.io.PrintStream;
+
+public final class TraceQuery {
+    private TraceQuery() {
+        // NOOP
+    }
+
+    /**
+     * print the disassembled records of a trace file within a cycle window and a PC range
+     *
+     * @param config the query configuration
+     * @throws ExecutionException if the trace file cannot be read
+     */
+    public static void run(TraceQueryConfig config) {
+        run(config, System.out);
+    }
+
+    /**
+     * print the disassembled records of a trace file within a cycle window and a PC range
+     *
+     * @param config the query configuration
+     * @param out    the output stream
+     * @throws ExecutionException if the trace file cannot be read
+     */
+    static void run(TraceQueryConfig config, PrintStream out) {
+        ExecutionTrace trace = new ExecutionTrace(config.getTracePath());
+        out.printf("# %s: %d records%n", trace.getTraceName(), trace.getRecords());
+        out.printf("# %10s  %-5s  %-4s  %s%n", "cycle", "PC", "op", "instruction");
+        long printed = 0;
+        for (long record = trace.findCycle(config.getFromCycle()); record < trace.getRecords(); record++) {
+            long cycle = trace.getCycle(record);
+            if (cycle > config.getToCycle() || printed >= config.getLimit()) {
+                break;
+            }
+            long packed = trace.getPacked(record);
+            int PC = ExecutionTrace.getPC(packed);
+            if (PC >= config.getFromPC() && PC <= config.getToPC()) {
+                out.println(ExecutionTrace.format(cycle, packed));
+                printed += 1;
+            }
+        }
+        out.flush();
+    }
+}
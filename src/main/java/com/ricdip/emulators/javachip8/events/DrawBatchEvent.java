@@ -0,0 +1,29 @@
+package com.ricdip.emulators.javachip8.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * JFR event summarizing the DXYN sprites drawn during the emulation of one frame
+ */
+@Name("com.ricdip.emulators.javachip8.DrawBatch")
+@Label("Draw Batch")
+@Category("CHIP-8")
+@Description("DXYN sprites drawn while emulating one frame")
+@Setter
+public class DrawBatchEvent extends Event {
+    @Label("Frame")
+    private long frame;
+
+    @Label("Sprites")
+    @Description("Number of DXYN instructions executed")
+    private long sprites;
+
+    @Label("Collisions")
+    @Description("Number of DXYN instructions that erased at least one pixel")
+    private long collisions;
+}
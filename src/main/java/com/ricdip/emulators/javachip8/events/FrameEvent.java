@@ -0,0 +1,39 @@
+package com.ricdip.emulators.javachip8.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * JFR event spanning the work of one frame of the emulation loop: emulation (or rewind) and redraw, frame pacing wait
+ * excluded
+ */
+@Name("com.ricdip.emulators.javachip8.Frame")
+@Label("Frame")
+@Category("CHIP-8")
+@Description("Emulation and redraw of one 60 Hz frame")
+@Setter
+public class FrameEvent extends Event {
+    @Label("Frame")
+    @Description("Number of frames emulated before this one")
+    private long frame;
+
+    @Label("Cycles")
+    @Description("Cycles emulated in this frame, idle cycles included")
+    private int cycles;
+
+    @Label("Idle Cycles")
+    @Description("Cycles skipped in idle loops in this frame")
+    private long idleCycles;
+
+    @Label("Rewind")
+    @Description("True if the frame was rewound instead of emulated")
+    private boolean rewind;
+
+    @Label("Redraw")
+    @Description("True if the screen was redrawn")
+    private boolean redraw;
+}
@@ -0,0 +1,26 @@
+package com.ricdip.emulators.javachip8.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * JFR event for a CHIP-8 key pressed or released in the window
+ */
+@Name("com.ricdip.emulators.javachip8.KeyInput")
+@Label("Key Input")
+@Category("CHIP-8")
+@Description("CHIP-8 key pressed or released in the window")
+@Setter
+public class KeyInputEvent extends Event {
+    @Label("Key")
+    @Description("CHIP-8 key: 0x0 - 0xF")
+    private int key;
+
+    @Label("Pressed")
+    @Description("True for a key press, false for a key release")
+    private boolean pressed;
+}
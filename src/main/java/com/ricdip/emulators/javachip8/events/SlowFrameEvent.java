@@ -0,0 +1,27 @@
+package com.ricdip.emulators.javachip8.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import lombok.Setter;
+
+/**
+ * JFR event for a frame interval longer than the frame time budget
+ */
+@Name("com.ricdip.emulators.javachip8.SlowFrame")
+@Label("Slow Frame")
+@Category("CHIP-8")
+@Description("Frame interval longer than the target frame time plus the late tolerance")
+@Setter
+public class SlowFrameEvent extends Event {
+    @Label("Frame Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long frameTime;
+
+    @Label("Target Frame Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long targetFrameTime;
+}
@@ -0,0 +1,22 @@
+package com.ricdip.emulators.javachip8.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * JFR event spanning the start or the stop of the sound
+ */
+@Name("com.ricdip.emulators.javachip8.Sound")
+@Label("Sound")
+@Category("CHIP-8")
+@Description("Sound started or stopped following the sound timer")
+@Setter
+public class SoundEvent extends Event {
+    @Label("Active")
+    @Description("True if the sound started, false if it stopped")
+    private boolean active;
+}
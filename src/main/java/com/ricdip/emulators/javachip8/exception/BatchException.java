@@ -0,0 +1,11 @@
+package com.ricdip.emulators.javachip8.exception;
+
+public class BatchException extends RuntimeException {
+    public BatchException(String message) {
+        super(message);
+    }
+
+    public BatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
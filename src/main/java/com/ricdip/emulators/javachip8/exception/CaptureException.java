@@ -0,0 +1,11 @@
+package com.ricdip.emulators.javachip8.exception;
+
+public class CaptureException extends RuntimeException {
+    public CaptureException(String message) {
+        super(message);
+    }
+
+    public CaptureException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ricdip.emulators.javachip8.exception;
+
+public class InputException extends RuntimeException {
+    public InputException(String message) {
+        super(message);
+    }
+
+    public InputException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
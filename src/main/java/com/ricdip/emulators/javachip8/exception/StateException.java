@@ -0,0 +1,11 @@
+package com.ricdip.emulators.javachip8.exception;
+
+public class StateException extends RuntimeException {
+    public StateException(String message) {
+        super(message);
+    }
+
+    public StateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ricdip.emulators.javachip8.model;
+
+import com.ricdip.emulators.javachip8.engine.EngineType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Duration;
+
+@Getter
+@Builder
+public class BatchConfig {
+    /**
+     * path to the jobs file
+     */
+    @NonNull
+    private final String jobsPath;
+
+    /**
+     * nullable path to the report file, the report is printed to standard output if null
+     */
+    private final String reportPath;
+
+    /**
+     * number of jobs run in parallel
+     */
+    private final int threads;
+
+    /**
+     * emulation engine of jobs that do not set one
+     */
+    @NonNull
+    @Builder.Default
+    private final EngineType engineType = EngineType.INTERPRETER;
+
+    /**
+     * instructions per second of jobs that do not set them
+     */
+    @Builder.Default
+    private final int instructionsPerSecond = EmulationConfig.DEFAULT_INSTRUCTIONS_PER_SECOND;
+
+    /**
+     * nullable maximum number of cycles of jobs that do not set a run limit
+     */
+    private final Long maxCycles;
+
+    /**
+     * nullable maximum number of frames of jobs that do not set a run limit
+     */
+    private final Long maxFrames;
+
+    /**
+     * nullable maximum wall time of each job
+     */
+    private final Duration maxTime;
+}
@@ -0,0 +1,172 @@
+package com.ricdip.emulators.javachip8.model;
+
+import com.ricdip.emulators.javachip8.engine.EngineType;
+import com.ricdip.emulators.javachip8.engine.ProfileReport;
+import com.ricdip.emulators.javachip8.screen.FrameCapture;
+import com.ricdip.emulators.javachip8.screen.Palette;
+import com.ricdip.emulators.javachip8.screen.SwingDisplayComponent;
+import com.ricdip.emulators.javachip8.sound.SoundType;
+import com.ricdip.emulators.javachip8.sound.StreamingSound;
+import com.ricdip.emulators.javachip8.sound.WavSound;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Duration;
+
+@Getter
+@Builder
+public class EmulationConfig {
+    public static final int DEFAULT_INSTRUCTIONS_PER_SECOND = 600;
+    public static final int DEFAULT_REWIND_SECONDS = 0;
+
+    /**
+     * path to the ROM file to run
+     */
+    @NonNull
+    private final String romPath;
+
+    /**
+     * nullable random seed
+     */
+    private final Long randomSeed;
+
+    /**
+     * nullable path to an input script, see {@link InputScript}
+     */
+    private final String inputScriptPath;
+
+    /**
+     * nullable path of the input recording to write, see {@link InputRecording}
+     */
+    private final String recordPath;
+
+    /**
+     * nullable path of an input recording to replay headless, see {@link InputRecording}
+     */
+    private final String replayPath;
+
+    /**
+     * nullable path of the PC profile report written at exit, see {@link ProfileReport}
+     */
+    private final String profilePath;
+
+    /**
+     * nullable path of the execution trace file, see {@link ExecutionTrace}
+     */
+    private final String tracePath;
+
+    /**
+     * number of last executed instructions logged if the emulation fails, 0 if not tracing
+     */
+    private final int traceRingRecords;
+
+    /**
+     * nullable path of the WAV file the sound is rendered to in headless runs, see {@link WavSound}
+     */
+    private final String wavPath;
+
+    /**
+     * nullable path of the frame capture: an animated GIF file if it ends with <code>.gif</code>, a directory of PNG
+     * files otherwise, see {@link FrameCapture}
+     */
+    private final String capturePath;
+
+    /**
+     * emulation engine
+     */
+    @NonNull
+    @Builder.Default
+    private final EngineType engineType = EngineType.INTERPRETER;
+
+    /**
+     * number of instructions emulated per second, spread over the 60 Hz frames
+     */
+    @Builder.Default
+    private final int instructionsPerSecond = DEFAULT_INSTRUCTIONS_PER_SECOND;
+
+    /**
+     * if true, the frame pacer busy-waits the last fraction of a millisecond before each frame
+     */
+    private final boolean pacerSpin;
+
+    /**
+     * size in screen pixels of a CHIP-8 pixel
+     */
+    @Builder.Default
+    private final int scale = SwingDisplayComponent.DEFAULT_SCALE;
+
+    /**
+     * display colors
+     */
+    @NonNull
+    @Builder.Default
+    private final Palette palette = Palette.CLASSIC;
+
+    /**
+     * sound implementation of the windowed emulation
+     */
+    @NonNull
+    @Builder.Default
+    private final SoundType soundType = SoundType.CLIP;
+
+    /**
+     * audio line buffer length in milliseconds of the streamed sound
+     */
+    @Builder.Default
+    private final int audioBufferMillis = StreamingSound.DEFAULT_BUFFER_MILLIS;
+
+    /**
+     * nullable directory of the save state files, the ROM directory if null
+     */
+    private final String stateDirectory;
+
+    /**
+     * seconds of rewind history, 0 to disable rewind
+     */
+    @Builder.Default
+    private final int rewindSeconds = DEFAULT_REWIND_SECONDS;
+
+    /**
+     * nullable name of the batch job, names the metrics MBean of the job
+     */
+    private final String jobName;
+
+    /**
+     * if true, run without screen and sound as fast as possible
+     */
+    private final boolean headless;
+
+    /**
+     * nullable maximum number of cycles to emulate
+     */
+    private final Long maxCycles;
+
+    /**
+     * nullable maximum number of frames to emulate
+     */
+    private final Long maxFrames;
+
+    /**
+     * nullable maximum wall time of the emulation
+     */
+    private final Duration maxTime;
+
+    /**
+     * check if at least one run limit is set
+     *
+     * @return true if emulation stops by itself, false otherwise
+     */
+    public boolean hasRunLimit() {
+        return maxCycles != null || maxFrames != null || maxTime != null;
+    }
+
+    /**
+     * check if executed instructions are traced
+     *
+     * @return true if a trace file or a trace ring is set
+     */
+    public boolean isTracing() {
+        return tracePath != null || traceRingRecords > 0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ricdip.emulators.javachip8.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class EmulationResult {
+    private final String romName;
+    private final long cycles;
+    /**
+     * emulated cycles skipped because spent in idle loops
+     */
+    private final long idleCycles;
+    private final long frames;
+    private final long elapsedNanos;
+    /**
+     * hash of the display content at the end of the emulation
+     */
+    private final long framebufferHash;
+
+    public double getCyclesPerSecond() {
+        return elapsedNanos > 0 ? cycles * 1e9 / elapsedNanos : 0;
+    }
+
+    public double getFramesPerSecond() {
+        return elapsedNanos > 0 ? frames * 1e9 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "ROM: %s%ncycles: %d (%d idle)%nframes: %d%nelapsed: %.3f ms%nthroughput: %.0f cycles/s, %.0f frames/s%n" +
+                        "framebuffer hash: 0x%016X",
+                romName,
+                cycles,
+                idleCycles,
+                frames,
+                elapsedNanos / 1e6,
+                getCyclesPerSecond(),
+                getFramesPerSecond(),
+                framebufferHash
+        );
+    }
+}
@@ -0,0 +1,169 @@
+package com.ricdip.emulators.javachip8.model;
+
+import com.ricdip.emulators.javachip8.engine.Chip8Disassembler;
+import com.ricdip.emulators.javachip8.exception.ExecutionException;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * execution trace file written by {@link com.ricdip.emulators.javachip8.engine.ExecutionTracer}. Binary format,
+ * big-endian, a header followed by fixed-width records:
+ * <pre>
+ * | header offset | size | content                  |
+ * |          0x00 |    4 | magic: "C8TR"            |
+ * |          0x04 |    2 | format version           |
+ * |          0x06 |    2 | record size              |
+ * |          0x08 |    8 | number of records        |
+ *
+ * | record offset | size | content                                              |
+ * |          0x00 |    8 | emulated cycle, idle cycles included                 |
+ * |          0x08 |    2 | PC                                                   |
+ * |          0x0A |    2 | opcode                                               |
+ * |          0x0C |    1 | changed register: 0x0 - 0xF VX, 0x10 I, 0xFF none    |
+ * |          0x0D |    1 | reserved                                             |
+ * |          0x0E |    2 | changed register value, after execution              |
+ * </pre>
+ * Instructions changing both VX and VF (8XY4, 8XY5, 8XY6, 8XY7, 8XYE) record VX, FX65 records only the last loaded
+ * register and the memory writes of FX33 and FX55 are not recorded. Only the first 2 GB of a trace file are read.
+ */
+@Getter
+public class ExecutionTrace {
+    public static final int MAGIC = 0x43385452;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 16;
+    public static final int RECORD_COUNT_OFFSET = 8;
+    public static final int REGISTER_I = 0x10;
+    public static final int NO_REGISTER = 0xFF;
+    private final String traceName;
+    private final long records;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * map a trace file
+     *
+     * @param tracePath path to trace file
+     * @throws ExecutionException if the file cannot be read or is not a valid trace
+     */
+    public ExecutionTrace(@NonNull String tracePath) {
+        traceName = Path.of(tracePath).getFileName().toString();
+        try (FileChannel channel = FileChannel.open(Path.of(tracePath), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new ExecutionException(String.format("Invalid trace file '%s'", traceName));
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE));
+        } catch (IOException e) {
+            throw new ExecutionException(String.format("Cannot read trace file '%s'", traceName), e);
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION || buffer.getShort(6) != RECORD_SIZE) {
+            throw new ExecutionException(String.format("Invalid trace file '%s'", traceName));
+        }
+        records = Math.min(buffer.getLong(RECORD_COUNT_OFFSET), (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    /**
+     * get the cycle of a record
+     *
+     * @param record record index
+     * @return emulated cycle, idle cycles included
+     */
+    public long getCycle(long record) {
+        return buffer.getLong(offset(record));
+    }
+
+    /**
+     * get a record PC, opcode, register and value, packed as in the file
+     *
+     * @param record record index
+     * @return packed record
+     */
+    public long getPacked(long record) {
+        return buffer.getLong(offset(record) + Long.BYTES);
+    }
+
+    /**
+     * find the first record at or after a cycle, records being sorted by cycle
+     *
+     * @param cycle the cycle
+     * @return record index, {@link #getRecords()} if all records are before the cycle
+     */
+    public long findCycle(long cycle) {
+        long low = 0;
+        long high = records;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (getCycle(middle) < cycle) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * pack PC, opcode, register and value as in the trace file
+     *
+     * @param PC       the instruction address
+     * @param opcode   the opcode
+     * @param register the changed register
+     * @param value    the changed register value
+     * @return packed record
+     */
+    public static long pack(int PC, int opcode, int register, int value) {
+        return ((long) (PC & 0xFFFF) << 48)
+                | ((long) (opcode & 0xFFFF) << 32)
+                | ((long) (register & 0xFF) << 24)
+                | (value & 0xFFFF);
+    }
+
+    public static int getPC(long packed) {
+        return (int) (packed >>> 48);
+    }
+
+    public static int getOpcode(long packed) {
+        return (int) (packed >>> 32) & 0xFFFF;
+    }
+
+    public static int getRegister(long packed) {
+        return (int) (packed >>> 24) & 0xFF;
+    }
+
+    public static int getValue(long packed) {
+        return (int) packed & 0xFFFF;
+    }
+
+    /**
+     * format a record as a disassembled trace line
+     *
+     * @param cycle  the record cycle
+     * @param packed the packed record
+     * @return trace line
+     */
+    public static String format(long cycle, long packed) {
+        int register = getRegister(packed);
+        String change = switch (register) {
+            case NO_REGISTER -> "";
+            case REGISTER_I -> String.format("I=0x%03X", getValue(packed));
+            default -> String.format("V%X=0x%02X", register, getValue(packed));
+        };
+        return String.format(
+                "%12d  0x%03X  %04X  %-18s %s",
+                cycle,
+                getPC(packed),
+                getOpcode(packed),
+                Chip8Disassembler.disassemble(getOpcode(packed)),
+                change
+        ).stripTrailing();
+    }
+
+    private int offset(long record) {
+        return Math.toIntExact(HEADER_SIZE + (record * RECORD_SIZE));
+    }
+}
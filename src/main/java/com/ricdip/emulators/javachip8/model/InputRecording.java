@@ -0,0 +1,120 @@
+package com.ricdip.emulators.javachip8.model;
+
+import com.ricdip.emulators.javachip8.exception.InputException;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * key events recorded during an emulation, with everything needed to replay it deterministically. Binary format,
+ * big-endian:
+ * <pre>
+ * | size | content                                                                  |
+ * |    4 | magic: "C8IR"                                                            |
+ * |    2 | format version                                                           |
+ * |    2 | reserved                                                                 |
+ * |    8 | random seed                                                              |
+ * |    4 | ROM CRC-32                                                               |
+ * |    4 | instructions per second                                                  |
+ * |    * | events: varint frames since the previous event, then the event code      |
+ * |    * | end: varint frames since the previous event, then {@link #END_CODE}      |
+ * |    8 | number of emulated frames                                                |
+ * |    8 | final framebuffer hash                                                   |
+ * </pre>
+ * Event codes: <code>0x00 - 0x0F</code> key released, <code>0x10 - 0x1F</code> key pressed. Events are applied at
+ * the start of the frame they are recorded in, in recording order.
+ */
+@Getter
+public class InputRecording {
+    public static final int MAGIC = 0x43384952;
+    public static final int VERSION = 1;
+    public static final int PRESSED_FLAG = 0x10;
+    public static final int END_CODE = 0xFF;
+    private final String recordingName;
+    private final long randomSeed;
+    private final int romChecksum;
+    private final int instructionsPerSecond;
+    private final long frames;
+    private final long framebufferHash;
+    private final InputScript inputScript;
+
+    /**
+     * create input recording object from data read from recording file.
+     *
+     * @param recordingPath path to recording file
+     * @throws InputException if the file cannot be read or is not a valid recording
+     */
+    public InputRecording(@NonNull String recordingPath) {
+        recordingName = Path.of(recordingPath).getFileName().toString();
+        try (InputStream fileStream = Files.newInputStream(Path.of(recordingPath));
+             DataInputStream input = new DataInputStream(new BufferedInputStream(fileStream))) {
+            if (input.readInt() != MAGIC) {
+                throw new InputException(String.format("Invalid input recording '%s'", recordingName));
+            }
+            int version = input.readUnsignedShort();
+            if (version != VERSION) {
+                throw new InputException(String.format("Unsupported input recording version: %d", version));
+            }
+            input.readUnsignedShort();
+            randomSeed = input.readLong();
+            romChecksum = input.readInt();
+            instructionsPerSecond = input.readInt();
+            long[] eventFrames = new long[64];
+            int[] eventKeys = new int[64];
+            boolean[] eventPressed = new boolean[64];
+            int events = 0;
+            long frame = 0;
+            while (true) {
+                frame += readVarint(input);
+                int code = input.readUnsignedByte();
+                if (code == END_CODE) {
+                    break;
+                }
+                if (code > (PRESSED_FLAG | 0x0F)) {
+                    throw new InputException(String.format("Invalid input recording event code: 0x%02X", code));
+                }
+                if (events == eventFrames.length) {
+                    eventFrames = Arrays.copyOf(eventFrames, events * 2);
+                    eventKeys = Arrays.copyOf(eventKeys, events * 2);
+                    eventPressed = Arrays.copyOf(eventPressed, events * 2);
+                }
+                eventFrames[events] = frame;
+                eventKeys[events] = code & 0x0F;
+                eventPressed[events] = (code & PRESSED_FLAG) != 0;
+                events += 1;
+            }
+            frames = input.readLong();
+            framebufferHash = input.readLong();
+            inputScript = new InputScript(
+                    recordingName,
+                    Arrays.copyOf(eventFrames, events),
+                    Arrays.copyOf(eventKeys, events),
+                    Arrays.copyOf(eventPressed, events)
+            );
+        } catch (EOFException e) {
+            throw new InputException(String.format("Truncated input recording '%s'", recordingName), e);
+        } catch (IOException e) {
+            throw new InputException(String.format("Cannot read input recording '%s'", recordingName), e);
+        }
+    }
+
+    private static long readVarint(DataInputStream input) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
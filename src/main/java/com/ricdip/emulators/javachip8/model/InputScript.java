@@ -0,0 +1,134 @@
+package com.ricdip.emulators.javachip8.model;
+
+import com.ricdip.emulators.javachip8.engine.Keyboard;
+import com.ricdip.emulators.javachip8.exception.InputException;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * scripted key presses and releases, applied at frame boundaries. The script is a text file with one event per line:
+ * <pre>
+ * # frame key action
+ * 120 5 press
+ * 130 5 release
+ * </pre>
+ * Where frame is the number of frames emulated before the event, key is a hexadecimal CHIP-8 key (0 - F) and action is
+ * <code>press</code> or <code>release</code>. Events must be sorted by frame. Empty lines and lines starting with
+ * <code>#</code> are ignored.
+ */
+@Getter
+public class InputScript {
+    private static final String COMMENT_PREFIX = "#";
+    private static final String PRESS_ACTION = "press";
+    private static final String RELEASE_ACTION = "release";
+    private final String scriptName;
+    private final long[] frames;
+    private final int[] keys;
+    private final boolean[] pressed;
+
+    /**
+     * create input script object from data read from script file.
+     *
+     * @param scriptPath path to script file
+     * @throws InputException if the file cannot be read or contains an invalid event
+     */
+    public InputScript(@NonNull String scriptPath) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Path.of(scriptPath));
+        } catch (IOException e) {
+            throw new InputException(String.format("Cannot read input script '%s'", scriptPath), e);
+        }
+        scriptName = Path.of(scriptPath).getFileName().toString();
+        long[] eventFrames = new long[lines.size()];
+        int[] eventKeys = new int[lines.size()];
+        boolean[] eventPressed = new boolean[lines.size()];
+        int events = 0;
+        for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber++) {
+            String line = lines.get(lineNumber - 1).strip();
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 3) {
+                throw invalidEvent(lineNumber, "expected <frame> <key> <action>");
+            }
+            try {
+                eventFrames[events] = Long.parseLong(fields[0]);
+                eventKeys[events] = Integer.parseInt(fields[1], 16);
+            } catch (NumberFormatException e) {
+                throw invalidEvent(lineNumber, e.getMessage());
+            }
+            if (eventFrames[events] < 0 || (events > 0 && eventFrames[events] < eventFrames[events - 1])) {
+                throw invalidEvent(lineNumber, "frames must be positive and sorted");
+            }
+            if (eventKeys[events] < 0 || eventKeys[events] >= Keyboard.KEYBOARD_LENGTH) {
+                throw invalidEvent(lineNumber, "key must be between 0 and F");
+            }
+            eventPressed[events] = switch (fields[2].toLowerCase()) {
+                case PRESS_ACTION -> true;
+                case RELEASE_ACTION -> false;
+                default -> throw invalidEvent(lineNumber, "action must be press or release");
+            };
+            events += 1;
+        }
+        frames = Arrays.copyOf(eventFrames, events);
+        keys = Arrays.copyOf(eventKeys, events);
+        pressed = Arrays.copyOf(eventPressed, events);
+    }
+
+    /**
+     * create input script object from events
+     *
+     * @param scriptName the script name
+     * @param frames     number of frames emulated before each event, sorted
+     * @param keys       key of each event
+     * @param pressed    true for key presses, false for key releases
+     */
+    public InputScript(@NonNull String scriptName, long[] frames, int[] keys, boolean[] pressed) {
+        this.scriptName = scriptName;
+        this.frames = frames;
+        this.keys = keys;
+        this.pressed = pressed;
+    }
+
+    /**
+     * get the number of events
+     *
+     * @return number of events
+     */
+    public int size() {
+        return frames.length;
+    }
+
+    /**
+     * apply to the keyboard the events of a frame
+     *
+     * @param firstEvent index of the first event not applied yet
+     * @param frame      number of frames emulated so far
+     * @param keyboard   the keyboard to update
+     * @return index of the first event not applied yet, after this frame
+     */
+    public int apply(int firstEvent, long frame, Keyboard keyboard) {
+        int event = firstEvent;
+        while (event < frames.length && frames[event] <= frame) {
+            if (pressed[event]) {
+                keyboard.setKeyPressed(keys[event]);
+            } else {
+                keyboard.setKeyReleased(keys[event]);
+            }
+            event += 1;
+        }
+        return event;
+    }
+
+    private InputException invalidEvent(int lineNumber, String reason) {
+        return new InputException(String.format("Invalid input event at %s:%d: %s", scriptName, lineNumber, reason));
+    }
+}
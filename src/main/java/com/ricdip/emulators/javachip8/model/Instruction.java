@@ -3,7 +3,6 @@ package com.ricdip.emulators.javachip8.model;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
-import lombok.Setter;
 
 @Getter
 @AllArgsConstructor
@@ -12,35 +11,34 @@ public class Instruction {
     /**
      * OP section from opcode: 0xF000
      */
-    private int OP;
+    private final int OP;
 
     /**
      * X section from opcode: 0x0F00
      */
-    private int X;
+    private final int X;
 
     /**
      * Y section from opcode: 0x00F0
      */
-    private int Y;
+    private final int Y;
 
     /**
      * N section from opcode: 0x000N
      */
-    private int N;
+    private final int N;
 
     /**
      * NNN section from opcode: 0x0NNN
      */
-    private int NNN;
+    private final int NNN;
 
     /**
      * KK section from opcode: 0x00KK
      */
-    private int KK;
+    private final int KK;
 
-    @Setter
-    private OpcodeType opcodeType;
+    private final OpcodeType opcodeType;
 
     @Override
     public String toString() {
@@ -8,6 +8,7 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Objects;
+import java.util.zip.CRC32;
 
 @Getter
 public class Rom {
@@ -31,4 +32,15 @@ public class Rom {
             throw new RomException(e);
         }
     }
+
+    /**
+     * compute the CRC-32 checksum of the ROM content
+     *
+     * @return ROM checksum
+     */
+    public int computeChecksum() {
+        CRC32 crc = new CRC32();
+        crc.update(romContent);
+        return (int) crc.getValue();
+    }
 }
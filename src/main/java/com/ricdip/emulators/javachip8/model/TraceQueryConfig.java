@@ -0,0 +1,45 @@
+package com.ricdip.emulators.javachip8.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+@Getter
+@Builder
+public class TraceQueryConfig {
+    /**
+     * path to the trace file, see {@link ExecutionTrace}
+     */
+    @NonNull
+    private final String tracePath;
+
+    /**
+     * first PC of the records to print
+     */
+    @Builder.Default
+    private final int fromPC = 0;
+
+    /**
+     * last PC of the records to print (inclusive)
+     */
+    @Builder.Default
+    private final int toPC = 0xFFFF;
+
+    /**
+     * first cycle of the records to print
+     */
+    @Builder.Default
+    private final long fromCycle = 0;
+
+    /**
+     * last cycle of the records to print (inclusive)
+     */
+    @Builder.Default
+    private final long toCycle = Long.MAX_VALUE;
+
+    /**
+     * maximum number of records to print
+     */
+    @Builder.Default
+    private final long limit = Long.MAX_VALUE;
+}
@@ -0,0 +1,364 @@
+package com.ricdip.emulators.javachip8.screen;
+
+import com.ricdip.emulators.javachip8.engine.BaseChip8;
+import com.ricdip.emulators.javachip8.engine.Display;
+import com.ricdip.emulators.javachip8.exception.CaptureException;
+import com.ricdip.emulators.javachip8.exception.ExecutionException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * capture the display at each 60 Hz present to an animated GIF (if the output path ends with <code>.gif</code>) or
+ * to a directory of PNG files named after the frame they first appear at. The emulation thread copies the frames that
+ * differ from the previous one into a bounded queue, and a background thread encodes them: the emulation never waits
+ * for encoding. When the queue is full, the new frame is kept aside and offered again at the next present; if the
+ * display changes meanwhile, the frame is dropped and replaced by the newer one.
+ */
+@Slf4j
+public class FrameCapture implements AutoCloseable {
+    /**
+     * default number of frames waiting to be encoded
+     */
+    public static final int DEFAULT_QUEUE_FRAMES = 256;
+    /**
+     * file extension of animated GIF outputs
+     */
+    public static final String GIF_EXTENSION = ".gif";
+    /**
+     * GIF frame delays are expressed in hundredths of a second
+     */
+    private static final int GIF_TIME_UNITS = 100;
+    private final Path outputPath;
+    private final boolean gif;
+    private final int scale;
+    private final IndexColorModel colorModel;
+    private final BlockingQueue<CapturedFrame> queue;
+    private final Thread encoderThread;
+    /**
+     * display rows of the last frame queued or kept aside, only accessed by the emulation thread
+     */
+    private long[] lastRows;
+    /**
+     * nullable frame kept aside because the queue was full, only accessed by the emulation thread
+     */
+    private CapturedFrame pendingFrame;
+    /**
+     * number of presents, only accessed by the emulation thread
+     */
+    private long presents;
+    /**
+     * number of frames replaced before they could be queued
+     */
+    @Getter
+    private long droppedFrames;
+    /**
+     * number of frames written by the encoder thread
+     */
+    @Getter
+    private volatile long encodedFrames;
+    private volatile boolean failed;
+    private boolean closed;
+
+    /**
+     * create the output and start the encoder thread
+     *
+     * @param outputPath  path of the GIF file, or of the PNG files directory
+     * @param scale       size in image pixels of a CHIP-8 pixel
+     * @param palette     image colors
+     * @param queueFrames maximum number of frames waiting to be encoded
+     * @throws CaptureException if the output cannot be created
+     */
+    public FrameCapture(Path outputPath, int scale, Palette palette, int queueFrames) {
+        this.outputPath = outputPath;
+        this.gif = outputPath.getFileName().toString().toLowerCase().endsWith(GIF_EXTENSION);
+        this.scale = scale;
+        colorModel = createColorModel(palette);
+        queue = new ArrayBlockingQueue<>(queueFrames);
+        lastRows = new long[Display.DISPLAY_HEIGHT];
+        Arrays.fill(lastRows, -1); // never equal to a real first frame: the first present is always captured
+        ImageWriter gifWriter = null;
+        try {
+            if (gif) {
+                gifWriter = createGifWriter(outputPath);
+            } else {
+                Files.createDirectories(outputPath);
+            }
+        } catch (IOException e) {
+            throw new CaptureException(String.format("Cannot create capture output '%s'", outputPath), e);
+        }
+        ImageWriter writer = gifWriter;
+        encoderThread = new Thread(() -> encode(writer), "frame-capture-encoder");
+        encoderThread.setDaemon(true);
+        encoderThread.start();
+        log.info("capturing frames to {} '{}'", gif ? "animated GIF" : "PNG directory", outputPath);
+    }
+
+    /**
+     * capture the display content, called by the emulation thread at each 60 Hz present. Never blocks.
+     *
+     * @param display the display to capture
+     */
+    public void capture(Display display) {
+        long frame = presents;
+        presents += 1;
+        if (failed) {
+            return;
+        }
+        if (!isSameContent(display, lastRows)) {
+            if (pendingFrame != null) {
+                droppedFrames += 1;
+            }
+            long[] rows = new long[Display.DISPLAY_HEIGHT];
+            for (int row = 0; row < Display.DISPLAY_HEIGHT; row++) {
+                rows[row] = display.getRow(row);
+            }
+            pendingFrame = new CapturedFrame(frame, rows);
+            lastRows = rows;
+        }
+        if (pendingFrame != null && queue.offer(pendingFrame)) {
+            pendingFrame = null;
+        }
+    }
+
+    /**
+     * queue the last frames, wait for the encoder thread to write them and close the output. Further calls have no
+     * effect.
+     *
+     * @throws ExecutionException if the thread is interrupted while waiting
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (pendingFrame != null) {
+                queue.put(pendingFrame);
+            }
+            // end of capture: the frame count sets the duration of the last frame
+            queue.put(new CapturedFrame(presents, null));
+            encoderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException("Interrupted while waiting for frame capture encoding", e);
+        }
+        log.info(
+                "frame capture '{}' closed: {} presents, {} frames written, {} dropped",
+                outputPath,
+                presents,
+                encodedFrames,
+                droppedFrames
+        );
+    }
+
+    /**
+     * encoder thread loop. Errors are logged and stop the capture, the emulation goes on.
+     *
+     * @param gifWriter nullable GIF writer, null when writing PNG files
+     */
+    private void encode(ImageWriter gifWriter) {
+        BufferedImage image = new BufferedImage(
+                Display.DISPLAY_WIDTH * scale,
+                Display.DISPLAY_HEIGHT * scale,
+                BufferedImage.TYPE_BYTE_BINARY,
+                colorModel
+        );
+        int[] line = new int[Display.DISPLAY_WIDTH * scale];
+        CapturedFrame previous = null;
+        boolean writing = true;
+        while (true) {
+            CapturedFrame frame;
+            try {
+                frame = queue.take();
+            } catch (InterruptedException e) {
+                log.error("frame capture interrupted");
+                break;
+            }
+            if (writing && previous != null) {
+                try {
+                    // a GIF frame is written when the next one arrives, to know its delay
+                    writeFrame(gifWriter, image, line, previous, frame.frame);
+                    encodedFrames += 1;
+                } catch (IOException | RuntimeException e) {
+                    log.error("frame capture '{}' failed: {}", outputPath, e.toString());
+                    failed = true;
+                    writing = false;
+                }
+            }
+            if (frame.rows == null) {
+                break;
+            }
+            previous = frame;
+        }
+        if (gifWriter != null) {
+            ImageOutputStream output = (ImageOutputStream) gifWriter.getOutput();
+            try {
+                if (writing) {
+                    gifWriter.endWriteSequence();
+                }
+            } catch (IOException e) {
+                log.error("cannot close frame capture '{}': {}", outputPath, e.toString());
+            } finally {
+                gifWriter.dispose();
+                closeOutput(output);
+            }
+        }
+    }
+
+    private void closeOutput(ImageOutputStream output) {
+        try {
+            output.close();
+        } catch (IOException e) {
+            log.error("cannot close frame capture '{}': {}", outputPath, e.toString());
+        }
+    }
+
+    private void writeFrame(
+            ImageWriter gifWriter,
+            BufferedImage image,
+            int[] line,
+            CapturedFrame frame,
+            long nextFrame
+    ) throws IOException {
+        WritableRaster raster = image.getRaster();
+        for (int row = 0; row < Display.DISPLAY_HEIGHT; row++) {
+            long bits = frame.rows[row];
+            for (int col = 0; col < Display.DISPLAY_WIDTH; col++) {
+                Arrays.fill(line, col * scale, (col + 1) * scale, (int) ((bits >>> (Long.SIZE - 1 - col)) & 1));
+            }
+            for (int y = row * scale; y < (row + 1) * scale; y++) {
+                raster.setPixels(0, y, line.length, 1, line);
+            }
+        }
+        if (gifWriter == null) {
+            Path path = outputPath.resolve(String.format("frame_%06d.png", frame.frame));
+            if (!ImageIO.write(image, "png", path.toFile())) {
+                throw new IOException("no PNG image writer");
+            }
+            return;
+        }
+        // compute delays from absolute times, so that rounding to hundredths of a second does not accumulate
+        long delay = (nextFrame * GIF_TIME_UNITS / BaseChip8.FRAME_RATE)
+                - (frame.frame * GIF_TIME_UNITS / BaseChip8.FRAME_RATE);
+        IIOMetadata metadata = createGifMetadata(
+                gifWriter,
+                ImageTypeSpecifier.createFromRenderedImage(image),
+                (int) Math.min(delay, 0xFFFF),
+                encodedFrames == 0
+        );
+        gifWriter.writeToSequence(new IIOImage(image, null, metadata), null);
+    }
+
+    private static boolean isSameContent(Display display, long[] rows) {
+        for (int row = 0; row < Display.DISPLAY_HEIGHT; row++) {
+            if (display.getRow(row) != rows[row]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static IndexColorModel createColorModel(Palette palette) {
+        int[] colors = {palette.getBackground(), palette.getForeground()};
+        byte[] red = new byte[colors.length];
+        byte[] green = new byte[colors.length];
+        byte[] blue = new byte[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            red[i] = (byte) (colors[i] >>> 16);
+            green[i] = (byte) (colors[i] >>> 8);
+            blue[i] = (byte) colors[i];
+        }
+        return new IndexColorModel(1, colors.length, red, green, blue);
+    }
+
+    private static ImageWriter createGifWriter(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.deleteIfExists(path);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        ImageOutputStream output = ImageIO.createImageOutputStream(path.toFile());
+        if (output == null) {
+            throw new IOException("cannot open image output stream");
+        }
+        writer.setOutput(output);
+        writer.prepareWriteSequence(null);
+        return writer;
+    }
+
+    private static IIOMetadata createGifMetadata(
+            ImageWriter writer,
+            ImageTypeSpecifier imageType,
+            int delay,
+            boolean first
+    ) throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(imageType, writer.getDefaultWriteParam());
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+        IIOMetadataNode graphicControl = getOrAddChild(root, "GraphicControlExtension");
+        graphicControl.setAttribute("disposalMethod", "none");
+        graphicControl.setAttribute("userInputFlag", "FALSE");
+        graphicControl.setAttribute("transparentColorFlag", "FALSE");
+        graphicControl.setAttribute("delayTime", Integer.toString(delay));
+        graphicControl.setAttribute("transparentColorIndex", "0");
+        if (first) {
+            // NETSCAPE2.0 extension: loop forever
+            IIOMetadataNode application = new IIOMetadataNode("ApplicationExtension");
+            application.setAttribute("applicationID", "NETSCAPE");
+            application.setAttribute("authenticationCode", "2.0");
+            application.setUserObject(new byte[]{1, 0, 0});
+            getOrAddChild(root, "ApplicationExtensions").appendChild(application);
+        }
+        metadata.setFromTree(format, root);
+        return metadata;
+    }
+
+    private static IIOMetadataNode getOrAddChild(IIOMetadataNode parent, String name) {
+        for (int i = 0; i < parent.getLength(); i++) {
+            if (parent.item(i).getNodeName().equals(name)) {
+                return (IIOMetadataNode) parent.item(i);
+            }
+        }
+        IIOMetadataNode child = new IIOMetadataNode(name);
+        parent.appendChild(child);
+        return child;
+    }
+
+    /**
+     * display rows captured at a present
+     */
+    private static final class CapturedFrame {
+        /**
+         * index of the present the frame first appeared at
+         */
+        private final long frame;
+        /**
+         * nullable display rows, null for the end of capture marker
+         */
+        private final long[] rows;
+
+        private CapturedFrame(long frame, long[] rows) {
+            this.frame = frame;
+            this.rows = rows;
+        }
+    }
+}
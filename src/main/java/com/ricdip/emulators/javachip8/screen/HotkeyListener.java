@@ -0,0 +1,28 @@
+package com.ricdip.emulators.javachip8.screen;
+
+/**
+ * listener of the emulator hotkeys. Methods are called by the input thread: implementations hand the requests over to
+ * the emulation thread.
+ */
+public interface HotkeyListener {
+    /**
+     * save the machine state to a slot
+     *
+     * @param slot the save slot, starting from 1
+     */
+    void saveState(int slot);
+
+    /**
+     * load the machine state from a slot
+     *
+     * @param slot the save slot, starting from 1
+     */
+    void loadState(int slot);
+
+    /**
+     * start or stop rewinding the emulation
+     *
+     * @param active true while the rewind hotkey is held, false when it is released
+     */
+    void rewind(boolean active);
+}
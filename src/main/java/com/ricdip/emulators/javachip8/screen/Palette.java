@@ -0,0 +1,52 @@
+package com.ricdip.emulators.javachip8.screen;
+
+/**
+ * selectable display colors, as 0xRRGGBB values
+ */
+public enum Palette {
+    /**
+     * white pixels on black background
+     */
+    CLASSIC(0xFFFFFF, 0x000000),
+
+    /**
+     * amber monochrome monitor
+     */
+    AMBER(0xFFB000, 0x1A1000),
+
+    /**
+     * green phosphor monochrome monitor
+     */
+    GREEN(0x33FF66, 0x001A08),
+
+    /**
+     * dark pixels on a greenish liquid crystal display
+     */
+    LCD(0x0F380F, 0x9BBC0F);
+
+    private final int foreground;
+    private final int background;
+
+    Palette(int foreground, int background) {
+        this.foreground = foreground;
+        this.background = background;
+    }
+
+    /**
+     * get the color of pixels that are on
+     *
+     * @return 0xRRGGBB color
+     */
+    public int getForeground() {
+        return foreground;
+    }
+
+    /**
+     * get the color of pixels that are off
+     *
+     * @return 0xRRGGBB color
+     */
+    public int getBackground() {
+        return background;
+    }
+}
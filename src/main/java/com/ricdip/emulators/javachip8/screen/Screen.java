@@ -5,7 +5,8 @@ import com.ricdip.emulators.javachip8.engine.Keyboard;
 
 public interface Screen {
     /**
-     * redraw screen
+     * redraw the screen regions whose display rows changed since the last redraw. Called by the emulation thread
+     * once per frame: implementations copy the display content and must not read it after returning.
      *
      * @param display CHIP-8 display to redraw
      */
@@ -18,6 +19,13 @@ public interface Screen {
      */
     void attachKeyboard(Keyboard keyboard);
 
+    /**
+     * start listening emulator hotkeys
+     *
+     * @param listener listener of the emulator hotkeys
+     */
+    void attachHotkeys(HotkeyListener listener);
+
     /**
      * check if screen is closed
      *
@@ -1,44 +1,152 @@
 package com.ricdip.emulators.javachip8.screen;
 
 import com.ricdip.emulators.javachip8.engine.Display;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-@AllArgsConstructor
+/**
+ * Swing component that renders the CHIP-8 display. Pixels are written straight to the <code>int[]</code> data buffer
+ * of a pre-scaled image, which is presented with a single unscaled <code>drawImage</code> call: an unscaled copy is
+ * several times faster than a scaled one on the software rendering pipeline.
+ * Frames are handed from the emulation thread to the event dispatch thread through a {@link TripleBufferedFrame}, and
+ * at most one presentation is pending at any time, however many frames are published meanwhile.
+ */
 @Slf4j
 public class SwingDisplayComponent extends JComponent {
-    public static final int PIXEL_SIZE = 10;
-    private Display display;
+    public static final int DEFAULT_SCALE = 10;
+    private final int scale;
+    private final int foreground;
+    private final int background;
+    private final BufferedImage image;
+    /**
+     * image pixels, 0xRRGGBB values: each display pixel is a square of <code>scale</code> x <code>scale</code> values
+     */
+    private final int[] pixels;
+    private final TripleBufferedFrame frames;
+    /**
+     * true if a presentation has been scheduled on the event dispatch thread and has not started yet
+     */
+    private final AtomicBoolean presentPending;
+    /**
+     * display rows currently rendered in the image, only accessed by the event dispatch thread
+     */
+    private final long[] renderedRows;
+
+    public SwingDisplayComponent(Display display, int scale, Palette palette) {
+        this.scale = scale;
+        this.foreground = palette.getForeground();
+        this.background = palette.getBackground();
+        image = new BufferedImage(
+                Display.DISPLAY_WIDTH * scale,
+                Display.DISPLAY_HEIGHT * scale,
+                BufferedImage.TYPE_INT_RGB
+        );
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        frames = new TripleBufferedFrame();
+        presentPending = new AtomicBoolean();
+        renderedRows = new long[Display.DISPLAY_HEIGHT];
+        for (int row = 0; row < Display.DISPLAY_HEIGHT; row++) {
+            renderedRows[row] = display.getRow(row);
+            renderRow(row, renderedRows[row]);
+        }
+    }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        for (int height = 0; height < Display.DISPLAY_HEIGHT; height++) {
-            for (int width = 0; width < Display.DISPLAY_WIDTH; width++) {
-                if (display.isPixelSet(height, width)) {
-                    g.setColor(Color.WHITE);
-                } else {
-                    g.setColor(Color.BLACK);
-                }
-                g.fillRect(width * PIXEL_SIZE, height * PIXEL_SIZE, PIXEL_SIZE, PIXEL_SIZE);
-            }
-        }
+        // only the clip region is actually drawn
+        g.drawImage(image, 0, 0, null);
     }
 
+    /**
+     * publish the display content as a complete frame, called by the emulation thread once per frame
+     *
+     * @param display CHIP-8 display to present
+     */
     public void redraw(Display display) {
+        if (!publish(display)) {
+            return;
+        }
         log.trace("redraw screen");
-        this.display = display;
-        repaint();
+        if (presentPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::present);
+        }
+    }
+
+    /**
+     * publish the display content as a complete frame if it changed since the previous one
+     *
+     * @param display CHIP-8 display to present
+     * @return true if a frame was published, false otherwise
+     */
+    boolean publish(Display display) {
+        if (display.takeDirtyRows() == 0) {
+            return false;
+        }
+        frames.publish(display);
+        return true;
+    }
+
+    /**
+     * render the rows of the latest published frame that differ from the image
+     *
+     * @return rendered rows, bit <code>n</code> set if row <code>n</code> changed
+     */
+    int render() {
+        long[] rows = frames.acquire();
+        int dirtyRows = 0;
+        for (int row = 0; row < Display.DISPLAY_HEIGHT; row++) {
+            if (rows[row] != renderedRows[row]) {
+                renderedRows[row] = rows[row];
+                renderRow(row, rows[row]);
+                dirtyRows |= 1 << row;
+            }
+        }
+        return dirtyRows;
+    }
+
+    /**
+     * render the latest published frame and repaint each run of consecutive changed rows, called by the event
+     * dispatch thread
+     */
+    private void present() {
+        // frames published from now on schedule a new presentation
+        presentPending.set(false);
+        int dirtyRows = render();
+        while (dirtyRows != 0) {
+            int firstRow = Integer.numberOfTrailingZeros(dirtyRows);
+            int rowCount = Integer.numberOfTrailingZeros(~(dirtyRows >>> firstRow));
+            repaint(0, firstRow * scale, Display.DISPLAY_WIDTH * scale, rowCount * scale);
+            dirtyRows &= (int) ~(((1L << rowCount) - 1) << firstRow);
+        }
     }
 
     @Override
     public Dimension getPreferredSize() {
         return new Dimension(
-                Display.DISPLAY_WIDTH * PIXEL_SIZE,
-                Display.DISPLAY_HEIGHT * PIXEL_SIZE
+                Display.DISPLAY_WIDTH * scale,
+                Display.DISPLAY_HEIGHT * scale
         );
     }
+
+    private void renderRow(int row, long bits) {
+        int lineLength = Display.DISPLAY_WIDTH * scale;
+        int offset = row * scale * lineLength;
+        // render the first image line of the row, then copy it to the others
+        int index = offset;
+        for (int col = 0; col < Display.DISPLAY_WIDTH; col++) {
+            int color = (bits & (Long.MIN_VALUE >>> col)) != 0 ? foreground : background;
+            for (int i = 0; i < scale; i++) {
+                pixels[index++] = color;
+            }
+        }
+        for (int line = 1; line < scale; line++) {
+            System.arraycopy(pixels, offset, pixels, offset + (line * lineLength), lineLength);
+        }
+    }
 }
@@ -2,6 +2,8 @@ package com.ricdip.emulators.javachip8.screen;
 
 import com.ricdip.emulators.javachip8.engine.Display;
 import com.ricdip.emulators.javachip8.engine.Keyboard;
+import com.ricdip.emulators.javachip8.engine.SaveStateManager;
+import com.ricdip.emulators.javachip8.events.KeyInputEvent;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -10,21 +12,28 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.WindowEvent;
-import java.util.Optional;
 
 @Getter
 @Slf4j
 public class SwingScreen implements Screen {
     public static final String WINDOW_TITLE = "CHIP-8";
+    /**
+     * F1 - F4 load the state of slots 1 - 4, Shift + F1 - F4 save it
+     */
+    public static final int FIRST_SLOT_KEY_CODE = KeyEvent.VK_F1;
+    /**
+     * rewind the emulation while held
+     */
+    public static final int REWIND_KEY_CODE = KeyEvent.VK_BACK_SPACE;
     private final SwingDisplayComponent swingDisplayComponent;
     private final JFrame frame;
 
-    public SwingScreen(Display display) {
+    public SwingScreen(Display display, int scale, Palette palette) {
         frame = new JFrame(WINDOW_TITLE);
         frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         frame.setResizable(false);
         frame.setVisible(true);
-        swingDisplayComponent = new SwingDisplayComponent(display);
+        swingDisplayComponent = new SwingDisplayComponent(display, scale, palette);
         frame.add(swingDisplayComponent);
         frame.pack();
         frame.setLocationRelativeTo(null);
@@ -47,14 +56,20 @@ public class SwingScreen implements Screen {
         frame.addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                Optional<Integer> keyPressed = getChip8Key(e.getKeyChar());
-                keyPressed.ifPresent(keyboard::setKeyPressed);
+                int keyPressed = getChip8Key(e.getKeyChar());
+                if (keyPressed != Keyboard.NO_KEY) {
+                    keyboard.setKeyPressed(keyPressed);
+                    commitKeyInputEvent(keyPressed, true);
+                }
             }
 
             @Override
             public void keyReleased(KeyEvent e) {
-                Optional<Integer> keyReleased = getChip8Key(e.getKeyChar());
-                keyReleased.ifPresent(keyboard::setKeyReleased);
+                int keyReleased = getChip8Key(e.getKeyChar());
+                if (keyReleased != Keyboard.NO_KEY) {
+                    keyboard.setKeyReleased(keyReleased);
+                    commitKeyInputEvent(keyReleased, false);
+                }
             }
         });
         frame.setFocusable(true);
@@ -62,25 +77,64 @@ public class SwingScreen implements Screen {
         log.info("keyboard attached");
     }
 
-    private Optional<Integer> getChip8Key(char key) {
+    @Override
+    public void attachHotkeys(HotkeyListener listener) {
+        frame.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == REWIND_KEY_CODE) {
+                    listener.rewind(true);
+                    return;
+                }
+                int slot = e.getKeyCode() - FIRST_SLOT_KEY_CODE + 1;
+                if (slot < 1 || slot > SaveStateManager.SLOTS) {
+                    return;
+                }
+                if (e.isShiftDown()) {
+                    listener.saveState(slot);
+                } else {
+                    listener.loadState(slot);
+                }
+            }
+
+            @Override
+            public void keyReleased(KeyEvent e) {
+                if (e.getKeyCode() == REWIND_KEY_CODE) {
+                    listener.rewind(false);
+                }
+            }
+        });
+        log.info("hotkeys attached");
+    }
+
+    private void commitKeyInputEvent(int key, boolean pressed) {
+        KeyInputEvent event = new KeyInputEvent();
+        if (event.isEnabled()) {
+            event.setKey(key);
+            event.setPressed(pressed);
+            event.commit();
+        }
+    }
+
+    private int getChip8Key(char key) {
         return switch (Character.toLowerCase(key)) {
-            case '1' -> Optional.of(0x1);
-            case '2' -> Optional.of(0x2);
-            case '3' -> Optional.of(0x3);
-            case '4' -> Optional.of(0xC);
-            case 'q' -> Optional.of(0x4);
-            case 'w' -> Optional.of(0x5);
-            case 'e' -> Optional.of(0x6);
-            case 'r' -> Optional.of(0xD);
-            case 'a' -> Optional.of(0x7);
-            case 's' -> Optional.of(0x8);
-            case 'd' -> Optional.of(0x9);
-            case 'f' -> Optional.of(0xE);
-            case 'z' -> Optional.of(0xA);
-            case 'x' -> Optional.of(0x0);
-            case 'c' -> Optional.of(0xB);
-            case 'v' -> Optional.of(0xF);
-            default -> Optional.empty();
+            case '1' -> 0x1;
+            case '2' -> 0x2;
+            case '3' -> 0x3;
+            case '4' -> 0xC;
+            case 'q' -> 0x4;
+            case 'w' -> 0x5;
+            case 'e' -> 0x6;
+            case 'r' -> 0xD;
+            case 'a' -> 0x7;
+            case 's' -> 0x8;
+            case 'd' -> 0x9;
+            case 'f' -> 0xE;
+            case 'z' -> 0xA;
+            case 'x' -> 0x0;
+            case 'c' -> 0xB;
+            case 'v' -> 0xF;
+            default -> Keyboard.NO_KEY;
         };
     }
 
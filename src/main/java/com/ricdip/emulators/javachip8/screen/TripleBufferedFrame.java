@@ -0,0 +1,60 @@
+package com.ricdip.emulators.javachip8.screen;
+
+import com.ricdip.emulators.javachip8.engine.Display;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * lock-free triple buffer of display frames, that hands complete frames from the emulation thread (writer) to the
+ * rendering thread (reader). The writer fills the back buffer and swaps it with the middle one, the reader swaps its
+ * front buffer with the middle one only if a new frame has been published since. Neither thread ever waits, and the
+ * reader never sees a partially written frame.
+ */
+final class TripleBufferedFrame {
+    private static final int INDEX_MASK = 0b011;
+    /**
+     * set in the middle index when it holds a frame not yet acquired by the reader
+     */
+    private static final int FRESH = 0b100;
+    /**
+     * three frames of display rows
+     */
+    private final long[][] frames = new long[3][Display.DISPLAY_HEIGHT];
+    /**
+     * index of the frame shared between writer and reader, plus the fresh flag
+     */
+    private final AtomicInteger middle = new AtomicInteger(1);
+    /**
+     * index of the frame owned by the writer
+     */
+    private int back = 0;
+    /**
+     * index of the frame owned by the reader
+     */
+    private int front = 2;
+
+    /**
+     * copy the display content to a new frame and publish it, called by the writer
+     *
+     * @param display the display to copy
+     */
+    void publish(Display display) {
+        long[] frame = frames[back];
+        for (int row = 0; row < Display.DISPLAY_HEIGHT; row++) {
+            frame[row] = display.getRow(row);
+        }
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * get the latest published frame, called by the reader. The frame is owned by the reader until the next call.
+     *
+     * @return display rows of the latest frame, the most significant bit is the leftmost pixel
+     */
+    long[] acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return frames[front];
+    }
+}
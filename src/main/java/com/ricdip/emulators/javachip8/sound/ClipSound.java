@@ -1,5 +1,6 @@
 package com.ricdip.emulators.javachip8.sound;
 
+import com.ricdip.emulators.javachip8.events.SoundEvent;
 import com.ricdip.emulators.javachip8.exception.SoundException;
 import lombok.extern.slf4j.Slf4j;
 
@@ -11,6 +12,7 @@ import java.io.InputStream;
 public class ClipSound implements Sound {
     private static final String BEEP_CLIP_RESOURCE_PATH = "sound/beep.wav";
     private final Clip beepClip;
+    private boolean playing;
 
     public ClipSound() {
         beepClip = loadAudioClip();
@@ -18,8 +20,25 @@ public class ClipSound implements Sound {
     }
 
     @Override
-    public void performSound() {
-        beepClip.start();
+    public void update(boolean active) {
+        if (active == playing) {
+            return;
+        }
+        SoundEvent event = new SoundEvent();
+        event.begin();
+        if (active) {
+            // restart the beep from the beginning and loop it until the sound timer stops
+            beepClip.setFramePosition(0);
+            beepClip.loop(Clip.LOOP_CONTINUOUSLY);
+        } else {
+            beepClip.stop();
+        }
+        playing = active;
+        event.end();
+        if (event.shouldCommit()) {
+            event.setActive(active);
+            event.commit();
+        }
     }
 
     @Override
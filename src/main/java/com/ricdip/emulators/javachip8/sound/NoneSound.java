@@ -2,7 +2,7 @@ package com.ricdip.emulators.javachip8.sound;
 
 public class NoneSound implements Sound {
     @Override
-    public void performSound() {
+    public void update(boolean active) {
         // NOOP
     }
 
@@ -4,9 +4,14 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class PrintSound implements Sound {
+    private boolean playing;
+
     @Override
-    public void performSound() {
-        log.info("BEEP");
+    public void update(boolean active) {
+        if (active && !playing) {
+            log.info("BEEP");
+        }
+        playing = active;
     }
 
     @Override
@@ -1,13 +1,27 @@
 package com.ricdip.emulators.javachip8.sound;
 
-public interface Sound {
+public interface Sound extends AutoCloseable {
     /**
-     * perform sound with sound implementation
+     * update the sound with the sound timer state, called by the machine at each 60 Hz timers update. The sound
+     * plays from an update with <code>active</code> set to true until the next update with <code>active</code> set
+     * to false.
+     *
+     * @param active true while the sound timer is not 0
      */
-    void performSound();
+    void update(boolean active);
+
+    /**
+     * get the number of times the audio output ran out of samples
+     *
+     * @return audio underruns, 0 if the implementation does not stream samples
+     */
+    default long getUnderruns() {
+        return 0;
+    }
 
     /**
      * close sound implementation
      */
+    @Override
     void close();
 }
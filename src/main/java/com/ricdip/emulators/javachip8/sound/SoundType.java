@@ -0,0 +1,21 @@
+package com.ricdip.emulators.javachip8.sound;
+
+/**
+ * selectable sound implementations of the windowed emulation
+ */
+public enum SoundType {
+    /**
+     * square wave synthesized on a dedicated audio thread, see {@link StreamingSound}
+     */
+    STREAM,
+
+    /**
+     * beep sample looped while the sound timer is active, see {@link ClipSound}
+     */
+    CLIP,
+
+    /**
+     * no sound
+     */
+    NONE
+}
@@ -0,0 +1,65 @@
+package com.ricdip.emulators.javachip8.sound;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * square wave generator producing 16-bit signed little-endian mono samples. The wave restarts from the beginning of
+ * a period at each activation, so that every beep has the same shape.
+ */
+public class SquareWave {
+    /**
+     * sample rate in Hz
+     */
+    public static final int SAMPLE_RATE = 44100;
+    /**
+     * bytes per sample
+     */
+    public static final int SAMPLE_BYTES = 2;
+    /**
+     * tone frequency in Hz
+     */
+    public static final int FREQUENCY = 440;
+    /**
+     * peak sample value, a quarter of the full scale
+     */
+    public static final short AMPLITUDE = 8192;
+    private static final double PERIOD_SAMPLES = (double) SAMPLE_RATE / FREQUENCY;
+    private double phase;
+
+    /**
+     * get the audio format of the generated samples
+     *
+     * @return 16-bit signed little-endian mono PCM format at {@link #SAMPLE_RATE} Hz
+     */
+    public static AudioFormat getFormat() {
+        return new AudioFormat(SAMPLE_RATE, SAMPLE_BYTES * 8, 1, true, false);
+    }
+
+    /**
+     * write samples into a buffer
+     *
+     * @param buffer  the destination buffer
+     * @param offset  first byte to write
+     * @param samples number of samples to write
+     * @param active  true to write the tone, false to write silence
+     */
+    public void generate(byte[] buffer, int offset, int samples, boolean active) {
+        int end = offset + (samples * SAMPLE_BYTES);
+        if (!active) {
+            phase = 0;
+            for (int i = offset; i < end; i++) {
+                buffer[i] = 0;
+            }
+            return;
+        }
+        for (int i = offset; i < end; i += SAMPLE_BYTES) {
+            int sample = phase < PERIOD_SAMPLES / 2 ? AMPLITUDE : -AMPLITUDE;
+            buffer[i] = (byte) sample;
+            buffer[i + 1] = (byte) (sample >> 8);
+            phase += 1;
+            if (phase >= PERIOD_SAMPLES) {
+                phase -= PERIOD_SAMPLES;
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.ricdip.emulators.javachip8.sound;
+
+import com.ricdip.emulators.javachip8.events.SoundEvent;
+import com.ricdip.emulators.javachip8.exception.SoundException;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * square wave synthesized on a dedicated audio thread and streamed to a {@link SourceDataLine}. The machine only
+ * publishes the sound timer state, the audio thread keeps the line fed with tone or silence: the sound follows the
+ * sound timer whatever the instruction rate. A smaller buffer lowers the latency, a larger one avoids underruns when
+ * the audio thread is not scheduled in time.
+ */
+@Slf4j
+public class StreamingSound implements Sound {
+    /**
+     * default line buffer length in milliseconds
+     */
+    public static final int DEFAULT_BUFFER_MILLIS = 40;
+    /**
+     * the audio thread fills the line buffer <code>WRITE_CHUNKS</code> chunks at a time
+     */
+    private static final int WRITE_CHUNKS = 4;
+    private final SourceDataLine line;
+    private final SquareWave squareWave;
+    private final byte[] chunk;
+    private final Thread audioThread;
+    private volatile boolean active;
+    private volatile boolean running;
+    /**
+     * written by the audio thread only
+     */
+    private volatile long underruns;
+    private boolean playing;
+
+    /**
+     * open the audio line and start the audio thread
+     *
+     * @param bufferMillis line buffer length in milliseconds
+     * @throws SoundException if the audio line cannot be opened
+     */
+    public StreamingSound(int bufferMillis) {
+        AudioFormat format = SquareWave.getFormat();
+        int bufferSamples = Math.max(WRITE_CHUNKS, SquareWave.SAMPLE_RATE * bufferMillis / 1000);
+        try {
+            line = AudioSystem.getSourceDataLine(format);
+            line.open(format, bufferSamples * SquareWave.SAMPLE_BYTES);
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            throw new SoundException("Exception occurred during audio line opening", e);
+        }
+        // the line may not use the requested buffer size
+        int lineSamples = line.getBufferSize() / SquareWave.SAMPLE_BYTES;
+        chunk = new byte[Math.max(1, lineSamples / WRITE_CHUNKS) * SquareWave.SAMPLE_BYTES];
+        squareWave = new SquareWave();
+        running = true;
+        audioThread = new Thread(this::stream, "chip8-audio");
+        audioThread.setDaemon(true);
+        audioThread.setPriority(Thread.MAX_PRIORITY);
+        audioThread.start();
+        log.info(
+                "sound initialized: {} ms line buffer, {} samples per write",
+                lineSamples * 1000 / SquareWave.SAMPLE_RATE,
+                chunk.length / SquareWave.SAMPLE_BYTES
+        );
+    }
+
+    @Override
+    public void update(boolean active) {
+        if (active == playing) {
+            return;
+        }
+        SoundEvent event = new SoundEvent();
+        event.begin();
+        this.active = active;
+        playing = active;
+        event.end();
+        if (event.shouldCommit()) {
+            event.setActive(active);
+            event.commit();
+        }
+    }
+
+    @Override
+    public long getUnderruns() {
+        return underruns;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        // unblock a pending write
+        line.stop();
+        line.flush();
+        try {
+            audioThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        line.close();
+        log.info("sound closed: {} underruns", underruns);
+    }
+
+    /**
+     * audio thread loop: write the next chunk as soon as the line has room for it
+     */
+    private void stream() {
+        line.start();
+        boolean primed = false;
+        while (running) {
+            squareWave.generate(chunk, 0, chunk.length / SquareWave.SAMPLE_BYTES, active);
+            // an empty line buffer before a write means the line ran out of samples
+            if (primed && line.available() >= line.getBufferSize()) {
+                underruns += 1;
+            }
+            line.write(chunk, 0, chunk.length);
+            primed = true;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ricdip.emulators.javachip8.sound;
+
+import com.ricdip.emulators.javachip8.engine.BaseChip8;
+import com.ricdip.emulators.javachip8.exception.SoundException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * render the sound to a WAV file, timed by emulated frames instead of wall time: each update renders exactly
+ * {@link #FRAME_SAMPLES} samples of tone or silence. The same run always produces the same file, whatever the
+ * emulation speed, so that audio tracks of headless runs can be compared byte by byte.
+ */
+@Slf4j
+public class WavSound implements Sound {
+    /**
+     * samples rendered per 60 Hz frame
+     */
+    public static final int FRAME_SAMPLES = SquareWave.SAMPLE_RATE / BaseChip8.FRAME_RATE;
+    /**
+     * length of the RIFF/WAVE header: RIFF chunk descriptor, "fmt " chunk and "data" chunk header
+     */
+    private static final int HEADER_LENGTH = 44;
+    /**
+     * samples are written to the file <code>BUFFER_FRAMES</code> frames at a time
+     */
+    private static final int BUFFER_FRAMES = 64;
+    private final Path wavPath;
+    private final FileChannel channel;
+    private final SquareWave squareWave;
+    private final ByteBuffer buffer;
+    private long samples;
+    private boolean closed;
+
+    /**
+     * create the WAV file, overwriting it if it exists
+     *
+     * @param wavPath path of the WAV file
+     * @throws SoundException if the file cannot be created
+     */
+    public WavSound(Path wavPath) {
+        this.wavPath = wavPath;
+        try {
+            channel = FileChannel.open(
+                    wavPath,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE
+            );
+            // header sizes are written at close
+            channel.position(HEADER_LENGTH);
+        } catch (IOException e) {
+            throw new SoundException(String.format("Exception occurred during WAV file '%s' creation", wavPath), e);
+        }
+        squareWave = new SquareWave();
+        buffer = ByteBuffer.allocate(FRAME_SAMPLES * SquareWave.SAMPLE_BYTES * BUFFER_FRAMES);
+        log.info("rendering sound to WAV file '{}'", wavPath);
+    }
+
+    @Override
+    public void update(boolean active) {
+        squareWave.generate(buffer.array(), buffer.position(), FRAME_SAMPLES, active);
+        buffer.position(buffer.position() + (FRAME_SAMPLES * SquareWave.SAMPLE_BYTES));
+        samples += FRAME_SAMPLES;
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+    }
+
+    /**
+     * write the buffered samples and the header, then close the file. Further calls have no effect.
+     *
+     * @throws SoundException if an error occurs during file writing
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (FileChannel wavChannel = channel) {
+            flush();
+            wavChannel.write(createHeader(samples * SquareWave.SAMPLE_BYTES), 0);
+        } catch (IOException e) {
+            throw new SoundException(String.format("Exception occurred during WAV file '%s' writing", wavPath), e);
+        }
+        log.info(
+                "WAV file '{}' written: {} samples, {} frames",
+                wavPath,
+                samples,
+                samples / FRAME_SAMPLES
+        );
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new SoundException(String.format("Exception occurred during WAV file '%s' writing", wavPath), e);
+        }
+        buffer.clear();
+    }
+
+    private static ByteBuffer createHeader(long dataLength) {
+        if (dataLength > 0xFFFFFFFFL - HEADER_LENGTH) {
+            throw new SoundException("WAV file too long: RIFF chunk sizes are limited to 4 GB");
+        }
+        int byteRate = SquareWave.SAMPLE_RATE * SquareWave.SAMPLE_BYTES;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(new byte[]{'R', 'I', 'F', 'F'});
+        header.putInt((int) (dataLength + HEADER_LENGTH - 8));
+        header.put(new byte[]{'W', 'A', 'V', 'E'});
+        header.put(new byte[]{'f', 'm', 't', ' '});
+        header.putInt(16); // fmt chunk size
+        header.putShort((short) 1); // PCM
+        header.putShort((short) 1); // mono
+        header.putInt(SquareWave.SAMPLE_RATE);
+        header.putInt(byteRate);
+        header.putShort((short) SquareWave.SAMPLE_BYTES); // block align
+        header.putShort((short) (SquareWave.SAMPLE_BYTES * 8)); // bits per sample
+        header.put(new byte[]{'d', 'a', 't', 'a'});
+        header.putInt((int) dataLength);
+        return header.flip();
+    }
+}
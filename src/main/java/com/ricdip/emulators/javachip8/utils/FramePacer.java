@@ -0,0 +1,98 @@
+package com.ricdip.emulators.javachip8.utils;
+
+import com.ricdip.emulators.javachip8.events.SlowFrameEvent;
+import com.ricdip.emulators.javachip8.exception.ExecutionException;
+import lombok.Getter;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * pace a loop at a fixed frame rate. Frame deadlines are computed from the first frame start, so that sleep
+ * inaccuracies do not accumulate (drift compensation). The thread is parked until the deadline, optionally spinning
+ * for the last <code>spinNanos</code> nanoseconds to reduce wake-up jitter.
+ */
+public class FramePacer {
+    /**
+     * if a frame ends more than <code>MAX_LAG_FRAMES</code> frames late, the missed deadlines are dropped instead of
+     * being caught up
+     */
+    public static final int MAX_LAG_FRAMES = 5;
+    /**
+     * default busy-wait time before each deadline, when spinning is enabled
+     */
+    public static final long DEFAULT_SPIN_NANOS = 500_000;
+    private final long frameNanos;
+    private final long spinNanos;
+    @Getter
+    private final FrameTimeStats frameTimeStats;
+    private long nextFrameNanos;
+    private long lastFrameNanos;
+    /**
+     * number of times the pacer fell behind more than <code>MAX_LAG_FRAMES</code> frames and resynchronized
+     */
+    @Getter
+    private long resyncCount;
+
+    /**
+     * create frame pacer
+     *
+     * @param hertz     frame rate
+     * @param spinNanos nanoseconds to busy-wait before each deadline, 0 to only park
+     */
+    public FramePacer(int hertz, long spinNanos) {
+        this.frameNanos = Math.round(1e9 / hertz);
+        this.spinNanos = spinNanos;
+        this.frameTimeStats = new FrameTimeStats(frameNanos);
+        start();
+    }
+
+    /**
+     * (re)start pacing from now
+     */
+    public void start() {
+        lastFrameNanos = System.nanoTime();
+        nextFrameNanos = lastFrameNanos + frameNanos;
+    }
+
+    /**
+     * wait until the next frame deadline
+     *
+     * @throws ExecutionException if the thread is interrupted while waiting
+     */
+    public void awaitNextFrame() {
+        long parkDeadline = nextFrameNanos - spinNanos;
+        long now = System.nanoTime();
+        while (now < parkDeadline) {
+            LockSupport.parkNanos(parkDeadline - now);
+            if (Thread.interrupted()) {
+                throw new ExecutionException(
+                        String.format("Interrupted while waiting for next frame (frame time %d ns)", frameNanos)
+                );
+            }
+            now = System.nanoTime();
+        }
+        while (now < nextFrameNanos) {
+            Thread.onSpinWait();
+            now = System.nanoTime();
+        }
+
+        long frameTime = now - lastFrameNanos;
+        frameTimeStats.record(frameTime);
+        if (frameTime > frameNanos + FrameTimeStats.LATE_TOLERANCE_NANOS) {
+            SlowFrameEvent event = new SlowFrameEvent();
+            if (event.isEnabled()) {
+                event.setFrameTime(frameTime);
+                event.setTargetFrameTime(frameNanos);
+                event.commit();
+            }
+        }
+        lastFrameNanos = now;
+        if (now - nextFrameNanos > frameNanos * MAX_LAG_FRAMES) {
+            // too late to catch up: restart from now
+            nextFrameNanos = now + frameNanos;
+            resyncCount += 1;
+        } else {
+            nextFrameNanos += frameNanos;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ricdip.emulators.javachip8.utils;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * frame time statistics: mean, standard deviation, percentiles and extremes of the intervals between frames, and number
+ * of frames longer than the target frame time (late frames).
+ * Percentiles come from a histogram of {@link #BUCKET_NANOS} wide buckets, so they are rounded up to the bucket width.
+ */
+@Getter
+public class FrameTimeStats {
+    /**
+     * frames longer than target frame time plus this tolerance are counted as late
+     */
+    public static final long LATE_TOLERANCE_NANOS = 1_000_000;
+    /**
+     * width of the frame time histogram buckets
+     */
+    public static final long BUCKET_NANOS = 100_000;
+    /**
+     * number of frame time histogram buckets: longer frames are all counted in the last bucket
+     */
+    public static final int BUCKETS = 1000;
+    private final long targetFrameNanos;
+    @Getter(AccessLevel.NONE)
+    private final long[] histogram;
+    private long frames;
+    private long lateFrames;
+    private long minFrameNanos = Long.MAX_VALUE;
+    private long maxFrameNanos;
+    private double meanFrameNanos;
+    private double sumSquaredDeviations;
+
+    public FrameTimeStats(long targetFrameNanos) {
+        this.targetFrameNanos = targetFrameNanos;
+        this.histogram = new long[BUCKETS];
+    }
+
+    /**
+     * record the duration of a frame
+     *
+     * @param frameNanos frame duration in nanoseconds
+     */
+    public void record(long frameNanos) {
+        // Welford's online algorithm
+        frames += 1;
+        double delta = frameNanos - meanFrameNanos;
+        meanFrameNanos += delta / frames;
+        sumSquaredDeviations += delta * (frameNanos - meanFrameNanos);
+        minFrameNanos = Math.min(minFrameNanos, frameNanos);
+        maxFrameNanos = Math.max(maxFrameNanos, frameNanos);
+        histogram[(int) Math.min(frameNanos / BUCKET_NANOS, BUCKETS - 1)] += 1;
+        if (frameNanos > targetFrameNanos + LATE_TOLERANCE_NANOS) {
+            lateFrames += 1;
+        }
+    }
+
+    /**
+     * get frame time standard deviation (jitter)
+     *
+     * @return frame time standard deviation in nanoseconds
+     */
+    public double getJitterNanos() {
+        return frames > 1 ? Math.sqrt(sumSquaredDeviations / (frames - 1)) : 0;
+    }
+
+    /**
+     * get a frame time percentile
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return frame time not exceeded by <code>percentile</code> percent of the frames, in nanoseconds
+     */
+    public long getPercentileNanos(double percentile) {
+        if (frames == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(frames * percentile / 100);
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS - 1; bucket++) {
+            count += histogram[bucket];
+            if (count >= rank) {
+                return Math.min((bucket + 1) * BUCKET_NANOS, maxFrameNanos);
+            }
+        }
+        return maxFrameNanos;
+    }
+
+    /**
+     * get average frame rate
+     *
+     * @return frames per second
+     */
+    public double getFramesPerSecond() {
+        return meanFrameNanos > 0 ? 1e9 / meanFrameNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d frames, %.2f fps, frame time mean %.3f ms, jitter %.3f ms, min %.3f ms, p99 %.3f ms, max %.3f ms, " +
+                        "%d late",
+                frames,
+                getFramesPerSecond(),
+                meanFrameNanos / 1e6,
+                getJitterNanos() / 1e6,
+                frames > 0 ? minFrameNanos / 1e6 : 0,
+                getPercentileNanos(99) / 1e6,
+                maxFrameNanos / 1e6,
+                lateFrames
+        );
+    }
+}
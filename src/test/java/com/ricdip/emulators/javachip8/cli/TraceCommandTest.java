@@ -0,0 +1,56 @@
+package com.ricdip.emulators.javachip8.cli;
+
+import com.ricdip.emulators.javachip8.model.TraceQueryConfig;
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceCommandTest {
+    @Test
+    void rangesAreParsed() {
+        List<TraceQueryConfig> configs = new ArrayList<>();
+
+        int exitCode = command(configs).execute("run.c8tr", "--pc", "200-2FF", "--cycles", "1000-2000", "--limit", "5");
+
+        assertEquals(0, exitCode);
+        TraceQueryConfig config = configs.get(0);
+        assertEquals("run.c8tr", config.getTracePath());
+        assertEquals(0x200, config.getFromPC());
+        assertEquals(0x2FF, config.getToPC());
+        assertEquals(1000, config.getFromCycle());
+        assertEquals(2000, config.getToCycle());
+        assertEquals(5, config.getLimit());
+    }
+
+    @Test
+    void invalidRangesAreRejected() {
+        List<TraceQueryConfig> configs = new ArrayList<>();
+        for (String[] args : new String[][]{
+                {"run.c8tr", "--pc", "2FF-200"},
+                {"run.c8tr", "--pc", "200"},
+                {"run.c8tr", "--cycles", "a-b"},
+                {"run.c8tr", "--limit", "0"}
+        }) {
+            CommandLine command = command(configs);
+            StringWriter errors = new StringWriter();
+            command.setErr(new PrintWriter(errors));
+
+            int exitCode = command.execute(args);
+
+            assertEquals(CommandLine.ExitCode.USAGE, exitCode, String.join(" ", args));
+            assertTrue(errors.toString().startsWith("Invalid "), errors.toString());
+        }
+        assertTrue(configs.isEmpty());
+    }
+
+    private static CommandLine command(List<TraceQueryConfig> configs) {
+        return new CommandLine(new TraceCommand(configs::add));
+    }
+}
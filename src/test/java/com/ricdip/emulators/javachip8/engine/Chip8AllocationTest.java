@@ -0,0 +1,98 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.model.Rom;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * check that the fetch/decode/execute/timers path of the interpreter and the keyboard do not allocate on the heap
+ */
+class Chip8AllocationTest {
+    private static final int CYCLES_PER_FRAME = 10;
+    private static final int WARMUP_CYCLES = 1_000_000;
+    private static final int MEASURED_CYCLES = 5_000_000;
+    private static final long RANDOM_SEED = 42;
+    private static final int KEY = 0x5;
+    private static com.sun.management.ThreadMXBean threadBean;
+
+    @BeforeAll
+    static void setUpThreadBean() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void bundledRomDoesNotAllocate() {
+        assertNoAllocation(TestRoms.bundled("octojam9title.ch8"));
+    }
+
+    @Test
+    void everyInstructionFamilyDoesNotAllocate(@TempDir Path romDirectory) {
+        Rom rom = TestRoms.program(
+                romDirectory,
+                "families.ch8",
+                0x6005, // 200: V0 = 5
+                0xA300, // 202: I = 0x300
+                0xF033, // 204: BCD of V0 at I
+                0xF255, // 206: store V0-V2 at I
+                0xF265, // 208: load V0-V2 from I
+                0x2220, // 20A: call 0x220
+                0xC10F, // 20C: V1 = random key
+                0xE19E, // 20E: skip if key V1 pressed
+                0x6203, // 210: V2 = 3
+                0xE1A1, // 212: skip if key V1 not pressed
+                0xF218, // 214: sound timer = V2
+                0xF215, // 216: delay timer = V2
+                0xF30A, // 218: wait for a key press
+                0x1200, // 21A: jump to 0x200
+                0x0000, // 21C
+                0x0000, // 21E
+                0xF029, // 220: I = font sprite of V0
+                0xD125, // 222: draw 5 rows at (V1, V2)
+                0x8014, // 224: V0 += V1
+                0x8125, // 226: V1 -= V2
+                0x8106, // 228: V1 >>= 1
+                0x810E, // 22A: V1 <<= 1
+                0xA300, // 22C: I = 0x300
+                0x00EE  // 22E: return
+        );
+        assertNoAllocation(rom);
+    }
+
+    private static void assertNoAllocation(Rom rom) {
+        Chip8 chip8 = new Chip8();
+        chip8.setRandomSeed(RANDOM_SEED);
+        chip8.loadRom(rom);
+        run(chip8, WARMUP_CYCLES);
+        long threadId = Thread.currentThread().getId();
+        long allocatedBytes = threadBean.getThreadAllocatedBytes(threadId);
+        run(chip8, MEASURED_CYCLES);
+        long allocatedBytesAfter = threadBean.getThreadAllocatedBytes(threadId);
+        assertEquals(0, allocatedBytesAfter - allocatedBytes, "bytes allocated by " + rom.getRomName());
+    }
+
+    private static void run(Chip8 chip8, int cycles) {
+        Keyboard keyboard = chip8.getKeyboard();
+        for (int frame = 0; frame < cycles / CYCLES_PER_FRAME; frame++) {
+            // a key press every other frame, so that key waits (FX0A) end
+            if ((frame & 1) == 0) {
+                keyboard.setKeyPressed(KEY);
+            } else {
+                keyboard.setKeyReleased(KEY);
+            }
+            for (int cycle = 0; cycle < CYCLES_PER_FRAME; cycle++) {
+                chip8.emulateCycle();
+            }
+            chip8.updateTimers();
+        }
+    }
+}
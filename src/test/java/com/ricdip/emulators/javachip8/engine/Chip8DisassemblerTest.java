@@ -0,0 +1,24 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Chip8DisassemblerTest {
+    @Test
+    void knownOpcodesAreDisassembled() {
+        assertEquals("CLS", Chip8Disassembler.disassemble(0x00E0));
+        assertEquals("JP 0x2A4", Chip8Disassembler.disassemble(0x12A4));
+        assertEquals("LD V3, 0x7F", Chip8Disassembler.disassemble(0x637F));
+        assertEquals("SUB VA, VB", Chip8Disassembler.disassemble(0x8AB5));
+        assertEquals("LD I, 0x123", Chip8Disassembler.disassemble(0xA123));
+        assertEquals("DRW V0, V1, 15", Chip8Disassembler.disassemble(0xD01F));
+        assertEquals("LD V2, DT", Chip8Disassembler.disassemble(0xF207));
+    }
+
+    @Test
+    void unknownOpcodesAreDataDirectives() {
+        assertEquals("DW 0x5121", Chip8Disassembler.disassemble(0x5121));
+        assertEquals("DW 0xFFFF", Chip8Disassembler.disassemble(0xFFFF));
+    }
+}
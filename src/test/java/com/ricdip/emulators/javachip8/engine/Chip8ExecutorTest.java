@@ -0,0 +1,69 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.Chip8Exception;
+import com.ricdip.emulators.javachip8.model.EmulationConfig;
+import com.ricdip.emulators.javachip8.model.ExecutionTrace;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Chip8ExecutorTest {
+    /**
+     * instructions executed before the failure: 255 loop iterations, then the increment and the skip
+     */
+    private static final int EXECUTED_INSTRUCTIONS = (255 * 3) + 2;
+    private static final int GIF_TRAILER = 0x3B;
+    private static final int WAV_RIFF_SIZE_OFFSET = 4;
+    @TempDir
+    Path directory;
+
+    @Test
+    void failedHeadlessRunCompletesItsFiles() throws IOException {
+        TestRoms.program(
+                directory,
+                "underflow.ch8",
+                0x7001, // 200: V0 += 1
+                0x3000, // 202: skip if V0 == 0, after 256 increments
+                0x1200, // 204: loop
+                0x00EE  // 206: return with an empty stack
+        );
+        Path tracePath = directory.resolve("underflow.c8tr");
+        Path capturePath = directory.resolve("underflow.gif");
+        Path wavPath = directory.resolve("underflow.wav");
+        EmulationConfig config = EmulationConfig
+                .builder()
+                .romPath(directory.resolve("underflow.ch8").toString())
+                .headless(true)
+                .maxFrames(3600L)
+                .tracePath(tracePath.toString())
+                .traceRingRecords(ExecutionTracer.DEFAULT_RING_RECORDS)
+                .capturePath(capturePath.toString())
+                .wavPath(wavPath.toString())
+                .build();
+
+        assertThrows(Chip8Exception.class, () -> Chip8Executor.runHeadless(config));
+
+        ExecutionTrace trace = new ExecutionTrace(tracePath.toString());
+        assertEquals(EXECUTED_INSTRUCTIONS, trace.getRecords());
+        assertEquals(
+                ExecutionTrace.HEADER_SIZE + ((long) EXECUTED_INSTRUCTIONS * ExecutionTrace.RECORD_SIZE),
+                Files.size(tracePath)
+        );
+        byte[] gif = Files.readAllBytes(capturePath);
+        assertEquals(GIF_TRAILER, gif[gif.length - 1], "GIF trailer");
+        byte[] wav = Files.readAllBytes(wavPath);
+        assertEquals(
+                wav.length - 8,
+                ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN).getInt(WAV_RIFF_SIZE_OFFSET),
+                "WAV header size"
+        );
+    }
+}
@@ -0,0 +1,176 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.Chip8Exception;
+import com.ricdip.emulators.javachip8.model.Instruction;
+import com.ricdip.emulators.javachip8.model.OpcodeType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Chip8OpcodeDecoderTest {
+    /**
+     * number of opcodes that are not CHIP-8 instructions: 5XYN and 9XYN with N != 0, 8XYN with N in 8-D and F,
+     * EXKK with KK not in (9E, A1), FXKK with KK not in (07, 0A, 15, 18, 1E, 29, 33, 55, 65)
+     */
+    private static final int UNKNOWN_OPCODES = (2 * 256 * 15) + (256 * 7) + (16 * 254) + (16 * 247);
+
+    @Test
+    void decodeTableMatchesSwitchDecoder() {
+        int unknownOpcodes = 0;
+        for (int opcode = 0; opcode < Chip8OpcodeDecoder.DECODE_TABLE_LENGTH; opcode++) {
+            String hexOpcode = String.format("0x%04X", opcode);
+            Instruction expected;
+            try {
+                expected = SwitchDecoder.decode(opcode);
+            } catch (Chip8Exception expectedException) {
+                int unknownOpcode = opcode;
+                Chip8Exception exception = assertThrows(
+                        Chip8Exception.class,
+                        () -> Chip8OpcodeDecoder.decode(unknownOpcode),
+                        hexOpcode
+                );
+                assertEquals(expectedException.getMessage(), exception.getMessage(), hexOpcode);
+                assertFalse(Chip8OpcodeDecoder.isKnown(opcode), hexOpcode);
+                unknownOpcodes += 1;
+                continue;
+            }
+            Instruction actual = Chip8OpcodeDecoder.decode(opcode);
+            assertTrue(Chip8OpcodeDecoder.isKnown(opcode), hexOpcode);
+            assertSame(expected.getOpcodeType(), actual.getOpcodeType(), hexOpcode);
+            assertEquals(expected.getOP(), actual.getOP(), hexOpcode);
+            assertEquals(expected.getX(), actual.getX(), hexOpcode);
+            assertEquals(expected.getY(), actual.getY(), hexOpcode);
+            assertEquals(expected.getN(), actual.getN(), hexOpcode);
+            assertEquals(expected.getNNN(), actual.getNNN(), hexOpcode);
+            assertEquals(expected.getKK(), actual.getKK(), hexOpcode);
+        }
+        assertEquals(UNKNOWN_OPCODES, unknownOpcodes);
+    }
+
+    @Test
+    void decodeReturnsSharedInstructions() {
+        assertSame(Chip8OpcodeDecoder.decode(0xD123), Chip8OpcodeDecoder.decode(0xD123));
+    }
+
+    /**
+     * decoder used before the decode table: fields are extracted and the opcode type is found with a switch at each
+     * call
+     */
+    private static final class SwitchDecoder {
+        private static Instruction decode(int opcode) {
+            int op = (opcode & 0xF000) >>> 12;
+            int x = (opcode & 0x0F00) >>> 8;
+            int y = (opcode & 0x00F0) >>> 4;
+            int n = (opcode & 0x000F);
+            int kk = (opcode & 0x00FF);
+            int nnn = (opcode & 0x0FFF);
+
+            OpcodeType opcodeType = null;
+            switch (op) {
+                case 0x0:
+                    opcodeType = OpcodeType.OP_0NNN;
+                    if (x == 0x0 && y == 0xE) {
+                        switch (n) {
+                            case 0x0:
+                                opcodeType = OpcodeType.OP_00E0;
+                                break;
+                            case 0xE:
+                                opcodeType = OpcodeType.OP_00EE;
+                                break;
+                        }
+                    }
+                    break;
+                case 0x1:
+                    opcodeType = OpcodeType.OP_1NNN;
+                    break;
+                case 0x2:
+                    opcodeType = OpcodeType.OP_2NNN;
+                    break;
+                case 0x3:
+                    opcodeType = OpcodeType.OP_3XKK;
+                    break;
+                case 0x4:
+                    opcodeType = OpcodeType.OP_4XKK;
+                    break;
+                case 0x5:
+                    opcodeType = n == 0x0 ? OpcodeType.OP_5XY0 : null;
+                    break;
+                case 0x6:
+                    opcodeType = OpcodeType.OP_6XKK;
+                    break;
+                case 0x7:
+                    opcodeType = OpcodeType.OP_7XKK;
+                    break;
+                case 0x8:
+                    opcodeType = switch (n) {
+                        case 0x0 -> OpcodeType.OP_8XY0;
+                        case 0x1 -> OpcodeType.OP_8XY1;
+                        case 0x2 -> OpcodeType.OP_8XY2;
+                        case 0x3 -> OpcodeType.OP_8XY3;
+                        case 0x4 -> OpcodeType.OP_8XY4;
+                        case 0x5 -> OpcodeType.OP_8XY5;
+                        case 0x6 -> OpcodeType.OP_8XY6;
+                        case 0x7 -> OpcodeType.OP_8XY7;
+                        case 0xE -> OpcodeType.OP_8XYE;
+                        default -> null;
+                    };
+                    break;
+                case 0x9:
+                    opcodeType = n == 0x0 ? OpcodeType.OP_9XY0 : null;
+                    break;
+                case 0xA:
+                    opcodeType = OpcodeType.OP_ANNN;
+                    break;
+                case 0xB:
+                    opcodeType = OpcodeType.OP_BNNN;
+                    break;
+                case 0xC:
+                    opcodeType = OpcodeType.OP_CXKK;
+                    break;
+                case 0xD:
+                    opcodeType = OpcodeType.OP_DXYN;
+                    break;
+                case 0xE:
+                    opcodeType = switch (kk) {
+                        case 0x9E -> OpcodeType.OP_EX9E;
+                        case 0xA1 -> OpcodeType.OP_EXA1;
+                        default -> null;
+                    };
+                    break;
+                case 0xF:
+                    opcodeType = switch (kk) {
+                        case 0x07 -> OpcodeType.OP_FX07;
+                        case 0x0A -> OpcodeType.OP_FX0A;
+                        case 0x15 -> OpcodeType.OP_FX15;
+                        case 0x18 -> OpcodeType.OP_FX18;
+                        case 0x1E -> OpcodeType.OP_FX1E;
+                        case 0x29 -> OpcodeType.OP_FX29;
+                        case 0x33 -> OpcodeType.OP_FX33;
+                        case 0x55 -> OpcodeType.OP_FX55;
+                        case 0x65 -> OpcodeType.OP_FX65;
+                        default -> null;
+                    };
+                    break;
+            }
+
+            if (opcodeType == null) {
+                throw new Chip8Exception(String.format("Unknown opcode: 0x%04X", opcode));
+            }
+
+            return Instruction
+                    .builder()
+                    .OP(op)
+                    .X(x)
+                    .Y(y)
+                    .N(n)
+                    .NNN(nnn)
+                    .KK(kk)
+                    .opcodeType(opcodeType)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.Chip8Exception;
+import com.ricdip.emulators.javachip8.model.EmulationConfig;
+import com.ricdip.emulators.javachip8.model.OpcodeType;
+import com.ricdip.emulators.javachip8.utils.FrameTimeStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmulatorMetricsTest {
+    private static final int CYCLES = 100_000;
+    private static final long FRAMES = 120;
+    @TempDir
+    Path romDirectory;
+
+    @Test
+    void publishedSnapshotMatchesInterpreterCounters() throws JMException {
+        Chip8 chip8 = new Chip8();
+        chip8.setRandomSeed(1);
+        chip8.loadRom(TestRoms.bundled("octojam9title.ch8"));
+        chip8.emulateCycles(CYCLES);
+        EmulatorMetrics metrics = new EmulatorMetrics("snapshot");
+        metrics.register();
+        try {
+            metrics.publish(chip8, CYCLES, FRAMES, 0, new FrameTimeStats(1_000_000_000L / Chip8.FRAME_RATE));
+
+            long[] counts = chip8.getOpcodeCounts();
+            Map<String, Long> opcodeCounts = metrics.getOpcodeCounts();
+            long executed = 0;
+            for (OpcodeType opcodeType : OpcodeType.values()) {
+                assertEquals(counts[opcodeType.ordinal()], opcodeCounts.get(opcodeType.getType()), opcodeType.getType());
+                executed += opcodeCounts.get(opcodeType.getType());
+            }
+            assertEquals(CYCLES, metrics.getCycles());
+            assertEquals(chip8.getIdleCycles(), metrics.getIdleCycles());
+            assertEquals(CYCLES, executed + metrics.getIdleCycles(), "cycles neither executed nor skipped");
+            assertEquals(FRAMES, metrics.getFrames());
+            assertEquals(chip8.getSoundActivations(), metrics.getSoundActivations());
+            // the same snapshot is read over JMX
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(EmulatorMetrics.OBJECT_NAME + ",job=\"snapshot\"");
+            assertEquals((long) CYCLES, server.getAttribute(objectName, "Cycles"));
+        } finally {
+            metrics.unregister();
+        }
+    }
+
+    @Test
+    void headlessRunUnregistersItsMetrics() throws JMException {
+        Chip8Executor.runHeadless(EmulationConfig
+                .builder()
+                .romPath(TestRoms.BUNDLED_ROMS_DIRECTORY.resolve("octojam9title.ch8").toString())
+                .jobName("headless")
+                .headless(true)
+                .maxFrames(FRAMES)
+                .build());
+
+        assertTrue(registeredMetrics().isEmpty());
+    }
+
+    @Test
+    void failedHeadlessRunUnregistersItsMetrics() throws JMException {
+        TestRoms.program(
+                romDirectory,
+                "stack-underflow.ch8",
+                0x00EE  // 200: return with an empty stack
+        );
+        EmulationConfig config = EmulationConfig
+                .builder()
+                .romPath(romDirectory.resolve("stack-underflow.ch8").toString())
+                .headless(true)
+                .maxFrames(FRAMES)
+                .build();
+
+        assertThrows(Chip8Exception.class, () -> Chip8Executor.runHeadless(config));
+
+        assertTrue(registeredMetrics().isEmpty());
+    }
+
+    private static Set<ObjectName> registeredMetrics() throws JMException {
+        return ManagementFactory.getPlatformMBeanServer().queryNames(
+                new ObjectName(EmulatorMetrics.OBJECT_NAME + ",*"),
+                null
+        );
+    }
+}
@@ -0,0 +1,207 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.model.Rom;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * run the same ROM, seed and input on {@link Chip8} and on an alternative engine, and compare the full machine state
+ * (memory, registers, stack, timers, display, random state) after every frame. Runs are long enough for the hot
+ * blocks to be entered more than {@link JitChip8#COMPILE_THRESHOLD} times, so that the JIT engine executes compiled
+ * code.
+ */
+class EngineDifferentialTest {
+    private static final long RANDOM_SEED = 42;
+    private static final int FRAMES = 3000;
+    /**
+     * high enough for hot blocks to be entered many times per run
+     */
+    private static final int CYCLES_PER_FRAME = 50;
+    private static final int V5 = 0x5;
+    private static final int VC = 0xC;
+    @TempDir
+    Path romDirectory;
+
+    @ParameterizedTest
+    @EnumSource(value = EngineType.class, names = {"BLOCK_CACHE", "JIT"})
+    void octojamTitleMatchesInterpreter(EngineType engineType) {
+        assertSameStates(engineType, TestRoms.bundled("octojam9title.ch8"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = EngineType.class, names = {"BLOCK_CACHE", "JIT"})
+    void ibmLogoMatchesInterpreter(EngineType engineType) {
+        assertSameStates(engineType, TestRoms.bundled("IBM_logo.ch8"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = EngineType.class, names = {"BLOCK_CACHE", "JIT"})
+    void selfModifyingCodeMatchesInterpreter(EngineType engineType) {
+        Rom rom = TestRoms.program(
+                romDirectory,
+                "smc.ch8",
+                0x6064, // 200: V0 = 0x64 (high byte of "V4 = KK")
+                0x6100, // 202: V1 = 0
+                0x7101, // 204: V1 += 1
+                0xA20C, // 206: I = 0x20C
+                0xF155, // 208: store V0-V1 at 0x20C: the next block becomes "V4 = V1"
+                0x6400, // 20A: V4 = 0
+                0x6400, // 20C: V4 = KK, patched
+                0x8544, // 20E: V5 += V4
+                0xA21B, // 210: I = 0x21B
+                0xF533, // 212: BCD of V5 at 0x21B-0x21D: patch KK of 0x21A and the whole 0x21C
+                0x6A00, // 214: VA = 0
+                0x1218, // 216: jump to 0x218
+                0x0000, // 218: legacy instruction, ignored
+                0x6A00, // 21A: VA = KK, patched with the hundreds digit
+                0x0000, // 21C: legacy instruction 0T0U, patched with the tens and units digits
+                0x86A4, // 21E: V6 += VA
+                0x1204  // 220: jump to 0x204
+        );
+        Chip8 chip8 = assertSameStates(engineType, rom);
+        // V4 is only set by the patched instruction, V5 accumulates it
+        assertTrue(chip8.getState().getV(V5) != 0, "patched instruction not executed");
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = EngineType.class, names = {"BLOCK_CACHE", "JIT"})
+    void subroutinePatchedByCallerMatchesInterpreter(EngineType engineType) {
+        Rom rom = TestRoms.program(
+                romDirectory,
+                "patched-subroutine.ch8",
+                0x606B, // 200: V0 = 0x6B (high byte of "VB = KK")
+                0x6100, // 202: V1 = 0
+                0x2210, // 204: call 0x210
+                0x7103, // 206: V1 += 3
+                0xA210, // 208: I = 0x210
+                0xF155, // 20A: store V0-V1 at 0x210: the subroutine becomes "VB = V1"
+                0x8CB4, // 20C: VC += VB
+                0x1204, // 20E: jump to 0x204
+                0x6B00, // 210: VB = KK, patched
+                0x00EE  // 212: return
+        );
+        Chip8 chip8 = assertSameStates(engineType, rom);
+        // VB is only set by the patched subroutine, VC accumulates it
+        assertTrue(chip8.getState().getV(VC) != 0, "patched subroutine not executed");
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = EngineType.class, names = {"BLOCK_CACHE", "JIT"})
+    void flagRegisterOrderingMatchesInterpreter(EngineType engineType) {
+        Rom rom = TestRoms.program(
+                romDirectory,
+                "vf-ordering.ch8",
+                0xC0FF, // 200: V0 = random
+                0xC1FF, // 202: V1 = random
+                0xCFFF, // 204: VF = random
+                0x8F04, // 206: VF = VF + V0, then VF = carry
+                0x80F4, // 208: V0 = V0 + VF
+                0x8F15, // 20A: VF = VF - V1, then VF = not borrow
+                0x81F5, // 20C: V1 = V1 - VF
+                0x8F06, // 20E: VF = VF >> 1, then VF = shifted out bit
+                0x82F6, // 210: V2 = VF >> 1
+                0x8F17, // 212: VF = V1 - VF, then VF = not borrow
+                0x83F7, // 214: V3 = VF - V3
+                0x8F0E, // 216: VF = VF << 1, then VF = shifted out bit
+                0x84FE, // 218: V4 = VF << 1
+                0x8FF4, // 21A: VF = VF + VF, then VF = carry
+                0x8FF5, // 21C: VF = VF - VF, then VF = not borrow
+                0x8A04, // 21E: VA = VA + V0
+                0x8AF4, // 220: VA = VA + VF
+                0x8B14, // 222: VB = VB + V1
+                0x8BF5, // 224: VB = VB - VF
+                0x6004, // 226: V0 = 4
+                0xB22C, // 228: jump to 0x22C + V0 = 0x230
+                0x7C01, // 22A: VC += 1, skipped
+                0x7C02, // 22C: VC += 2, skipped
+                0x7C04, // 22E: VC += 4, skipped
+                0x7D01, // 230: VD += 1
+                0x1200  // 232: jump to 0x200
+        );
+        Chip8 chip8 = assertSameStates(engineType, rom);
+        assertEquals(0, chip8.getState().getV(VC), "BNNN jumped to a skipped instruction");
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = EngineType.class, names = {"BLOCK_CACHE", "JIT"})
+    void hotSubroutinePatchedMatchesInterpreter(EngineType engineType) {
+        Rom rom = TestRoms.program(
+                romDirectory,
+                "hot-patched-subroutine.ch8",
+                0x606B, // 200: V0 = 0x6B (high byte of "VB = KK")
+                0x6100, // 202: V1 = 0
+                0x6200, // 204: V2 = 0
+                0x2220, // 206: call 0x220
+                0x8CB4, // 208: VC += VB
+                0x7201, // 20A: V2 += 1
+                0x3200, // 20C: skip next instruction if V2 == 0: 256 calls per patch
+                0x1206, // 20E: jump to 0x206
+                0x7107, // 210: V1 += 7
+                0xA220, // 212: I = 0x220
+                0xF155, // 214: store V0-V1 at 0x220: the subroutine becomes "VB = V1"
+                0x1204, // 216: jump to 0x204
+                0x0000, // 218
+                0x0000, // 21A
+                0x0000, // 21C
+                0x0000, // 21E
+                0x6B00, // 220: VB = KK, patched
+                0x7B01, // 222: VB += 1
+                0x8BC3, // 224: VB ^= VC
+                0x00EE  // 226: return
+        );
+        Chip8 chip8 = assertSameStates(engineType, rom);
+        if (chip8 instanceof JitChip8) {
+            assertTrue(((JitChip8) chip8).getDeoptimizations() > 0, "no compiled block deoptimized");
+        }
+    }
+
+    /**
+     * run the interpreter and the engine in lockstep and fail at the first frame with a different state
+     *
+     * @param engineType the engine to compare with the interpreter
+     * @param rom        the ROM to run
+     * @return the compared engine, after the last frame
+     */
+    private static Chip8 assertSameStates(EngineType engineType, Rom rom) {
+        Chip8 expected = createEngine(EngineType.INTERPRETER, rom);
+        Chip8 actual = createEngine(engineType, rom);
+        MachineState expectedState = MachineState.allocate();
+        MachineState actualState = MachineState.allocate();
+        byte[] expectedBytes = new byte[MachineState.STATE_SIZE];
+        byte[] actualBytes = new byte[MachineState.STATE_SIZE];
+        for (int frame = 0; frame < FRAMES; frame++) {
+            expected.emulateCycles(CYCLES_PER_FRAME);
+            expected.updateTimers();
+            actual.emulateCycles(CYCLES_PER_FRAME);
+            actual.updateTimers();
+            expected.saveState(expectedState);
+            actual.saveState(actualState);
+            expectedState.getBytes(expectedBytes);
+            actualState.getBytes(actualBytes);
+            assertArrayEquals(
+                    expectedBytes,
+                    actualBytes,
+                    String.format("%s state differs from %s at frame %d", engineType, rom.getRomName(), frame)
+            );
+        }
+        assertArrayEquals(expected.getOpcodeCounts(), actual.getOpcodeCounts(), "executed instructions by type");
+        if (actual instanceof JitChip8) {
+            assertTrue(((JitChip8) actual).getCompiledBlockCount() > 0, "no block compiled");
+        }
+        return actual;
+    }
+
+    private static Chip8 createEngine(EngineType engineType, Rom rom) {
+        Chip8 chip8 = engineType.create();
+        chip8.setRandomSeed(RANDOM_SEED);
+        chip8.loadRom(rom);
+        return chip8;
+    }
+}
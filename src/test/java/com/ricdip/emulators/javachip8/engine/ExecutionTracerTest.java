@@ -0,0 +1,132 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.model.ExecutionTrace;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExecutionTracerTest {
+    private static final int V0 = 0x0;
+    @TempDir
+    Path romDirectory;
+
+    @Test
+    void packedRecordsUnpackToTheirFields() {
+        int[][] records = {
+                {0x000, 0x0000, V0, 0x00},
+                {0x200, 0xD01F, 0xF, 0x01},
+                {0x3FE, 0xA123, ExecutionTrace.REGISTER_I, 0x123},
+                {0xFFF, 0xFFFF, ExecutionTrace.NO_REGISTER, 0xFFFF}
+        };
+        for (int[] record : records) {
+            long packed = ExecutionTrace.pack(record[0], record[1], record[2], record[3]);
+
+            assertEquals(record[0], ExecutionTrace.getPC(packed));
+            assertEquals(record[1], ExecutionTrace.getOpcode(packed));
+            assertEquals(record[2], ExecutionTrace.getRegister(packed));
+            assertEquals(record[3], ExecutionTrace.getValue(packed));
+        }
+    }
+
+    @Test
+    void closeWritesRecordCountAndTruncatesTraceFile() throws IOException {
+        Chip8 chip8 = EngineType.INTERPRETER.create();
+        chip8.loadRom(TestRoms.program(
+                romDirectory,
+                "registers.ch8",
+                0x6005, // 200: V0 = 5
+                0xA123, // 202: I = 0x123
+                0x7001, // 204: V0 += 1
+                0x1204  // 206: loop
+        ));
+        Path tracePath = romDirectory.resolve("registers.c8tr");
+        ExecutionTracer tracer = new ExecutionTracer(tracePath, ExecutionTracer.DEFAULT_RING_RECORDS);
+        chip8.setTracer(tracer);
+
+        chip8.emulateCycles(10);
+        tracer.close();
+
+        byte[] content = Files.readAllBytes(tracePath);
+        assertEquals(ExecutionTrace.HEADER_SIZE + (10 * ExecutionTrace.RECORD_SIZE), content.length);
+        assertEquals(10, ByteBuffer.wrap(content).getLong(ExecutionTrace.RECORD_COUNT_OFFSET));
+        ExecutionTrace trace = new ExecutionTrace(tracePath.toString());
+        assertEquals(10, trace.getRecords());
+        assertRecord(trace, 0, 0x200, 0x6005, V0, 5);
+        assertRecord(trace, 1, 0x202, 0xA123, ExecutionTrace.REGISTER_I, 0x123);
+        assertRecord(trace, 2, 0x204, 0x7001, V0, 6);
+        assertRecord(trace, 3, 0x206, 0x1204, ExecutionTrace.NO_REGISTER, 0);
+        assertRecord(trace, 9, 0x206, 0x1204, ExecutionTrace.NO_REGISTER, 0);
+    }
+
+    @Test
+    void recordsPastTheMappedRegionAreWritten() {
+        Chip8 chip8 = EngineType.INTERPRETER.create();
+        chip8.loadRom(TestRoms.program(
+                romDirectory,
+                "counter.ch8",
+                0x7001, // 200: V0 += 1
+                0x1200  // 202: loop
+        ));
+        Path tracePath = romDirectory.resolve("counter.c8tr");
+        int cycles = ExecutionTracer.MAPPED_RECORDS + 3;
+        try (ExecutionTracer tracer = new ExecutionTracer(tracePath, ExecutionTracer.DEFAULT_RING_RECORDS)) {
+            chip8.setTracer(tracer);
+            chip8.emulateCycles(cycles);
+        }
+
+        ExecutionTrace trace = new ExecutionTrace(tracePath.toString());
+        assertEquals(cycles, trace.getRecords());
+        int last = ExecutionTracer.MAPPED_RECORDS - 1;
+        assertRecord(trace, last, 0x202, 0x1200, ExecutionTrace.NO_REGISTER, 0);
+        assertRecord(trace, last + 1, 0x200, 0x7001, V0, ((last + 1) / 2 + 1) & 0xFF);
+        assertRecord(trace, last + 2, 0x202, 0x1200, ExecutionTrace.NO_REGISTER, 0);
+        assertRecord(trace, last + 3, 0x200, 0x7001, V0, ((last + 3) / 2 + 1) & 0xFF);
+    }
+
+    @Test
+    void ringKeepsLastRecordsOldestFirst() {
+        Chip8 chip8 = EngineType.INTERPRETER.create();
+        chip8.loadRom(TestRoms.program(
+                romDirectory,
+                "loads.ch8",
+                0x6001, // 200: V0 = 1
+                0x6002, // 202: V0 = 2
+                0x6003, // 204: V0 = 3
+                0x6004, // 206: V0 = 4
+                0x6005, // 208: V0 = 5
+                0x6006, // 20A: V0 = 6
+                0x1200  // 20C: loop
+        ));
+        ExecutionTracer tracer = new ExecutionTracer(null, 4);
+        chip8.setTracer(tracer);
+
+        // 10 records in a ring of 4: the ring wrapped around
+        chip8.emulateCycles(10);
+
+        assertEquals(
+                List.of(
+                        ExecutionTrace.format(6, ExecutionTrace.pack(0x20C, 0x1200, ExecutionTrace.NO_REGISTER, 0)),
+                        ExecutionTrace.format(7, ExecutionTrace.pack(0x200, 0x6001, V0, 1)),
+                        ExecutionTrace.format(8, ExecutionTrace.pack(0x202, 0x6002, V0, 2)),
+                        ExecutionTrace.format(9, ExecutionTrace.pack(0x204, 0x6003, V0, 3))
+                ),
+                tracer.formatRing()
+        );
+    }
+
+    private static void assertRecord(ExecutionTrace trace, long record, int PC, int opcode, int register, int value) {
+        long packed = trace.getPacked(record);
+        assertEquals(record, trace.getCycle(record), "cycle of record " + record);
+        assertEquals(PC, ExecutionTrace.getPC(packed), "PC of record " + record);
+        assertEquals(opcode, ExecutionTrace.getOpcode(packed), "opcode of record " + record);
+        assertEquals(register, ExecutionTrace.getRegister(packed), "register of record " + record);
+        assertEquals(value, ExecutionTrace.getValue(packed), "value of record " + record);
+    }
+}
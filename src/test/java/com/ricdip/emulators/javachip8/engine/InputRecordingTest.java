@@ -0,0 +1,174 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.InputException;
+import com.ricdip.emulators.javachip8.model.EmulationConfig;
+import com.ricdip.emulators.javachip8.model.EmulationResult;
+import com.ricdip.emulators.javachip8.model.InputRecording;
+import com.ricdip.emulators.javachip8.model.InputScript;
+import com.ricdip.emulators.javachip8.model.Rom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InputRecordingTest {
+    private static final long RANDOM_SEED = 42;
+    private static final int INSTRUCTIONS_PER_SECOND = 600;
+    private static final int FRAME_CYCLES = INSTRUCTIONS_PER_SECOND / Chip8.FRAME_RATE;
+    private static final long FRAMES = 40;
+    /**
+     * key events made by the input thread: frame, key, 1 for a press or 0 for a release
+     */
+    private static final int[][] KEY_EVENTS = {
+            {3, 0x5, 1},
+            {5, 0x5, 0},
+            {10, 0xA, 1},
+            {12, 0xA, 0},
+            {20, 0x1, 1},
+            {20, 0x1, 0},
+            {30, 0xF, 1}
+    };
+    @TempDir
+    Path romDirectory;
+    private Rom rom;
+    private Path recordingPath;
+
+    @BeforeEach
+    void writeRom() {
+        rom = TestRoms.program(
+                romDirectory,
+                "keys.ch8",
+                0xF00A, // 200: V0 = next key press
+                0xF029, // 202: I = font sprite of V0
+                0xC13F, // 204: V1 = random column
+                0xC21F, // 206: V2 = random row
+                0xD125, // 208: draw the key digit at (V1, V2)
+                0x1200  // 20A: loop
+        );
+        recordingPath = romDirectory.resolve("keys.c8ir");
+    }
+
+    @Test
+    void replayEndsWithRecordedDisplay() {
+        long framebufferHash = record();
+
+        InputRecording recording = new InputRecording(recordingPath.toString());
+
+        assertEquals(RANDOM_SEED, recording.getRandomSeed());
+        assertEquals(rom.computeChecksum(), recording.getRomChecksum());
+        assertEquals(INSTRUCTIONS_PER_SECOND, recording.getInstructionsPerSecond());
+        assertEquals(FRAMES, recording.getFrames());
+        assertEquals(framebufferHash, recording.getFramebufferHash());
+        InputScript events = recording.getInputScript();
+        assertEquals(KEY_EVENTS.length, events.size());
+        for (int event = 0; event < KEY_EVENTS.length; event++) {
+            assertEquals(KEY_EVENTS[event][0], events.getFrames()[event], "frame of event " + event);
+            assertEquals(KEY_EVENTS[event][1], events.getKeys()[event], "key of event " + event);
+            assertEquals(KEY_EVENTS[event][2] == 1, events.getPressed()[event], "action of event " + event);
+        }
+        assertNotEquals(new Display().hash(), framebufferHash, "no key digit drawn");
+        // throws if the replay does not end with the recorded framebuffer
+        Chip8Executor.startEmulation(EmulationConfig
+                .builder()
+                .romPath(romDirectory.resolve("keys.ch8").toString())
+                .replayPath(recordingPath.toString())
+                .build());
+    }
+
+    @Test
+    void inputScriptReplaysRecordedDisplay() throws IOException {
+        long framebufferHash = record();
+        StringBuilder script = new StringBuilder("# frame key action\n");
+        for (int[] event : KEY_EVENTS) {
+            script.append(String.format("%d %X %s%n", event[0], event[1], event[2] == 1 ? "press" : "release"));
+        }
+        Path scriptPath = romDirectory.resolve("keys.txt");
+        Files.writeString(scriptPath, script);
+
+        EmulationResult result = Chip8Executor.runHeadless(EmulationConfig
+                .builder()
+                .romPath(romDirectory.resolve("keys.ch8").toString())
+                .inputScriptPath(scriptPath.toString())
+                .randomSeed(RANDOM_SEED)
+                .instructionsPerSecond(INSTRUCTIONS_PER_SECOND)
+                .headless(true)
+                .maxFrames(FRAMES)
+                .build());
+
+        assertEquals(framebufferHash, result.getFramebufferHash());
+    }
+
+    @Test
+    void wrongMagicNumberIsRejected() throws IOException {
+        record();
+        byte[] content = Files.readAllBytes(recordingPath);
+        content[0] = 'X';
+        Files.write(recordingPath, content);
+
+        InputException exception = assertThrows(
+                InputException.class,
+                () -> new InputRecording(recordingPath.toString())
+        );
+
+        assertEquals("Invalid input recording 'keys.c8ir'", exception.getMessage());
+    }
+
+    @Test
+    void truncatedRecordingIsRejected() throws IOException {
+        record();
+        byte[] content = Files.readAllBytes(recordingPath);
+        // the final framebuffer hash is cut
+        Files.write(recordingPath, Arrays.copyOf(content, content.length - Long.BYTES / 2));
+
+        InputException exception = assertThrows(
+                InputException.class,
+                () -> new InputRecording(recordingPath.toString())
+        );
+
+        assertEquals("Truncated input recording 'keys.c8ir'", exception.getMessage());
+    }
+
+    /**
+     * record the key events as the windowed emulation does: events reach the machine at frame boundaries
+     *
+     * @return final framebuffer hash
+     */
+    private long record() {
+        Chip8 chip8 = new Chip8();
+        chip8.setRandomSeed(RANDOM_SEED);
+        chip8.loadRom(rom);
+        RecordingKeyboard recordingKeyboard = new RecordingKeyboard();
+        InputRecorder recorder = new InputRecorder(
+                recordingPath,
+                RANDOM_SEED,
+                rom.computeChecksum(),
+                INSTRUCTIONS_PER_SECOND
+        );
+        int nextEvent = 0;
+        for (long frame = 0; frame < FRAMES; frame++) {
+            while (nextEvent < KEY_EVENTS.length && KEY_EVENTS[nextEvent][0] == frame) {
+                int key = KEY_EVENTS[nextEvent][1];
+                if (KEY_EVENTS[nextEvent][2] == 1) {
+                    recordingKeyboard.setKeyPressed(key);
+                } else {
+                    recordingKeyboard.setKeyReleased(key);
+                }
+                nextEvent += 1;
+            }
+            recordingKeyboard.applyEvents(chip8.getKeyboard(), frame, recorder);
+            chip8.emulateCycles(FRAME_CYCLES);
+            chip8.updateTimers();
+        }
+        long framebufferHash = chip8.getDisplay().hash();
+        recorder.finish(FRAMES, framebufferHash);
+        return framebufferHash;
+    }
+}
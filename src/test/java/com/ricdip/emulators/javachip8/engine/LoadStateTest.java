@@ -0,0 +1,150 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadStateTest {
+    private static final int CYCLES = 10_000;
+    private static final int HELD_KEY = 0x5;
+    private static final int OTHER_KEY = 0x3;
+    @TempDir
+    Path romDirectory;
+
+    @Test
+    void loadStateRestoresMachine() {
+        Chip8 chip8 = new Chip8();
+        chip8.setRandomSeed(1);
+        chip8.loadRom(TestRoms.bundled("octojam9title.ch8"));
+        chip8.emulateCycles(CYCLES);
+        MachineState state = MachineState.allocate();
+        chip8.saveState(state);
+        int[] V = registers(chip8);
+        long hash = chip8.getDisplay().hash();
+        int PC = chip8.getPC();
+
+        chip8.emulateCycles(CYCLES);
+        chip8.loadState(state);
+
+        assertArrayEquals(V, registers(chip8));
+        assertEquals(hash, chip8.getDisplay().hash());
+        assertEquals(PC, chip8.getPC());
+    }
+
+    @Test
+    void loadStateRestoresIndexStackTimersMemoryAndRandomState() {
+        Chip8 chip8 = new Chip8();
+        chip8.setRandomSeed(1);
+        chip8.loadRom(TestRoms.program(
+                romDirectory,
+                "state.ch8",
+                0x6A05, // 200: VA = 5
+                0xA300, // 202: I = 0x300
+                0xFA33, // 204: BCD of VA at I
+                0x6B30, // 206: VB = 0x30
+                0xFB15, // 208: delay timer = VB
+                0xFB18, // 20A: sound timer = VB
+                0xC0FF, // 20C: V0 = random
+                0x2210, // 20E: call 210
+                0x7A01, // 210: VA += 1
+                0xA310, // 212: I = 0x310
+                0xFA33, // 214: BCD of VA at I
+                0x6B10, // 216: VB = 0x10
+                0xFB15, // 218: delay timer = VB
+                0xC0FF, // 21A: V0 = random
+                0x2210  // 21C: call 210
+        ));
+        emulateCycles(chip8, 8);
+        MachineState saved = MachineState.allocate();
+        chip8.saveState(saved);
+        emulateCycles(chip8, 7);
+        int nextRandom = chip8.getState().getV(0x0);
+        chip8.updateTimers();
+
+        chip8.loadState(saved);
+
+        MachineState state = chip8.getState();
+        assertEquals(0x210, state.getPC());
+        assertEquals(0x300, state.getI());
+        assertEquals(1, state.getSP());
+        assertEquals(0x20E, state.getStack(0));
+        assertEquals(0, state.getStack(1), "stack level pushed after the save");
+        assertEquals(0x30, state.getDelayTimer());
+        assertEquals(0x30, state.getSoundTimer());
+        assertEquals(5, state.getV(0xA));
+        assertArrayEquals(new int[]{0, 0, 5}, memory(chip8, 0x300, 3));
+        assertArrayEquals(new int[]{0, 0, 0}, memory(chip8, 0x310, 3), "memory written after the save");
+        assertEquals(saved.getRandomState(), state.getRandomState());
+        // the restored generator draws the same numbers again
+        emulateCycles(chip8, 7);
+        assertEquals(nextRandom, chip8.getState().getV(0x0));
+    }
+
+    @Test
+    void loadStateKeepsPhysicalKeys() {
+        Chip8 chip8 = new Chip8();
+        Keyboard keyboard = chip8.getKeyboard();
+        MachineState state = MachineState.allocate();
+        keyboard.setKeyPressed(HELD_KEY);
+        chip8.saveState(state);
+        keyboard.setKeyReleased(HELD_KEY);
+        keyboard.setKeyPressed(OTHER_KEY);
+
+        chip8.loadState(state);
+
+        // the key held at save time is up: no release event would ever come to unstick it
+        assertFalse(keyboard.isPressed(HELD_KEY));
+        assertTrue(keyboard.isPressed(OTHER_KEY));
+    }
+
+    @Test
+    void loadStateForgetsLatchedKeyPresses() {
+        Chip8 chip8 = new Chip8();
+        chip8.loadRom(TestRoms.program(
+                romDirectory,
+                "key-wait.ch8",
+                0xF00A, // 200: wait for a key press
+                0x1202  // 202: loop
+        ));
+        Keyboard keyboard = chip8.getKeyboard();
+        MachineState state = MachineState.allocate();
+        chip8.saveState(state);
+        // a key tapped during the wait is latched
+        chip8.emulateCycle();
+        keyboard.setKeyPressed(HELD_KEY);
+        keyboard.setKeyReleased(HELD_KEY);
+
+        chip8.loadState(state);
+        chip8.emulateCycle();
+
+        assertEquals(BaseChip8.PC_INIT_VALUE, chip8.getPC(), "key wait ended by a press made before the load");
+    }
+
+    private static void emulateCycles(BaseChip8 chip8, int cycles) {
+        for (int cycle = 0; cycle < cycles; cycle++) {
+            chip8.emulateCycle();
+        }
+    }
+
+    private static int[] memory(BaseChip8 chip8, int address, int length) {
+        int[] memory = new int[length];
+        for (int i = 0; i < length; i++) {
+            memory[i] = chip8.getState().getMemory(address + i);
+        }
+        return memory;
+    }
+
+    private static int[] registers(BaseChip8 chip8) {
+        int[] V = new int[BaseChip8.V_LENGTH];
+        for (int register = 0; register < V.length; register++) {
+            V[register] = chip8.getState().getV(register);
+        }
+        return V;
+    }
+}
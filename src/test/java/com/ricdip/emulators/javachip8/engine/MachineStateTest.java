@@ -0,0 +1,164 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MachineStateTest {
+    private static final int CYCLES = 10_000;
+    private static final int V0 = 0x0;
+    private static final int VA = 0xA;
+    private static final int VF = 0xF;
+    @TempDir
+    Path romDirectory;
+
+    @Test
+    void everyFieldSurvivesBulkCopies() {
+        MachineState state = MachineState.allocate();
+        fill(state);
+
+        MachineState copy = MachineState.allocate();
+        copy.copyFrom(state);
+        byte[] bytes = new byte[MachineState.STATE_SIZE];
+        state.getBytes(bytes);
+        MachineState restored = MachineState.allocate();
+        restored.setBytes(bytes);
+
+        assertFilled(copy);
+        assertFilled(restored);
+    }
+
+    @Test
+    void clearZeroesEveryField() {
+        MachineState state = MachineState.allocate();
+        fill(state);
+
+        state.clear();
+
+        byte[] bytes = new byte[MachineState.STATE_SIZE];
+        state.getBytes(bytes);
+        assertArrayEquals(new byte[MachineState.STATE_SIZE], bytes);
+    }
+
+    @Test
+    void memoryAccessOutsideMemoryFails() {
+        MachineState state = MachineState.allocate();
+
+        // the bytes after the memory are registers: they must not be reachable through a memory address
+        assertThrows(IndexOutOfBoundsException.class, () -> state.getMemory(BaseChip8.MEMORY_LENGTH));
+        assertThrows(IndexOutOfBoundsException.class, () -> state.setMemory(BaseChip8.MEMORY_LENGTH, 1));
+        assertThrows(
+                IndexOutOfBoundsException.class,
+                () -> state.setMemory(BaseChip8.MEMORY_LENGTH - 1, new byte[2], 0, 2)
+        );
+        assertEquals(0, state.getV(V0));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineType.class)
+    void saveAndLoadRestoreEveryField(EngineType engineType) {
+        Chip8 chip8 = engineType.create();
+        chip8.setRandomSeed(1);
+        chip8.loadRom(TestRoms.bundled("octojam9title.ch8"));
+        chip8.emulateCycles(CYCLES);
+        MachineState saved = MachineState.allocate();
+        chip8.saveState(saved);
+
+        chip8.emulateCycles(CYCLES);
+        chip8.loadState(saved);
+        MachineState reloaded = MachineState.allocate();
+        chip8.saveState(reloaded);
+
+        assertArrayEquals(bytes(saved), bytes(reloaded));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineType.class)
+    void shiftLeftKeepsRegisterInEightBits(EngineType engineType) {
+        Chip8 chip8 = engineType.create();
+        chip8.loadRom(TestRoms.program(
+                romDirectory,
+                "shift-left.ch8",
+                0x60FF, // 200: V0 = 0xFF
+                0x800E, // 202: V0 <<= 1, VF = most significant bit
+                0x30FE, // 204: skip if V0 == 0xFE
+                0x6A01, // 206: VA = 1: the shifted register kept its ninth bit
+                0x60FF, // 208: V0 = 0xFF
+                0x1202  // 20A: loop
+        ));
+        chip8.emulateCycles(1);
+
+        // whole loop iterations, more than enough for the JIT engine to compile the loop
+        chip8.emulateCycles(4 * 2 * JitChip8.COMPILE_THRESHOLD);
+
+        MachineState state = chip8.getState();
+        assertEquals(0, state.getV(VA), "shifted register compared with more than 8 bits");
+        assertEquals(0xFF, state.getV(V0));
+        assertEquals(1, state.getV(VF));
+        if (chip8 instanceof JitChip8 jitChip8) {
+            assertTrue(jitChip8.getCompiledBlockCount() > 0, "no block compiled");
+        }
+    }
+
+    private static void fill(MachineState state) {
+        for (int address = 0; address < BaseChip8.MEMORY_LENGTH; address++) {
+            state.setMemory(address, address * 7);
+        }
+        for (int register = 0; register < BaseChip8.V_LENGTH; register++) {
+            state.setV(register, 0xF0 + register);
+        }
+        for (int level = 0; level < BaseChip8.STACK_LENGTH; level++) {
+            state.setStack(level, 0xFF00 + level);
+        }
+        state.setI(0xFFFE);
+        state.setPC(0xFFFD);
+        state.setSP(0xFC);
+        state.setDelayTimer(0xFB);
+        state.setSoundTimer(0xFA);
+        state.setDrawFlag(true);
+        state.setOpcode(0xF9F8);
+        state.setPressedKeys(0x8001);
+        state.setRandomState(0x8000_0000_0000_0001L);
+        for (int row = 0; row < Display.DISPLAY_HEIGHT; row++) {
+            state.setDisplayRow(row, Long.MIN_VALUE >>> row);
+        }
+    }
+
+    private static void assertFilled(MachineState state) {
+        for (int address = 0; address < BaseChip8.MEMORY_LENGTH; address++) {
+            assertEquals((address * 7) & 0xFF, state.getMemory(address), "memory at " + address);
+        }
+        for (int register = 0; register < BaseChip8.V_LENGTH; register++) {
+            assertEquals(0xF0 + register, state.getV(register), "V" + register);
+        }
+        for (int level = 0; level < BaseChip8.STACK_LENGTH; level++) {
+            assertEquals(0xFF00 + level, state.getStack(level), "stack level " + level);
+        }
+        assertEquals(0xFFFE, state.getI());
+        assertEquals(0xFFFD, state.getPC());
+        assertEquals(0xFC, state.getSP());
+        assertEquals(0xFB, state.getDelayTimer());
+        assertEquals(0xFA, state.getSoundTimer());
+        assertTrue(state.isDrawFlag());
+        assertEquals(0xF9F8, state.getOpcode());
+        assertEquals(0x8001, state.getPressedKeys());
+        assertEquals(0x8000_0000_0000_0001L, state.getRandomState());
+        for (int row = 0; row < Display.DISPLAY_HEIGHT; row++) {
+            assertEquals(Long.MIN_VALUE >>> row, state.getDisplayRow(row), "display row " + row);
+        }
+    }
+
+    private static byte[] bytes(MachineState state) {
+        byte[] bytes = new byte[MachineState.STATE_SIZE];
+        state.getBytes(bytes);
+        return bytes;
+    }
+}
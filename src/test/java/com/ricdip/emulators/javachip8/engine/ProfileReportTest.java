@@ -0,0 +1,78 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProfileReportTest {
+    private static final int CALLS = 100;
+    /**
+     * cycles of each call of the subroutine loop: the call and the jump back, then the subroutine
+     */
+    private static final int CALL_CYCLES = 12;
+    private static final int[] PROGRAM = {
+            0x6000, // 200: V0 = 0, once
+            0x2208, // 202: call 208
+            0x1202, // 204: loop
+            0x0000, // 206: never executed
+            0x6103, // 208: V1 = 3
+            0x71FF, // 20A: V1 -= 1, 3 times per call
+            0x3100, // 20C: skip if V1 == 0, 3 times per call
+            0x120A, // 20E: loop, 2 times per call
+            0x00EE  // 210: return
+    };
+    @TempDir
+    Path romDirectory;
+
+    @ParameterizedTest
+    @EnumSource(EngineType.class)
+    void reportRanksHotspotsAndCoversRom(EngineType engineType) throws IOException {
+        Chip8 chip8 = engineType.create();
+        chip8.loadRom(TestRoms.program(romDirectory, "profile.ch8", PROGRAM));
+        chip8.enableProfiler();
+        chip8.emulateCycles(1 + (CALLS * CALL_CYCLES));
+        Path reportPath = romDirectory.resolve("profile.txt");
+
+        ProfileReport.write(chip8, "profile.ch8", PROGRAM.length * 2, reportPath);
+
+        List<String> report = Files.readAllLines(reportPath);
+        assertEquals(
+                "PC profile of 'profile.ch8': 1201 instructions (0 skipped in idle loops), 8 addresses executed",
+                report.get(0)
+        );
+        // equal counts are ranked by address
+        assertEquals(
+                List.of(
+                        "0x20A 300", "0x20C 300", "0x20E 200",
+                        "0x202 100", "0x204 100", "0x208 100", "0x210 100",
+                        "0x200 1"
+                ),
+                hotspots(report)
+        );
+        assertTrue(report.contains(String.format("0x208   %14d", CALLS)), "subroutine calls of 0x208");
+        assertTrue(report.contains("Coverage: 8 of 9 ROM instruction addresses executed"));
+        assertTrue(report.contains(String.format("0x206   0x0000 0NNN %14s", "-")), "address never executed");
+    }
+
+    /**
+     * get the address and executions of each hotspot, in rank order
+     */
+    private static List<String> hotspots(List<String> report) {
+        List<String> hotspots = new ArrayList<>();
+        for (int line = report.indexOf("Hotspots:") + 2; !report.get(line).isEmpty(); line++) {
+            String[] columns = report.get(line).trim().split("\\s+");
+            assertEquals(Integer.toString(hotspots.size() + 1), columns[0], "rank");
+            hotspots.add(columns[1] + " " + columns[4]);
+        }
+        return hotspots;
+    }
+}
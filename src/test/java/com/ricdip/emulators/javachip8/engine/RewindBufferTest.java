@@ -0,0 +1,56 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RewindBufferTest {
+    private static final int CYCLES_PER_FRAME = 10;
+    private static final int FRAMES = RewindBuffer.KEYFRAME_INTERVAL * 3;
+    private static final int HELD_KEY = 0x5;
+
+    @Test
+    void rewindRestoresEveryCapturedFrame() {
+        Chip8 chip8 = new Chip8();
+        chip8.setRandomSeed(1);
+        chip8.loadRom(TestRoms.bundled("octojam9title.ch8"));
+        RewindBuffer rewindBuffer = new RewindBuffer(FRAMES);
+        long[] hashes = new long[FRAMES];
+        int[] programCounters = new int[FRAMES];
+        for (int frame = 0; frame < FRAMES; frame++) {
+            hashes[frame] = chip8.getDisplay().hash();
+            programCounters[frame] = chip8.getPC();
+            rewindBuffer.capture(chip8);
+            chip8.emulateCycles(CYCLES_PER_FRAME);
+            chip8.updateTimers();
+        }
+        assertEquals(FRAMES, rewindBuffer.size());
+
+        for (int frame = FRAMES - 1; frame >= 0; frame--) {
+            assertTrue(rewindBuffer.rewind(chip8));
+            assertEquals(hashes[frame], chip8.getDisplay().hash(), "display of frame " + frame);
+            assertEquals(programCounters[frame], chip8.getPC(), "PC of frame " + frame);
+        }
+        assertFalse(rewindBuffer.rewind(chip8));
+    }
+
+    @Test
+    void rewindKeepsPhysicalKeys() {
+        Chip8 chip8 = new Chip8();
+        chip8.loadRom(TestRoms.bundled("IBM_logo.ch8"));
+        Keyboard keyboard = chip8.getKeyboard();
+        RewindBuffer rewindBuffer = new RewindBuffer(FRAMES);
+        keyboard.setKeyPressed(HELD_KEY);
+        for (int frame = 0; frame < FRAMES; frame++) {
+            rewindBuffer.capture(chip8);
+            chip8.emulateCycles(CYCLES_PER_FRAME);
+        }
+        keyboard.setKeyReleased(HELD_KEY);
+
+        while (rewindBuffer.rewind(chip8)) {
+            assertFalse(keyboard.isPressed(HELD_KEY), "key held during capture restored as pressed");
+        }
+    }
+}
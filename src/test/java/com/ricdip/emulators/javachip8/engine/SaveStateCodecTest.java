@@ -0,0 +1,89 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.exception.StateException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SaveStateCodecTest {
+    private static final int VERSION_OFFSET = 4;
+
+    @Test
+    void decodeRestoresEncodedState() {
+        MachineState state = randomState(1);
+
+        byte[] encoded = SaveStateCodec.encode(state);
+        MachineState decoded = MachineState.allocate();
+        SaveStateCodec.decode(encoded, decoded);
+
+        assertEquals(SaveStateCodec.ENCODED_SIZE, encoded.length);
+        assertEquals('C', encoded[0]);
+        assertEquals('8', encoded[1]);
+        assertEquals('S', encoded[2]);
+        assertEquals('T', encoded[3]);
+        assertArrayEquals(bytes(state), bytes(decoded));
+    }
+
+    @Test
+    void wrongMagicNumberIsRejected() {
+        byte[] encoded = SaveStateCodec.encode(randomState(1));
+        encoded[0] = 'X';
+
+        assertRejected(encoded, "Invalid save state: wrong magic number");
+    }
+
+    @Test
+    void otherVersionIsRejected() {
+        byte[] encoded = SaveStateCodec.encode(randomState(1));
+        encoded[VERSION_OFFSET + 1] = (byte) (SaveStateCodec.VERSION + 1);
+
+        assertRejected(encoded, "Unsupported save state version: " + (SaveStateCodec.VERSION + 1));
+    }
+
+    @Test
+    void corruptedStateIsRejected() {
+        byte[] encoded = SaveStateCodec.encode(randomState(1));
+        encoded[SaveStateCodec.HEADER_SIZE + 0x200] ^= 0x01;
+
+        assertRejected(encoded, "Invalid save state: checksum mismatch");
+    }
+
+    @Test
+    void truncatedStateIsRejected() {
+        byte[] encoded = SaveStateCodec.encode(randomState(1));
+
+        assertRejected(
+                Arrays.copyOf(encoded, encoded.length - 1),
+                "Invalid save state size: " + (encoded.length - 1) + " bytes"
+        );
+    }
+
+    private static void assertRejected(byte[] encoded, String message) {
+        MachineState state = randomState(2);
+        byte[] before = bytes(state);
+
+        StateException exception = assertThrows(StateException.class, () -> SaveStateCodec.decode(encoded, state));
+
+        assertEquals(message, exception.getMessage());
+        assertArrayEquals(before, bytes(state), "state changed by a rejected save state");
+    }
+
+    private static MachineState randomState(long seed) {
+        byte[] bytes = new byte[MachineState.STATE_SIZE];
+        new Random(seed).nextBytes(bytes);
+        MachineState state = MachineState.allocate();
+        state.setBytes(bytes);
+        return state;
+    }
+
+    private static byte[] bytes(MachineState state) {
+        byte[] bytes = new byte[MachineState.STATE_SIZE];
+        state.getBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class SaveStateManagerTest {
+    private static final int CYCLES = 10_000;
+    private static final int SLOT = 1;
+    private static final String ROM_NAME = "octojam9title.ch8";
+    @TempDir
+    Path stateDirectory;
+
+    @Test
+    void stateFileIsLoadedInAnotherSession() {
+        Chip8 chip8 = startedChip8();
+        MachineState saved = save(chip8);
+
+        chip8.emulateCycles(CYCLES);
+        SaveStateManager manager = new SaveStateManager(stateDirectory, ROM_NAME);
+        manager.requestLoad(SLOT);
+        manager.performRequests(chip8);
+        manager.close();
+
+        assertArrayEquals(bytes(saved), bytes(chip8.getState()));
+    }
+
+    @Test
+    void corruptedStateFileIsRejectedAndMachineIsUnchanged() throws IOException {
+        Chip8 chip8 = startedChip8();
+        save(chip8);
+        Path slotPath = new SaveStateManager(stateDirectory, ROM_NAME).getSlotPath(SLOT);
+        byte[] content = Files.readAllBytes(slotPath);
+        content[content.length - 1] ^= 0x01;
+        Files.write(slotPath, content);
+
+        chip8.emulateCycles(CYCLES);
+        byte[] before = bytes(chip8.getState());
+        SaveStateManager manager = new SaveStateManager(stateDirectory, ROM_NAME);
+        manager.requestLoad(SLOT);
+        manager.performRequests(chip8);
+        manager.close();
+
+        assertArrayEquals(before, bytes(chip8.getState()));
+    }
+
+    @Test
+    void missingStateFileLeavesMachineUnchanged() {
+        Chip8 chip8 = startedChip8();
+        byte[] before = bytes(chip8.getState());
+
+        SaveStateManager manager = new SaveStateManager(stateDirectory, ROM_NAME);
+        manager.requestLoad(SLOT);
+        manager.performRequests(chip8);
+        manager.close();
+
+        assertArrayEquals(before, bytes(chip8.getState()));
+        assertFalse(manager.hasRequests());
+    }
+
+    private static Chip8 startedChip8() {
+        Chip8 chip8 = new Chip8();
+        chip8.setRandomSeed(1);
+        chip8.loadRom(TestRoms.bundled(ROM_NAME));
+        chip8.emulateCycles(CYCLES);
+        return chip8;
+    }
+
+    /**
+     * save to the slot file in a session of its own, and wait for the write
+     */
+    private MachineState save(Chip8 chip8) {
+        SaveStateManager manager = new SaveStateManager(stateDirectory, ROM_NAME);
+        manager.requestSave(SLOT);
+        manager.performRequests(chip8);
+        manager.close();
+        MachineState saved = MachineState.allocate();
+        chip8.saveState(saved);
+        return saved;
+    }
+
+    private static byte[] bytes(MachineState state) {
+        byte[] bytes = new byte[MachineState.STATE_SIZE];
+        state.getBytes(bytes);
+        return bytes;
+    }
+}
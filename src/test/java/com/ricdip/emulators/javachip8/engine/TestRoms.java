@@ -0,0 +1,55 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.model.Rom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * ROMs used by the engine tests
+ */
+final class TestRoms {
+    /**
+     * directory of the ROMs bundled with the repository
+     */
+    static final Path BUNDLED_ROMS_DIRECTORY = Path.of("roms");
+
+    private TestRoms() {
+        // NOOP
+    }
+
+    /**
+     * load a ROM bundled with the repository
+     *
+     * @param romName the ROM file name
+     * @return loaded ROM
+     */
+    static Rom bundled(String romName) {
+        return new Rom(BUNDLED_ROMS_DIRECTORY.resolve(romName).toString());
+    }
+
+    /**
+     * write a program to a ROM file and load it
+     *
+     * @param directory the directory of the ROM file
+     * @param romName   the ROM file name
+     * @param opcodes   the program, one opcode per instruction starting at {@link BaseChip8#PC_INIT_VALUE}
+     * @return loaded ROM
+     */
+    static Rom program(Path directory, String romName, int... opcodes) {
+        byte[] content = new byte[opcodes.length * 2];
+        for (int i = 0; i < opcodes.length; i++) {
+            content[i * 2] = (byte) (opcodes[i] >>> 8);
+            content[(i * 2) + 1] = (byte) opcodes[i];
+        }
+        Path romPath = directory.resolve(romName);
+        try {
+            Files.write(romPath, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Rom(romPath.toString());
+    }
+}
@@ -0,0 +1,87 @@
+package com.ricdip.emulators.javachip8.engine;
+
+import com.ricdip.emulators.javachip8.model.ExecutionTrace;
+import com.ricdip.emulators.javachip8.model.TraceQueryConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TraceQueryTest {
+    private static final int HEADER_LINES = 2;
+    private static final int V0 = 0x0;
+    @TempDir
+    Path romDirectory;
+    private Path tracePath;
+
+    @BeforeEach
+    void writeTrace() {
+        Chip8 chip8 = EngineType.INTERPRETER.create();
+        chip8.loadRom(TestRoms.program(
+                romDirectory,
+                "counter.ch8",
+                0x6001, // 200: V0 = 1
+                0x7001, // 202: V0 += 1, at odd cycles
+                0x1202  // 204: loop, at even cycles
+        ));
+        tracePath = romDirectory.resolve("counter.c8tr");
+        try (ExecutionTracer tracer = new ExecutionTracer(tracePath, ExecutionTracer.DEFAULT_RING_RECORDS)) {
+            chip8.setTracer(tracer);
+            chip8.emulateCycles(21);
+        }
+    }
+
+    @Test
+    void recordsAreFilteredByPCRange() {
+        List<String> records = query(TraceQueryConfig.builder().fromPC(0x204).toPC(0x204));
+
+        assertEquals(10, records.size());
+        assertEquals(jump(2), records.get(0));
+        assertEquals(jump(20), records.get(9));
+    }
+
+    @Test
+    void recordsAreFilteredByCycleWindow() {
+        List<String> records = query(TraceQueryConfig.builder().fromCycle(5).toCycle(8));
+
+        assertEquals(List.of(increment(5), jump(6), increment(7), jump(8)), records);
+    }
+
+    @Test
+    void filtersAndLimitAreCombined() {
+        List<String> records = query(TraceQueryConfig.builder()
+                .fromPC(0x202)
+                .toPC(0x202)
+                .fromCycle(4)
+                .toCycle(20)
+                .limit(3));
+
+        assertEquals(List.of(increment(5), increment(7), increment(9)), records);
+    }
+
+    private List<String> query(TraceQueryConfig.TraceQueryConfigBuilder config) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TraceQuery.run(
+                config.tracePath(tracePath.toString()).build(),
+                new PrintStream(output, true, StandardCharsets.UTF_8)
+        );
+        List<String> lines = Arrays.asList(output.toString(StandardCharsets.UTF_8).split("\\R"));
+        return lines.subList(HEADER_LINES, lines.size());
+    }
+
+    private static String increment(long cycle) {
+        return ExecutionTrace.format(cycle, ExecutionTrace.pack(0x202, 0x7001, V0, (int) (cycle + 3) / 2));
+    }
+
+    private static String jump(long cycle) {
+        return ExecutionTrace.format(cycle, ExecutionTrace.pack(0x204, 0x1202, ExecutionTrace.NO_REGISTER, 0));
+    }
+}